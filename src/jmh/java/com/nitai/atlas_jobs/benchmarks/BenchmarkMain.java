@@ -0,0 +1,74 @@
+package com.nitai.atlas_jobs.benchmarks;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the benchmarks at increasing thread counts so scaling is visible in one report.
+ *
+ * <p>Arguments (all optional): a regex selecting benchmarks, then a comma-separated list of
+ * thread counts. Defaults: every benchmark, {@code 1,2,4,8}.
+ *
+ * <p>Each thread count writes a JMH JSON report to {@code <jmh.result.dir>/<threads>t.json}
+ * (default {@code target/jmh}) for comparing runs across commits. {@code spring.datasource.*}
+ * system properties are forwarded to the forked VMs for the database-backed benchmarks.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws RunnerException, URISyntaxException, IOException {
+        exposeClassPathToForks();
+        String include = args.length > 0 ? args[0] : ".*Benchmark.*";
+        String[] threadCounts = (args.length > 1 ? args[1] : "1,2,4,8").split(",");
+        Path resultDir = Files.createDirectories(Path.of(System.getProperty("jmh.result.dir", "target/jmh")));
+
+        for (String threads : threadCounts) {
+            int threadCount = Integer.parseInt(threads.trim());
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threadCount)
+                    .jvmArgsAppend(forwardedProperties())
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultDir.resolve(threadCount + "t.json").toString())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+
+    private static String[] forwardedProperties() {
+        return System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("spring.datasource."))
+                .map(name -> "-D" + name + "=" + System.getProperty(name))
+                .toArray(String[]::new);
+    }
+
+    /**
+     * exec:java loads the project through its own class loader, while JMH forks inherit
+     * {@code java.class.path}; copy the loader's entries there so forked VMs can start.
+     */
+    private static void exposeClassPathToForks() throws URISyntaxException {
+        if (!(Thread.currentThread().getContextClassLoader() instanceof URLClassLoader loader)) return;
+
+        List<String> entries = new ArrayList<>();
+        for (URL url : loader.getURLs()) {
+            entries.add(Path.of(url.toURI()).toString());
+        }
+        if (!entries.isEmpty()) {
+            System.setProperty("java.class.path", String.join(File.pathSeparator, entries));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.nitai.atlas_jobs.benchmarks;
+
+import com.nitai.atlas_jobs.AtlasJobsApplication;
+import com.nitai.atlas_jobs.job.Job;
+import com.nitai.atlas_jobs.job.JobBatchInsertRepository;
+import com.nitai.atlas_jobs.job.JobClaimService;
+import com.nitai.atlas_jobs.job.JobStatus;
+import com.nitai.atlas_jobs.job.JobWorker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end worker hot path against a real Postgres: claim a batch with UPDATE ... RETURNING,
+ * run each job through {@link JobWorker#run(Job)} (payload parse, execute, one conditional completion UPDATE).
+ *
+ * <p>Jobs are {@code FAIL_JOB}s with {@code max_attempts = 1}: the built-in types either sleep
+ * or fail, and failing straight to DEAD_LETTERED is the same single completion UPDATE as success.
+ *
+ * <p>{@code completionBatching=true} hands outcomes to the write-behind batcher instead of
+ * committing each one; the bounded queue makes workers write synchronously once the flusher falls
+ * behind, so the measured rate cannot outrun the database for long.
+ *
+ * <p>Needs a migrated database; defaults to the docker-compose one. Override with
+ * {@code -Dspring.datasource.url=...} (and username/password) on the Maven command line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClaimExecuteCompleteBenchmark {
+
+    private static final int CLAIM_BATCH = 10;
+    private static final int INSERT_CHUNK = 1_000;
+    private static final String PAYLOAD = "{\"message\": \"jmh\"}";
+
+    // Must outlast one iteration at the highest thread count; teardown fails loudly if not.
+    @Param("100000")
+    public int poolSize;
+
+    @Param({"false", "true"})
+    public boolean completionBatching;
+
+    private ConfigurableApplicationContext context;
+    private JobClaimService jobClaimService;
+    private JobWorker jobWorker;
+    private JobBatchInsertRepository batchInsertRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(AtlasJobsApplication.class)
+                .properties(
+                        "server.port=0",
+                        "atlas.worker.enabled=false",
+                        "atlas.archive.enabled=false",
+                        "atlas.worker.completion-batching.enabled=" + completionBatching,
+                        "logging.level.root=WARN"
+                )
+                .run();
+        jobClaimService = context.getBean(JobClaimService.class);
+        jobWorker = context.getBean(JobWorker.class);
+        batchInsertRepository = context.getBean(JobBatchInsertRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        deleteBenchmarkJobs();
+    }
+
+    @Setup(Level.Iteration)
+    public void fillQueue() {
+        List<Job> chunk = new ArrayList<>(INSERT_CHUNK);
+        for (int i = 0; i < poolSize; i++) {
+            chunk.add(new Job(UUID.randomUUID(), JobStatus.QUEUED, "FAIL_JOB", PAYLOAD, 1, null));
+            if (chunk.size() == INSERT_CHUNK) {
+                batchInsertRepository.insertIgnoringDuplicateKeys(chunk);
+                chunk.clear();
+            }
+        }
+        batchInsertRepository.insertIgnoringDuplicateKeys(chunk);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLAIM_BATCH)
+    public void claimExecuteComplete() {
+        List<Job> claimed = jobClaimService.claimBatch(CLAIM_BATCH);
+        for (Job job : claimed) {
+            jobWorker.run(job);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkAndClearQueue() {
+        Long remaining = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM jobs WHERE status = 'QUEUED' AND payload = ?", Long.class, PAYLOAD);
+        deleteBenchmarkJobs();
+        if (remaining == null || remaining == 0) {
+            throw new IllegalStateException("Queue drained mid-iteration; raise poolSize");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    private void deleteBenchmarkJobs() {
+        jdbcTemplate.update("DELETE FROM jobs WHERE payload = ?", PAYLOAD);
+    }
+}
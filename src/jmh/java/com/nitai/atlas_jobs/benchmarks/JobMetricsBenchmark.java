@@ -0,0 +1,49 @@
+package com.nitai.atlas_jobs.benchmarks;
+
+import com.nitai.atlas_jobs.job.JobMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Completion-path metrics recording into one shared {@link JobMetrics}, as worker slots do,
+ * plus the read side served to /metrics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobMetricsBenchmark {
+
+    private final JobMetrics metrics = new JobMetrics();
+
+    @Benchmark
+    public void recordSuccess() {
+        metrics.recordSuccess("SLEEP_JOB", 1_250_000L);
+    }
+
+    @Benchmark
+    public void recordFailure() {
+        metrics.recordFailure("FAIL_JOB", 800_000L);
+    }
+
+    @Benchmark
+    public void recordQueueWait() {
+        metrics.recordQueueWait("SLEEP_JOB", 40_000_000L);
+    }
+
+    @Benchmark
+    public Object readExecutionPercentiles() {
+        return metrics.getExecutionTimeByJobType();
+    }
+}
@@ -0,0 +1,44 @@
+package com.nitai.atlas_jobs.benchmarks;
+
+import com.nitai.atlas_jobs.job.Job;
+import com.nitai.atlas_jobs.job.JobStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory cost of failing an attempt and computing the next backoff.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobRetryBenchmark {
+
+    private Job job;
+
+    // A fresh job each iteration keeps attempt_count far from overflow and never dead-letters.
+    @Setup(Level.Iteration)
+    public void setUp() {
+        job = new Job(UUID.randomUUID(), JobStatus.RUNNING, "FAIL_JOB", null, Integer.MAX_VALUE, null);
+    }
+
+    @Benchmark
+    public Object onFailureAndScheduleRetry() {
+        job.onFailureAndScheduleRetry("Intentional failure for testing");
+        return job.getNextRunAt();
+    }
+}
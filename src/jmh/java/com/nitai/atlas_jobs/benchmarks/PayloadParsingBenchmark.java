@@ -0,0 +1,110 @@
+package com.nitai.atlas_jobs.benchmarks;
+
+import com.nitai.atlas_jobs.job.InvalidJobPayloadException;
+import com.nitai.atlas_jobs.job.Job;
+import com.nitai.atlas_jobs.job.JobStatus;
+import com.nitai.atlas_jobs.job.handler.FailJobHandler;
+import com.nitai.atlas_jobs.job.handler.JobHandlerRegistry;
+import com.nitai.atlas_jobs.job.handler.SleepJobHandler;
+import com.nitai.atlas_jobs.job.payload.PayloadCodec;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload handling on both paths: submission (JSON binding plus bean validation, valid and
+ * rejected) and execution (binding the stored JSON or Smile form, without validation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadParsingBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private JobHandlerRegistry registry;
+    private Job storedJson;
+    private Job storedSmile;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        registry = registry(new PayloadCodec("JSON", 1024));
+        storedJson = storedJob(registry);
+        storedSmile = storedJob(registry(new PayloadCodec("SMILE", 1024)));
+    }
+
+    private JobHandlerRegistry registry(PayloadCodec codec) {
+        return new JobHandlerRegistry(
+                List.of(new SleepJobHandler(), new FailJobHandler()),
+                JsonMapper.builder().build(),
+                validatorFactory.getValidator(),
+                codec);
+    }
+
+    private static Job storedJob(JobHandlerRegistry registry) {
+        Job job = new Job(UUID.randomUUID(), JobStatus.RUNNING, "SLEEP_JOB", null, 3, null);
+        job.storePayload(registry.preparePayload("SLEEP_JOB", "{\"sleepSeconds\": 5}"));
+        return job;
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Object parseValidSleepPayload() {
+        return registry.parsePayload("SLEEP_JOB", "{\"sleepSeconds\": 5}");
+    }
+
+    @Benchmark
+    public Object decodeStoredJsonPayload() {
+        return registry.decodePayload(storedJson);
+    }
+
+    @Benchmark
+    public Object decodeStoredSmilePayload() {
+        return registry.decodePayload(storedSmile);
+    }
+
+    @Benchmark
+    public Object parseValidFailPayload() {
+        return registry.parsePayload("FAIL_JOB", "{\"message\": \"boom\"}");
+    }
+
+    @Benchmark
+    public Object rejectOutOfRangeSleepPayload() {
+        try {
+            return registry.parsePayload("SLEEP_JOB", "{\"sleepSeconds\": 999}");
+        } catch (InvalidJobPayloadException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object rejectMalformedPayload() {
+        try {
+            return registry.parsePayload("SLEEP_JOB", "{\"sleepSeconds\": ");
+        } catch (InvalidJobPayloadException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.nitai.atlas_jobs.benchmarks;
+
+import com.nitai.atlas_jobs.web.LocalRateLimiter;
+import com.nitai.atlas_jobs.web.RateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The per-request check made by RateLimitingFilter. {@code sameClient} puts every thread on
+ * one key (one hot CAS cell); {@code distinctClients} gives each thread its own key.
+ * Limits are effectively unbounded so every call takes the permit path.
+ * {@code sameClientOverLimit} hammers one exhausted key, where a rejection is a read with no CAS.
+ *
+ * <p>Run at 1 and N threads (the default {@code BenchmarkMain} sweep): a limiter that serializes
+ * a hot client shows flat or falling {@code sameClient} throughput as threads are added.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final AtomicInteger NEXT_CLIENT = new AtomicInteger();
+
+    private final RateLimiter rateLimiter = new LocalRateLimiter(Long.MAX_VALUE, Long.MAX_VALUE, 100_000);
+    private final RateLimiter exhausted = new LocalRateLimiter(1, 1, 100_000);
+
+    @State(Scope.Thread)
+    public static class Client {
+        String key;
+
+        @Setup
+        public void setUp() {
+            key = "10.0.0." + NEXT_CLIENT.incrementAndGet();
+        }
+    }
+
+    @Benchmark
+    public boolean sameClient() {
+        return rateLimiter.isRateLimited(RateLimiter.Bucket.JOBS, "10.0.0.1");
+    }
+
+    @Benchmark
+    public boolean sameClientOverLimit() {
+        return exhausted.isRateLimited(RateLimiter.Bucket.JOBS, "10.0.0.1");
+    }
+
+    @Benchmark
+    public boolean distinctClients(Client client) {
+        return rateLimiter.isRateLimited(RateLimiter.Bucket.JOBS, client.key);
+    }
+}
@@ -0,0 +1,47 @@
+package com.nitai.atlas_jobs.benchmarks;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The per-second, monitor-guarded counter JobMetrics used before SlidingWindowCounter,
+ * kept here as the benchmark baseline.
+ */
+final class SynchronizedSecondBuckets {
+
+    private static final int WINDOW_SECONDS = 60;
+
+    private final AtomicLongArray processedCounts = new AtomicLongArray(WINDOW_SECONDS);
+    private final AtomicLongArray processedEpochSeconds = new AtomicLongArray(WINDOW_SECONDS);
+    private final Object[] bucketLocks = new Object[WINDOW_SECONDS];
+
+    SynchronizedSecondBuckets() {
+        for (int i = 0; i < WINDOW_SECONDS; i++) {
+            bucketLocks[i] = new Object();
+        }
+    }
+
+    void recordProcessed() {
+        long nowSec = Instant.now().getEpochSecond();
+        int idx = (int) (nowSec % WINDOW_SECONDS);
+        synchronized (bucketLocks[idx]) {
+            long bucketSec = processedEpochSeconds.get(idx);
+            if (bucketSec != nowSec) {
+                processedEpochSeconds.set(idx, nowSec);
+                processedCounts.set(idx, 0L);
+            }
+            processedCounts.incrementAndGet(idx);
+        }
+    }
+
+    long processedLastMinute() {
+        long nowSec = Instant.now().getEpochSecond();
+        long total = 0L;
+        for (int i = 0; i < WINDOW_SECONDS; i++) {
+            if (nowSec - processedEpochSeconds.get(i) < WINDOW_SECONDS) {
+                total += processedCounts.get(i);
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,41 @@
+package com.nitai.atlas_jobs.benchmarks;
+
+import com.nitai.atlas_jobs.job.metrics.SlidingWindowCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Completion-path cost of the processed-jobs counter: the striped CAS ring used by JobMetrics
+ * against the synchronized per-second buckets it replaced. Every thread records into the same
+ * shared instance, as worker slots do. {@link BenchmarkMain} runs it at 1, 2, 4 and 8 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThroughputCounterBenchmark {
+
+    private final SlidingWindowCounter striped = new SlidingWindowCounter(900_000L, 250L);
+    private final SynchronizedSecondBuckets synchronizedBuckets = new SynchronizedSecondBuckets();
+
+    @Benchmark
+    public void stripedCasRing() {
+        striped.increment();
+    }
+
+    @Benchmark
+    public void synchronizedSecondBuckets() {
+        synchronizedBuckets.recordProcessed();
+    }
+}
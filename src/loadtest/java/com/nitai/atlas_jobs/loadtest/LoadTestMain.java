@@ -0,0 +1,442 @@
+package com.nitai.atlas_jobs.loadtest;
+
+import com.nitai.atlas_jobs.AtlasJobsApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open-loop load generator and soak harness for the REST API.
+ *
+ * <p>Submits jobs through {@code POST /jobs} at a fixed rate and SLEEP_JOB/FAIL_JOB mix, polls
+ * {@code GET /jobs/{id}} until each job is SUCCEEDED or DEAD_LETTERED, and reports
+ * enqueue-to-start and enqueue-to-finish percentiles, throughput, retries and the dead-letter
+ * rate. Latencies come from the server's own timestamps, so polling interval does not skew them.
+ *
+ * <p>With {@code --workers=N} it starts N application instances in this JVM, each with its own
+ * {@code atlas.worker-id} and port, and spreads requests across them; with {@code --targets=...}
+ * it drives instances that are already running instead. Options are listed in {@link Options}.
+ */
+public final class LoadTestMain {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    private final Options options;
+    private final List<URI> targets;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    private final Semaphore submitPermits = new Semaphore(256);
+    private final Semaphore pollPermits = new Semaphore(32);
+    private final AtomicInteger nextTarget = new AtomicInteger();
+    private final Results results = new Results();
+
+    private LoadTestMain(Options options, List<URI> targets) {
+        this.options = options;
+        this.targets = targets;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        List<ConfigurableApplicationContext> instances = new ArrayList<>();
+        try {
+            List<URI> targets = options.targets.isEmpty() ? startInstances(options, instances) : options.targets;
+            new LoadTestMain(options, targets).run();
+        } finally {
+            instances.forEach(ConfigurableApplicationContext::close);
+        }
+    }
+
+    private static List<URI> startInstances(Options options, List<ConfigurableApplicationContext> instances) {
+        List<URI> targets = new ArrayList<>();
+        // Sequential startup: the first instance runs the Flyway migrations for the rest.
+        for (int i = 1; i <= options.workers; i++) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(AtlasJobsApplication.class)
+                    .properties(
+                            "server.port=0",
+                            "atlas.worker-id=loadtest-worker-" + i,
+                            "atlas.worker.concurrency=" + options.workerConcurrency,
+                            "atlas.rate-limit.enabled=false",
+                            "atlas.security.enabled=false",
+                            "atlas.archive.enabled=false",
+                            "spring.main.banner-mode=off",
+                            "logging.level.root=WARN"
+                    )
+                    .run();
+            instances.add(context);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            targets.add(URI.create("http://localhost:" + port));
+        }
+        return targets;
+    }
+
+    private void run() throws Exception {
+        System.out.printf("Load test: %d jobs/s for %ds, %.0f%% FAIL_JOB, against %s%n",
+                options.rate, options.durationSeconds, options.failRatio * 100, targets);
+
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(daemon("loadtest-progress"));
+        progress.scheduleAtFixedRate(this::printProgress, 10, 10, TimeUnit.SECONDS);
+        Thread poller = new Thread(this::pollUntilDrained, "loadtest-poller");
+        poller.setDaemon(true);
+        poller.start();
+
+        long startNanos = System.nanoTime();
+        submit(startNanos);
+        results.submitSeconds = (System.nanoTime() - startNanos) / 1e9;
+        submitPermits.acquire(256);
+        results.submissionsDone = true;
+
+        poller.join();
+        progress.shutdownNow();
+        report();
+    }
+
+    private void submit(long startNanos) throws InterruptedException {
+        long total = (long) options.rate * options.durationSeconds;
+        double intervalNanos = 1e9 / options.rate;
+        for (long i = 0; i < total; i++) {
+            long dueNanos = startNanos + (long) (i * intervalNanos);
+            long waitNanos = dueNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            submitPermits.acquire();
+            results.submitted.incrementAndGet();
+
+            boolean fail = ThreadLocalRandom.current().nextDouble() < options.failRatio;
+            String body = fail
+                    ? job("FAIL_JOB", "{\"message\": \"loadtest\"}")
+                    : job("SLEEP_JOB", "{\"sleepSeconds\": " + options.sleepSeconds + "}");
+            HttpRequest request = request("/jobs")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            http.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        try {
+                            onSubmitted(response, error);
+                        } finally {
+                            submitPermits.release();
+                        }
+                    });
+        }
+    }
+
+    private String job(String jobType, String payload) {
+        Map<String, Object> job = new LinkedHashMap<>();
+        job.put("jobType", jobType);
+        job.put("payload", payload);
+        job.put("maxAttempts", options.maxAttempts);
+        return MAPPER.writeValueAsString(job);
+    }
+
+    private void onSubmitted(HttpResponse<String> response, Throwable error) {
+        if (error != null) {
+            results.submitErrors.incrementAndGet();
+        } else if (response.statusCode() == 201) {
+            JsonNode job = MAPPER.readTree(response.body());
+            pending.add(UUID.fromString(job.get("jobId").asString()));
+            results.accepted.incrementAndGet();
+        } else if (response.statusCode() == 429) {
+            results.rateLimited.incrementAndGet();
+        } else {
+            results.submitErrors.incrementAndGet();
+        }
+    }
+
+    private void pollUntilDrained() {
+        long drainDeadline = Long.MAX_VALUE;
+        try {
+            while (true) {
+                if (results.submissionsDone) {
+                    if (pending.isEmpty()) return;
+                    if (drainDeadline == Long.MAX_VALUE) {
+                        drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.drainSeconds);
+                    } else if (System.nanoTime() > drainDeadline) {
+                        return;
+                    }
+                }
+                for (UUID jobId : List.copyOf(pending)) {
+                    pollPermits.acquire();
+                    http.sendAsync(request("/jobs/" + jobId).GET().build(), HttpResponse.BodyHandlers.ofString())
+                            .whenComplete((response, error) -> {
+                                try {
+                                    if (error == null && response.statusCode() == 200) {
+                                        onPolled(jobId, MAPPER.readTree(response.body()));
+                                    }
+                                } finally {
+                                    pollPermits.release();
+                                }
+                            });
+                }
+                TimeUnit.MILLISECONDS.sleep(options.pollIntervalMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void onPolled(UUID jobId, JsonNode job) {
+        String status = job.get("status").asString();
+        boolean succeeded = "SUCCEEDED".equals(status);
+        if (!succeeded && !"DEAD_LETTERED".equals(status)) return;
+        if (!pending.remove(jobId)) return;
+
+        OffsetDateTime createdAt = timestamp(job, "createdAt");
+        OffsetDateTime finishedAt = timestamp(job, "updatedAt");
+        OffsetDateTime startedAt = timestamp(job, "startedAt");
+        int failures = job.get("attemptCount").asInt();
+        // attempt_count counts failed attempts, so a dead-lettered job's last failure is not a retry.
+        int retries = succeeded ? failures : Math.max(0, failures - 1);
+        // started_at is overwritten by every attempt; it only marks the first start when there was one attempt.
+        boolean firstAttempt = retries == 0;
+        JsonNode worker = job.get("workerId");
+        String workerId = worker == null || worker.isNull() ? "unassigned" : worker.asString();
+
+        results.record(succeeded, retries, workerId,
+                millisBetween(createdAt, finishedAt),
+                firstAttempt && startedAt != null ? millisBetween(createdAt, startedAt) : -1L,
+                createdAt.toInstant().toEpochMilli(), finishedAt.toInstant().toEpochMilli());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        URI base = targets.get(Math.floorMod(nextTarget.getAndIncrement(), targets.size()));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(base.resolve(path)).timeout(Duration.ofSeconds(30));
+        if (options.basicAuth != null) {
+            String token = Base64.getEncoder().encodeToString(options.basicAuth.getBytes(StandardCharsets.UTF_8));
+            builder.header("Authorization", "Basic " + token);
+        }
+        return builder;
+    }
+
+    private void printProgress() {
+        System.out.printf("  submitted=%d accepted=%d finished=%d in-flight=%d%n",
+                results.submitted.get(), results.accepted.get(), results.finished(), pending.size());
+    }
+
+    private void report() throws IOException {
+        Map<String, Object> report = results.toReport(options, pending.size());
+        System.out.println();
+        System.out.println(MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+
+        Path file = Path.of(options.reportFile);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        System.out.println("Report written to " + file);
+    }
+
+    private static OffsetDateTime timestamp(JsonNode job, String field) {
+        JsonNode value = job.get(field);
+        return value == null || value.isNull() ? null : OffsetDateTime.parse(value.asString());
+    }
+
+    private static long millisBetween(OffsetDateTime from, OffsetDateTime to) {
+        return Math.max(0L, Duration.between(from, to).toMillis());
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Results {
+        final AtomicLong submitted = new AtomicLong();
+        final AtomicLong accepted = new AtomicLong();
+        final AtomicLong rateLimited = new AtomicLong();
+        final AtomicLong submitErrors = new AtomicLong();
+        volatile boolean submissionsDone;
+        volatile double submitSeconds;
+
+        private long succeeded;
+        private long deadLettered;
+        private long retries;
+        private long firstCreatedEpochMs;
+        private long lastFinishedEpochMs;
+        private final Map<String, Long> finishedByWorker = new TreeMap<>();
+        private final LongSamples toFinishMs = new LongSamples();
+        private final LongSamples toStartMs = new LongSamples();
+
+        synchronized void record(boolean ok, int jobRetries, String workerId,
+                                 long finishMs, long startMs, long createdEpochMs, long finishedEpochMs) {
+            if (ok) succeeded++; else deadLettered++;
+            retries += jobRetries;
+            finishedByWorker.merge(workerId, 1L, Long::sum);
+            toFinishMs.add(finishMs);
+            if (startMs >= 0) toStartMs.add(startMs);
+            firstCreatedEpochMs = firstCreatedEpochMs == 0 ? createdEpochMs : Math.min(firstCreatedEpochMs, createdEpochMs);
+            lastFinishedEpochMs = Math.max(lastFinishedEpochMs, finishedEpochMs);
+        }
+
+        synchronized long finished() {
+            return succeeded + deadLettered;
+        }
+
+        synchronized Map<String, Object> toReport(Options options, int unfinished) {
+            long finished = succeeded + deadLettered;
+            double processingSeconds = (lastFinishedEpochMs - firstCreatedEpochMs) / 1000.0;
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("options", options.asMap());
+            report.put("submitted", submitted.get());
+            report.put("accepted", accepted.get());
+            report.put("rateLimited", rateLimited.get());
+            report.put("submitErrors", submitErrors.get());
+            report.put("submitRatePerSecond", round(submitted.get() / Math.max(submitSeconds, 1e-9)));
+            report.put("succeeded", succeeded);
+            report.put("deadLettered", deadLettered);
+            report.put("unfinished", unfinished);
+            report.put("deadLetterRate", round(finished == 0 ? 0 : (double) deadLettered / finished));
+            report.put("retries", retries);
+            report.put("throughputPerSecond", round(processingSeconds <= 0 ? 0 : finished / processingSeconds));
+            report.put("enqueueToStartMs", toStartMs.percentiles());
+            report.put("enqueueToFinishMs", toFinishMs.percentiles());
+            report.put("finishedByWorker", new LinkedHashMap<>(finishedByWorker));
+            return report;
+        }
+    }
+
+    private static final class LongSamples {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        Map<String, Object> percentiles() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("count", size);
+            result.put("p50", percentile(sorted, 0.50));
+            result.put("p90", percentile(sorted, 0.90));
+            result.put("p99", percentile(sorted, 0.99));
+            result.put("p999", percentile(sorted, 0.999));
+            result.put("max", size == 0 ? 0 : sorted[size - 1]);
+            return result;
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) return 0;
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+
+    /**
+     * {@code --name=value} arguments; every option has a default.
+     */
+    static final class Options {
+        int rate = 20;
+        int durationSeconds = 60;
+        double failRatio = 0.1;
+        int sleepSeconds = 1;
+        int maxAttempts = 3;
+        int workers = 2;
+        int workerConcurrency = 4;
+        List<URI> targets = List.of();
+        String basicAuth;
+        long pollIntervalMs = 500;
+        int drainSeconds = 120;
+        String reportFile = "target/loadtest/report.json";
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+                }
+                int eq = arg.indexOf('=');
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+
+            Options o = new Options();
+            o.rate = Integer.parseInt(values.getOrDefault("rate", String.valueOf(o.rate)));
+            o.durationSeconds = Integer.parseInt(values.getOrDefault("duration-seconds", String.valueOf(o.durationSeconds)));
+            o.failRatio = Double.parseDouble(values.getOrDefault("fail-ratio", String.valueOf(o.failRatio)));
+            o.sleepSeconds = Integer.parseInt(values.getOrDefault("sleep-seconds", String.valueOf(o.sleepSeconds)));
+            o.maxAttempts = Integer.parseInt(values.getOrDefault("max-attempts", String.valueOf(o.maxAttempts)));
+            o.workers = Integer.parseInt(values.getOrDefault("workers", String.valueOf(o.workers)));
+            o.workerConcurrency = Integer.parseInt(values.getOrDefault("worker-concurrency", String.valueOf(o.workerConcurrency)));
+            o.basicAuth = values.get("basic-auth");
+            o.pollIntervalMs = Long.parseLong(values.getOrDefault("poll-interval-ms", String.valueOf(o.pollIntervalMs)));
+            o.drainSeconds = Integer.parseInt(values.getOrDefault("drain-seconds", String.valueOf(o.drainSeconds)));
+            o.reportFile = values.getOrDefault("report", o.reportFile);
+            if (values.containsKey("targets")) {
+                o.targets = Arrays.stream(values.get("targets").split(","))
+                        .map(String::trim)
+                        .filter(s -> !s.isEmpty())
+                        .map(URI::create)
+                        .toList();
+            }
+
+            values.keySet().removeAll(List.of("rate", "duration-seconds", "fail-ratio", "sleep-seconds",
+                    "max-attempts", "workers", "worker-concurrency", "basic-auth", "poll-interval-ms",
+                    "drain-seconds", "report", "targets"));
+            if (!values.isEmpty()) {
+                throw new IllegalArgumentException("Unknown options: " + values.keySet());
+            }
+            if (o.rate < 1 || o.durationSeconds < 1) {
+                throw new IllegalArgumentException("rate and duration-seconds must be positive");
+            }
+            if (o.targets.isEmpty() && o.workers < 1) {
+                throw new IllegalArgumentException("Need --workers >= 1 or --targets");
+            }
+            return o;
+        }
+
+        Map<String, Object> asMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("rate", rate);
+            map.put("durationSeconds", durationSeconds);
+            map.put("failRatio", failRatio);
+            map.put("sleepSeconds", sleepSeconds);
+            map.put("maxAttempts", maxAttempts);
+            map.put("workers", targets.isEmpty() ? workers : targets.size());
+            map.put("workerConcurrency", targets.isEmpty() ? workerConcurrency : null);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.nitai.atlas_jobs.config;
+
+import com.nitai.atlas_jobs.web.LocalRateLimiter;
+import com.nitai.atlas_jobs.web.PostgresRateLimiter;
+import com.nitai.atlas_jobs.web.RateLimitLeaseRepository;
+import com.nitai.atlas_jobs.web.RateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+@Configuration
+@ConditionalOnProperty(name = "atlas.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    /**
+     * {@code local} (default) limits each node on its own; {@code postgres} shares the limits
+     * across every node using the same database.
+     */
+    @Bean
+    public RateLimiter rateLimiter(@Value("${atlas.rate-limit.mode:local}") String mode,
+                                   @Value("${atlas.rate-limit.jobs-per-minute:60}") long jobsPerMinute,
+                                   @Value("${atlas.rate-limit.requeue-per-minute:30}") long requeuePerMinute,
+                                   @Value("${atlas.rate-limit.max-clients:100000}") int maxClients,
+                                   @Value("${atlas.rate-limit.lease-size:10}") long leaseSize,
+                                   @Value("${atlas.rate-limit.lease-ttl-ms:1000}") long leaseTtlMs,
+                                   @Value("${atlas.rate-limit.db-backoff-ms:5000}") long dbBackoffMs,
+                                   RateLimitLeaseRepository leaseRepository) {
+        LocalRateLimiter local = new LocalRateLimiter(jobsPerMinute, requeuePerMinute, maxClients);
+        return switch (mode.trim().toLowerCase(Locale.ROOT)) {
+            case "local" -> local;
+            case "postgres" -> new PostgresRateLimiter(leaseRepository, local, jobsPerMinute, requeuePerMinute,
+                    maxClients, leaseSize, leaseTtlMs, dbBackoffMs);
+            default -> throw new IllegalArgumentException("Invalid atlas.rate-limit.mode: " + mode);
+        };
+    }
+}
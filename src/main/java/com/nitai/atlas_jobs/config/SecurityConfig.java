@@ -25,7 +25,7 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/debug/**", "/metrics").authenticated()
+                        .requestMatchers("/debug/**", "/metrics", "/recurring-jobs/**").authenticated()
 
                         .requestMatchers("/actuator/**").authenticated()
                         .anyRequest().permitAll()
@@ -0,0 +1,253 @@
+package com.nitai.atlas_jobs.job;
+
+import com.nitai.atlas_jobs.job.metrics.DecayingAverage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Sheds job submissions while workers or the database fall behind, so an incident cannot grow
+ * the queue without bound.
+ *
+ * <p>Four signals each give a pressure that ramps linearly from 0 at their low watermark to 1
+ * at their high one: due QUEUED jobs in total, due QUEUED jobs of the submitted type (ramping from half
+ * of its {@code type-max-queued} entry), and the recent insert and claim latency. A submission
+ * is shed with probability equal to the highest pressure, so past a low watermark intake is
+ * slowed gradually and past a high one it stops; shed submissions get 503 with
+ * {@code Retry-After}.
+ *
+ * <p>Queue depths are refreshed every {@code refresh-interval-ms}, so they lag by up to that
+ * interval. Only jobs already due count: a backlog of delayed jobs or retries in backoff is
+ * not work the workers are behind on. The {@link JobStatusCounts} counters include those
+ * future-dated rows, so they are only a cheap upper bound; when it passes a low watermark the
+ * due rows are counted from {@code jobs}, reading no more rows than the highest watermark.
+ * Latencies are
+ * {@link DecayingAverage}s that fade while nothing is measured, so shedding inserts because
+ * inserts were slow cannot lock intake out for good.
+ */
+@Component
+public class AdmissionController {
+
+    public record Stats(
+            boolean enabled,
+            long queuedJobs,
+            Map<String, Long> queuedByJobType,
+            double insertLatencyMs,
+            double claimLatencyMs,
+            double pressure,
+            long admitted,
+            long shed,
+            Map<String, Long> shedByJobType
+    ) {}
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionController.class);
+
+    private static final double LATENCY_ALPHA = 0.2;
+
+    private final JobStatusCounts statusCounts;
+    private final boolean enabled;
+    private final Watermarks queueDepth;
+    private final Map<String, Watermarks> typeQueueDepth = new LinkedHashMap<>();
+    private final Watermarks insertLatency;
+    private final Watermarks claimLatency;
+    private final long retryAfterSeconds;
+    private final long dueScanLimit;
+    private final DoubleSupplier random;
+
+    private final DecayingAverage insertLatencyMs;
+    private final DecayingAverage claimLatencyMs;
+
+    private volatile QueueDepth queued = new QueueDepth(0L, Map.of());
+
+    private final LongAdder admitted = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> shedByJobType = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AdmissionController(JobStatusCounts statusCounts,
+                               @Value("${atlas.admission.enabled:true}") boolean enabled,
+                               @Value("${atlas.admission.queue-depth.low:50000}") long queueDepthLow,
+                               @Value("${atlas.admission.queue-depth.high:100000}") long queueDepthHigh,
+                               @Value("${atlas.admission.type-max-queued:}") String typeMaxQueued,
+                               @Value("${atlas.admission.insert-latency-ms.low:200}") long insertLatencyLowMs,
+                               @Value("${atlas.admission.insert-latency-ms.high:1000}") long insertLatencyHighMs,
+                               @Value("${atlas.admission.claim-latency-ms.low:500}") long claimLatencyLowMs,
+                               @Value("${atlas.admission.claim-latency-ms.high:2000}") long claimLatencyHighMs,
+                               @Value("${atlas.admission.latency-half-life-ms:10000}") long latencyHalfLifeMs,
+                               @Value("${atlas.admission.retry-after-seconds:5}") long retryAfterSeconds) {
+        this(statusCounts, enabled, queueDepthLow, queueDepthHigh, typeMaxQueued,
+                insertLatencyLowMs, insertLatencyHighMs, claimLatencyLowMs, claimLatencyHighMs,
+                latencyHalfLifeMs, retryAfterSeconds, () -> ThreadLocalRandom.current().nextDouble(), System::nanoTime);
+    }
+
+    AdmissionController(JobStatusCounts statusCounts,
+                        boolean enabled,
+                        long queueDepthLow,
+                        long queueDepthHigh,
+                        String typeMaxQueued,
+                        long insertLatencyLowMs,
+                        long insertLatencyHighMs,
+                        long claimLatencyLowMs,
+                        long claimLatencyHighMs,
+                        long latencyHalfLifeMs,
+                        long retryAfterSeconds,
+                        DoubleSupplier random,
+                        LongSupplier clockNanos) {
+        this.statusCounts = statusCounts;
+        this.enabled = enabled;
+        this.queueDepth = new Watermarks(queueDepthLow, queueDepthHigh);
+        parseTypeMaxQueued(typeMaxQueued).forEach((type, max) -> typeQueueDepth.put(type, new Watermarks(max / 2, max)));
+        this.insertLatency = new Watermarks(insertLatencyLowMs, insertLatencyHighMs);
+        this.claimLatency = new Watermarks(claimLatencyLowMs, claimLatencyHighMs);
+        // Past the highest watermark every pressure is already 1, so counting further changes nothing.
+        long scanLimit = (long) queueDepth.high;
+        for (Watermarks typeDepth : typeQueueDepth.values()) {
+            scanLimit = Math.max(scanLimit, (long) typeDepth.high);
+        }
+        this.dueScanLimit = scanLimit;
+        this.retryAfterSeconds = Math.max(1L, retryAfterSeconds);
+        this.random = random;
+        this.insertLatencyMs = new DecayingAverage(LATENCY_ALPHA, latencyHalfLifeMs, clockNanos);
+        this.claimLatencyMs = new DecayingAverage(LATENCY_ALPHA, latencyHalfLifeMs, clockNanos);
+    }
+
+    /**
+     * Returns if a job of {@code jobType} may be enqueued now, otherwise throws
+     * {@link AdmissionRejectedException}. Only call it for types the registry knows.
+     */
+    public void admit(String jobType) {
+        if (!enabled) return;
+        Pressure pressure = pressure(jobType);
+        if (pressure.value > 0 && random.getAsDouble() < pressure.value) {
+            shedByJobType.computeIfAbsent(jobType, k -> new LongAdder()).increment();
+            throw new AdmissionRejectedException(jobType, pressure.signal, retryAfterSeconds);
+        }
+        admitted.increment();
+    }
+
+    public void recordInsertLatency(long nanos) {
+        insertLatencyMs.record(nanos / 1_000_000.0);
+    }
+
+    public void recordClaimLatency(long nanos) {
+        claimLatencyMs.record(nanos / 1_000_000.0);
+    }
+
+    @Scheduled(fixedDelayString = "${atlas.admission.refresh-interval-ms:1000}")
+    public void refreshQueueDepth() {
+        if (!enabled) return;
+        try {
+            Map<String, Long> byType = statusCounts.snapshot().byJobType(JobStatus.QUEUED);
+            if (couldShed(byType)) {
+                byType = statusCounts.dueQueuedByJobType(dueScanLimit);
+            }
+            long total = byType.values().stream().mapToLong(Long::longValue).sum();
+            queued = new QueueDepth(total, byType);
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh queue depth for admission control; keeping the last reading", e);
+        }
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public Stats stats() {
+        QueueDepth depth = queued;
+        Map<String, Long> shed = new TreeMap<>();
+        shedByJobType.forEach((type, count) -> shed.put(type, count.sum()));
+        return new Stats(
+                enabled,
+                depth.total,
+                depth.byJobType,
+                insertLatencyMs.value(),
+                claimLatencyMs.value(),
+                enabled ? pressure(null).value : 0.0,
+                admitted.sum(),
+                shed.values().stream().mapToLong(Long::longValue).sum(),
+                shed
+        );
+    }
+
+    /**
+     * The highest pressure on a submission of {@code jobType}; {@code null} leaves out the
+     * per-type depth.
+     */
+    private Pressure pressure(String jobType) {
+        QueueDepth depth = queued;
+        Pressure pressure = new Pressure(queueDepth.pressure(depth.total), "queue depth");
+        Watermarks typeDepth = jobType == null ? null : typeQueueDepth.get(jobType);
+        if (typeDepth != null) {
+            pressure = pressure.max(typeDepth.pressure(depth.byJobType.getOrDefault(jobType, 0L)), jobType + " queue depth");
+        }
+        pressure = pressure.max(insertLatency.pressure(insertLatencyMs.value()), "insert latency");
+        return pressure.max(claimLatency.pressure(claimLatencyMs.value()), "claim latency");
+    }
+
+    /**
+     * Whether QUEUED counts that may include future-dated jobs pass any depth watermark.
+     */
+    private boolean couldShed(Map<String, Long> queuedByType) {
+        long total = queuedByType.values().stream().mapToLong(Long::longValue).sum();
+        if (queueDepth.exceeded(total)) return true;
+        for (Map.Entry<String, Watermarks> typeDepth : typeQueueDepth.entrySet()) {
+            if (typeDepth.getValue().exceeded(queuedByType.getOrDefault(typeDepth.getKey(), 0L))) return true;
+        }
+        return false;
+    }
+
+    static Map<String, Long> parseTypeMaxQueued(String spec) {
+        Map<String, Long> caps = new LinkedHashMap<>();
+        if (spec == null || spec.isBlank()) return caps;
+
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) continue;
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2 || parts[0].isBlank()) {
+                throw new IllegalArgumentException("Invalid atlas.admission.type-max-queued entry: " + entry.trim());
+            }
+            caps.put(parts[0].trim(), Math.max(1L, Long.parseLong(parts[1].trim())));
+        }
+        return caps;
+    }
+
+    private record QueueDepth(long total, Map<String, Long> byJobType) {}
+
+    private record Pressure(double value, String signal) {
+        Pressure max(double other, String otherSignal) {
+            return other > value ? new Pressure(other, otherSignal) : this;
+        }
+    }
+
+    /**
+     * 0 at or below {@code low}, 1 at or above {@code high}, linear in between; a high of 0
+     * turns the signal off.
+     */
+    private record Watermarks(double low, double high) {
+        Watermarks {
+            high = Math.max(0.0, high);
+            low = Math.min(Math.max(0.0, low), high);
+        }
+
+        boolean exceeded(double reading) {
+            return high > 0 && reading > low;
+        }
+
+        double pressure(double reading) {
+            if (high == 0 || reading <= low) return 0.0;
+            if (reading >= high) return 1.0;
+            return (reading - low) / (high - low);
+        }
+    }
+}
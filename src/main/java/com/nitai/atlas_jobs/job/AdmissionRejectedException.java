@@ -0,0 +1,15 @@
+package com.nitai.atlas_jobs.job;
+
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String jobType, String signal, long retryAfterSeconds) {
+        super("Not accepting " + jobType + " jobs right now (" + signal + "); retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,21 @@
+package com.nitai.atlas_jobs.job;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record BulkRequeueProgress(
+        UUID operationId,
+        State state,
+        DeadLetterFilter filter,
+        long requeued,
+        int chunks,
+        OffsetDateTime startedAt,
+        OffsetDateTime finishedAt,
+        String error
+) {
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
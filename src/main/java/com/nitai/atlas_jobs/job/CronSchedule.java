@@ -0,0 +1,75 @@
+package com.nitai.atlas_jobs.job;
+
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * A cron expression (Spring's six-field form, seconds first) evaluated in a time zone.
+ */
+final class CronSchedule {
+
+    /**
+     * Fire times that are due, oldest first, and the first fire time after them.
+     */
+    record Occurrences(List<OffsetDateTime> due, OffsetDateTime next) {}
+
+    private final CronExpression expression;
+    private final ZoneId zone;
+
+    private CronSchedule(CronExpression expression, ZoneId zone) {
+        this.expression = expression;
+        this.zone = zone;
+    }
+
+    /**
+     * @throws InvalidJobPayloadException for a malformed expression or unknown zone
+     */
+    static CronSchedule parse(String cron, String timeZone) {
+        CronExpression expression;
+        try {
+            expression = CronExpression.parse(cron);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidJobPayloadException("Invalid cron expression '" + cron + "': " + e.getMessage(), e);
+        }
+        try {
+            return new CronSchedule(expression, ZoneId.of(timeZone));
+        } catch (DateTimeException e) {
+            throw new InvalidJobPayloadException("Unknown time zone: " + timeZone, e);
+        }
+    }
+
+    /**
+     * The first fire time strictly after {@code after}, or null if the expression never fires again.
+     */
+    OffsetDateTime nextAfter(OffsetDateTime after) {
+        ZonedDateTime next = expression.next(after.atZoneSameInstant(zone));
+        return next == null ? null : next.toOffsetDateTime();
+    }
+
+    /**
+     * Walks the fire times from {@code nextFireAt} up to {@code now}. Fire times older than
+     * {@code catchUpWindow} are skipped without being enumerated, and of the rest only the
+     * latest {@code maxCatchUp} are returned, so a long outage costs a bounded amount of work.
+     */
+    Occurrences due(OffsetDateTime nextFireAt, OffsetDateTime now, int maxCatchUp, Duration catchUpWindow) {
+        OffsetDateTime windowStart = now.minus(catchUpWindow);
+        OffsetDateTime fireAt = nextFireAt.isBefore(windowStart)
+                ? nextAfter(windowStart.minusNanos(1))
+                : nextFireAt;
+
+        ArrayDeque<OffsetDateTime> due = new ArrayDeque<>();
+        while (fireAt != null && !fireAt.isAfter(now)) {
+            due.addLast(fireAt);
+            if (due.size() > maxCatchUp) due.removeFirst();
+            fireAt = nextAfter(fireAt);
+        }
+        return new Occurrences(List.copyOf(due), fireAt);
+    }
+}
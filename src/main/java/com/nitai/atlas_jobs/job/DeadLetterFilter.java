@@ -0,0 +1,40 @@
+package com.nitai.atlas_jobs.job;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Selects DEAD_LETTERED jobs for a bulk requeue. Null fields match everything;
+ * the time range applies to {@code updated_at}, i.e. when the job was dead-lettered.
+ */
+public record DeadLetterFilter(
+        String jobType,
+        String errorContains,
+        OffsetDateTime updatedAfter,
+        OffsetDateTime updatedBefore
+) {
+    public static final DeadLetterFilter ALL = new DeadLetterFilter(null, null, null, null);
+
+    /**
+     * {@code errorContains} as a case-insensitive LIKE pattern, with wildcards escaped.
+     */
+    public String errorPattern() {
+        if (errorContains == null || errorContains.isBlank()) return null;
+        String escaped = errorContains
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * This filter with {@code updatedBefore} no later than {@code bound}.
+     */
+    public DeadLetterFilter updatedBeforeAtMost(OffsetDateTime bound) {
+        if (updatedBefore != null && !updatedBefore.isAfter(bound)) return this;
+        return new DeadLetterFilter(jobType, errorContains, updatedAfter, bound);
+    }
+
+    public String jobTypeOrNull() {
+        return (jobType == null || jobType.isBlank()) ? null : jobType;
+    }
+}
@@ -0,0 +1,137 @@
+package com.nitai.atlas_jobs.job;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Streams large dead-letter requeues as a series of chunked, set-based UPDATEs, each in its
+ * own short transaction. No entities are loaded. Operations run in the background and their
+ * progress can be polled by id.
+ */
+@Service
+public class DeadLetterRequeueService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadLetterRequeueService.class);
+
+    private static final int MAX_TRACKED_OPERATIONS = 50;
+
+    private final JobRepository jobRepository;
+    private final JobNotifier jobNotifier;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "atlas-dlq-requeue");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Map<UUID, BulkRequeueProgress> operations = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, BulkRequeueProgress> eldest) {
+            return size() > MAX_TRACKED_OPERATIONS;
+        }
+    };
+
+    public DeadLetterRequeueService(JobRepository jobRepository,
+                                    JobNotifier jobNotifier,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${atlas.dead-letter.requeue-chunk-size:1000}") int chunkSize) {
+        this.jobRepository = jobRepository;
+        this.jobNotifier = jobNotifier;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Starts a background requeue of up to {@code max} matching jobs (all of them when null).
+     *
+     * <p>Only jobs dead-lettered before the start are matched: a requeued job that fails again
+     * is dead-lettered with a fresh {@code updated_at} and must not be picked up a second time.
+     */
+    public BulkRequeueProgress start(DeadLetterFilter filter, Long max) {
+        UUID operationId = UUID.randomUUID();
+        OffsetDateTime startedAt = OffsetDateTime.now();
+        BulkRequeueProgress initial = new BulkRequeueProgress(operationId, BulkRequeueProgress.State.RUNNING,
+                filter.updatedBeforeAtMost(startedAt), 0, 0, startedAt, null, null);
+        update(initial);
+        executor.execute(() -> run(initial, max == null ? Long.MAX_VALUE : Math.max(0L, max)));
+        return initial;
+    }
+
+    public Optional<BulkRequeueProgress> get(UUID operationId) {
+        synchronized (operations) {
+            return Optional.ofNullable(operations.get(operationId));
+        }
+    }
+
+    /**
+     * Requeues one chunk of at most {@code limit} matching jobs and returns how many were requeued.
+     */
+    public int requeueChunk(DeadLetterFilter filter, int limit) {
+        Integer count = transactionTemplate.execute(status -> {
+            int updated = jobRepository.requeueDeadLetteredJobs(
+                    filter.jobTypeOrNull(),
+                    filter.errorPattern(),
+                    filter.updatedAfter(),
+                    filter.updatedBefore(),
+                    limit
+            );
+            if (updated > 0) {
+                jobNotifier.jobsAvailable();
+            }
+            return updated;
+        });
+        return count == null ? 0 : count;
+    }
+
+    private void run(BulkRequeueProgress initial, long max) {
+        long requeued = 0;
+        int chunks = 0;
+        try {
+            while (requeued < max) {
+                int limit = (int) Math.min(chunkSize, max - requeued);
+                int updated = requeueChunk(initial.filter(), limit);
+                requeued += updated;
+                chunks++;
+                update(progress(initial, BulkRequeueProgress.State.RUNNING, requeued, chunks, null));
+                if (updated < limit) break;
+            }
+            update(progress(initial, BulkRequeueProgress.State.COMPLETED, requeued, chunks, null));
+            log.info("Bulk requeue {} finished: {} jobs in {} chunks", initial.operationId(), requeued, chunks);
+        } catch (RuntimeException e) {
+            update(progress(initial, BulkRequeueProgress.State.FAILED, requeued, chunks, e.getMessage()));
+            log.error("Bulk requeue {} failed after {} jobs", initial.operationId(), requeued, e);
+        }
+    }
+
+    private BulkRequeueProgress progress(BulkRequeueProgress initial, BulkRequeueProgress.State state,
+                                         long requeued, int chunks, String error) {
+        OffsetDateTime finishedAt = state == BulkRequeueProgress.State.RUNNING ? null : OffsetDateTime.now();
+        return new BulkRequeueProgress(initial.operationId(), state, initial.filter(), requeued, chunks,
+                initial.startedAt(), finishedAt, error);
+    }
+
+    private void update(BulkRequeueProgress progress) {
+        synchronized (operations) {
+            operations.put(progress.operationId(), progress);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,102 @@
+package com.nitai.atlas_jobs.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded idempotency key → job id map, so a retried submission can skip the key lookup.
+ *
+ * <p>Entries expire {@code ttl-ms} after they were stored. Past {@code max-entries} the oldest
+ * stored keys are evicted first (FIFO, not LRU: a hit does not refresh the entry, so retry
+ * storms cost nothing but a map read). A TTL of 0 disables the cache.
+ *
+ * <p>A key only ever maps to one job id, so a stale entry can at worst point at a job that has
+ * since been archived, and the caller looks that up like any other. A miss is not an answer:
+ * the insert itself checks both {@code jobs} and {@code jobs_archive} for the key.
+ */
+@Component
+public class IdempotencyKeyCache {
+
+    public record Stats(long hits, long misses, int size) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier clockNanos;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    // Expired and invalidated keys stay queued until polled; this bounds how many pile up.
+    private final AtomicInteger queuedKeys = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public IdempotencyKeyCache(@Value("${atlas.jobs.idempotency-cache.ttl-ms:600000}") long ttlMs,
+                               @Value("${atlas.jobs.idempotency-cache.max-entries:100000}") int maxEntries) {
+        this(ttlMs, maxEntries, System::nanoTime);
+    }
+
+    IdempotencyKeyCache(long ttlMs, int maxEntries, LongSupplier clockNanos) {
+        this.ttlNanos = Math.max(0L, ttlMs) * 1_000_000L;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.clockNanos = clockNanos;
+    }
+
+    /**
+     * The cached job id for {@code key}, or {@code null} on a miss.
+     */
+    public UUID get(String key) {
+        if (ttlNanos == 0) return null;
+        Entry entry = entries.get(key);
+        if (entry == null || entry.expiresAtNanos - clockNanos.getAsLong() <= 0) {
+            if (entry != null) entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.jobId;
+    }
+
+    public void put(String key, UUID jobId) {
+        if (ttlNanos == 0) return;
+        Entry previous = entries.put(key, new Entry(jobId, clockNanos.getAsLong() + ttlNanos));
+        if (previous == null) {
+            insertionOrder.add(key);
+            queuedKeys.incrementAndGet();
+            evictOverflow();
+        }
+    }
+
+    public void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), entries.size());
+    }
+
+    private void evictOverflow() {
+        while (entries.size() > maxEntries || queuedKeys.get() > 2 * maxEntries) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null) return;
+            queuedKeys.decrementAndGet();
+            entries.remove(oldest);
+        }
+    }
+
+    private record Entry(UUID jobId, long expiresAtNanos) {}
+}
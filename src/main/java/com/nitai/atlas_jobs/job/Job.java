@@ -1,5 +1,7 @@
 package com.nitai.atlas_jobs.job;
 
+import com.nitai.atlas_jobs.job.payload.PayloadFormat;
+import com.nitai.atlas_jobs.job.payload.StoredPayload;
 import jakarta.persistence.*;
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -50,12 +52,30 @@ public class Job {
     @Column(name = "started_at")
     private OffsetDateTime startedAt;
 
+    @Column(name = "lease_expires_at")
+    private OffsetDateTime leaseExpiresAt;
+
+    @Column(name = "priority", nullable = false)
+    private int priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payload_format", nullable = false, length = 16)
+    private PayloadFormat payloadFormat = PayloadFormat.JSON;
+
+    @Column(name = "payload_bin")
+    private byte[] payloadBinary;
+
 
     protected Job() {
 
     }
 
     public Job(UUID jobId, JobStatus status, String jobType, String payload, int maxAttempts, String idempotencyKey) {
+        this(jobId, status, jobType, payload, maxAttempts, idempotencyKey, 0);
+    }
+
+    public Job(UUID jobId, JobStatus status, String jobType, String payload, int maxAttempts, String idempotencyKey,
+               int priority) {
         this.jobId = jobId;
         this.status = status;
         this.jobType = jobType;
@@ -63,6 +83,7 @@ public class Job {
         this.attemptCount = 0;
         this.maxAttempts = maxAttempts;
         this.idempotencyKey = idempotencyKey;
+        this.priority = priority;
         this.createdAt = OffsetDateTime.now();
         this.updatedAt = this.createdAt;
         this.nextRunAt = this.createdAt;
@@ -83,8 +104,27 @@ public class Job {
     public OffsetDateTime getNextRunAt(){return nextRunAt;}
     public String getWorkerId(){return workerId;}
     public OffsetDateTime getStartedAt() { return startedAt; }
+    public OffsetDateTime getLeaseExpiresAt() { return leaseExpiresAt; }
+    public int getPriority() { return priority; }
+    public PayloadFormat getPayloadFormat() { return payloadFormat; }
+    public byte[] getPayloadBinary() { return payloadBinary; }
 
     // Small helpers
+    public void storePayload(StoredPayload stored) {
+        this.payloadFormat = stored.format();
+        this.payload = stored.text();
+        this.payloadBinary = stored.binary();
+    }
+
+    /**
+     * Holds a new job back until {@code runAt}; a time already past leaves it due at once.
+     */
+    public void scheduleAt(OffsetDateTime runAt) {
+        if (runAt != null && runAt.isAfter(this.createdAt)) {
+            this.nextRunAt = runAt;
+        }
+    }
+
     public void markRunning(String workerId) {
         this.status = JobStatus.RUNNING;
         this.workerId = workerId;
@@ -98,17 +138,20 @@ public class Job {
         this.lastError = null;
         this.workerId = null;
         this.startedAt = null;
+        this.leaseExpiresAt = null;
         this.nextRunAt = OffsetDateTime.now();
         this.updatedAt = OffsetDateTime.now();
     }
     public void markSucceeded() {
         this.status = JobStatus.SUCCEEDED;
+        this.leaseExpiresAt = null;
         this.updatedAt = OffsetDateTime.now();
     }
 
     public void onFailureAndScheduleRetry(String error) {
         this.lastError = error;
         this.attemptCount += 1;
+        this.leaseExpiresAt = null;
         this.updatedAt = OffsetDateTime.now();
 
 
@@ -0,0 +1,55 @@
+package com.nitai.atlas_jobs.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves SUCCEEDED and DEAD_LETTERED jobs older than {@code retention-hours} out of {@code jobs}
+ * and into {@code jobs_archive}, keeping the live table (and its claim index) small.
+ *
+ * <p>Each chunk is its own short transaction so row locks are held briefly and autovacuum
+ * can reclaim space between chunks.
+ */
+@Component
+@ConditionalOnProperty(name = "atlas.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class JobArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(JobArchiver.class);
+
+    private final JobRepository jobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionHours;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+
+    public JobArchiver(JobRepository jobRepository,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${atlas.archive.retention-hours:168}") int retentionHours,
+                       @Value("${atlas.archive.chunk-size:1000}") int chunkSize,
+                       @Value("${atlas.archive.max-chunks-per-run:100}") int maxChunksPerRun) {
+        this.jobRepository = jobRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.retentionHours = Math.max(0, retentionHours);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxChunksPerRun = Math.max(1, maxChunksPerRun);
+    }
+
+    @Scheduled(fixedDelayString = "${atlas.archive.interval-ms:60000}")
+    public void archiveTerminalJobs() {
+        long archived = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            Integer moved = transactionTemplate.execute(
+                    status -> jobRepository.archiveTerminalJobs(retentionHours, chunkSize));
+            archived += (moved == null) ? 0 : moved;
+            if (moved == null || moved < chunkSize) break;
+        }
+        if (archived > 0) {
+            log.info("Archived {} terminal jobs older than {}h", archived, retentionHours);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.nitai.atlas_jobs.job;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One execution of a claimed job on a worker thread.
+ *
+ * <p>Both the worker (when the handler returns) and the timeout watchdog try to settle the
+ * attempt with one CAS on its state, RUNNING to DONE or RUNNING to TIMED_OUT. Only the winner
+ * records the outcome and frees the slot, so a job that overran its timeout is never completed
+ * twice and its slot is never released twice. The watchdog interrupts the worker thread only
+ * while the attempt is still on it, so a late interrupt cannot hit the thread's next job.
+ */
+public final class JobAttempt {
+
+    private static final int RUNNING = 0;
+    private static final int DONE = 1;
+    private static final int TIMED_OUT = 2;
+
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+    private final Thread thread;
+    private boolean finished;
+
+    JobAttempt(Thread thread) {
+        this.thread = thread;
+    }
+
+    static JobAttempt onCurrentThread() {
+        return new JobAttempt(Thread.currentThread());
+    }
+
+    /**
+     * Worker side: claims the right to record the outcome. Returns {@code false} if the attempt
+     * timed out or was already settled.
+     */
+    boolean settle() {
+        return state.compareAndSet(RUNNING, DONE);
+    }
+
+    /**
+     * Watchdog side: settles the attempt as timed out and interrupts the worker thread. Returns
+     * {@code false}, doing nothing, if the worker settled it first.
+     */
+    boolean expire() {
+        if (!state.compareAndSet(RUNNING, TIMED_OUT)) return false;
+        synchronized (this) {
+            if (!finished) thread.interrupt();
+        }
+        return true;
+    }
+
+    /**
+     * Worker side, when the attempt leaves the thread. Settles it if nothing has yet, clears an
+     * interrupt delivered by {@link #expire()}, and returns whether the worker side owns the
+     * slot ({@code false} means the watchdog already freed it).
+     */
+    boolean finish() {
+        // Both end states are final, so whichever CAS won decides; the read cannot go stale.
+        boolean ownsSlot = settle() || state.get() == DONE;
+        synchronized (this) {
+            finished = true;
+        }
+        if (!ownsSlot) {
+            Thread.interrupted();
+        }
+        return ownsSlot;
+    }
+}
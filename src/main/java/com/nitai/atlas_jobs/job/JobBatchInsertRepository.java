@@ -0,0 +1,122 @@
+package com.nitai.atlas_jobs.job;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Plain-JDBC writes for bulk submission, bypassing the persistence context.
+ */
+@Repository
+public class JobBatchInsertRepository {
+
+    private static final String INSERT_COLUMNS = """
+            INSERT INTO jobs (job_id, status, job_type, payload, attempt_count, max_attempts,
+                              idempotency_key, created_at, updated_at, next_run_at, priority,
+                              payload_format, payload_bin)
+            VALUES
+            """;
+
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JobBatchInsertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts all jobs with one multi-row statement. Rows whose idempotency key already exists
+     * are skipped by {@code ON CONFLICT DO NOTHING}; the ids of the rows actually inserted are returned.
+     *
+     * <p>Archived jobs are not covered by the unique index, so inserted rows whose key is in
+     * {@code jobs_archive} are deleted again in the same transaction and count as duplicates.
+     * The check runs after the insert: an archiver move of the same key that the insert had to
+     * wait for is committed by then, so it is seen.
+     */
+    @Transactional
+    public Set<UUID> insertIgnoringDuplicateKeys(List<Job> jobs) {
+        if (jobs.isEmpty()) return Set.of();
+
+        StringBuilder sql = new StringBuilder(INSERT_COLUMNS);
+        List<Object> args = new ArrayList<>(jobs.size() * 13);
+        for (int i = 0; i < jobs.size(); i++) {
+            if (i > 0) sql.append(",\n");
+            sql.append(ROW_PLACEHOLDERS);
+
+            Job job = jobs.get(i);
+            args.add(job.getJobId());
+            args.add(job.getStatus().name());
+            args.add(job.getJobType());
+            args.add(new SqlParameterValue(Types.VARCHAR, job.getPayload()));
+            args.add(job.getAttemptCount());
+            args.add(job.getMaxAttempts());
+            args.add(new SqlParameterValue(Types.VARCHAR, job.getIdempotencyKey()));
+            args.add(job.getCreatedAt());
+            args.add(job.getUpdatedAt());
+            args.add(job.getNextRunAt());
+            args.add(job.getPriority());
+            args.add(job.getPayloadFormat().name());
+            args.add(new SqlParameterValue(Types.BINARY, job.getPayloadBinary()));
+        }
+        sql.append("""
+
+                ON CONFLICT (idempotency_key) WHERE idempotency_key IS NOT NULL DO NOTHING
+                RETURNING job_id
+                """);
+
+        Set<UUID> inserted = new HashSet<>(jdbcTemplate.queryForList(sql.toString(), UUID.class, args.toArray()));
+
+        List<UUID> keyed = new ArrayList<>();
+        for (Job job : jobs) {
+            if (job.getIdempotencyKey() != null && inserted.contains(job.getJobId())) keyed.add(job.getJobId());
+        }
+        if (!keyed.isEmpty()) {
+            inserted.removeAll(jdbcTemplate.queryForList(
+                    "DELETE FROM jobs j USING jobs_archive a WHERE j.job_id IN (" + placeholders(keyed) + ")"
+                            + " AND a.idempotency_key = j.idempotency_key RETURNING j.job_id",
+                    UUID.class, keyed.toArray()));
+        }
+        return inserted;
+    }
+
+    /**
+     * Job ids for the given keys, from {@code jobs} or, for keys not found there, {@code jobs_archive}.
+     */
+    public Map<String, UUID> findJobIdsByIdempotencyKeys(Collection<String> keys) {
+        if (keys.isEmpty()) return Map.of();
+
+        Map<String, UUID> result = new HashMap<>();
+        findJobIds("jobs", keys, result);
+        List<String> missing = keys.stream().filter(key -> !result.containsKey(key)).toList();
+        if (!missing.isEmpty()) {
+            findJobIds("jobs_archive", missing, result);
+        }
+        return result;
+    }
+
+    private void findJobIds(String table, Collection<String> keys, Map<String, UUID> result) {
+        jdbcTemplate.query(
+                "SELECT idempotency_key, job_id FROM " + table + " WHERE idempotency_key IN (" + placeholders(keys) + ")",
+                rs -> {
+                    result.put(rs.getString(1), rs.getObject(2, UUID.class));
+                },
+                keys.toArray()
+        );
+    }
+
+    private static String placeholders(Collection<?> values) {
+        return String.join(", ", values.stream().map(v -> "?").toList());
+    }
+}
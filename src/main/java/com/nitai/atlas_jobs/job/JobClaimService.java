@@ -1,30 +1,96 @@
 package com.nitai.atlas_jobs.job;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class JobClaimService {
 
+    static final int DEFAULT_LEASE_SECONDS = 30;
+
+    // NOT IN () is a syntax error, so "no exclusions" is sent as a type name no job can have.
+    private static final List<String> NO_EXCLUDED_TYPES = List.of("");
+
     private final JobRepository jobRepository;
     private final String workerId;
+    private final int leaseSeconds;
+    // Fed claim latency when present; claimers built outside the context go without.
+    private final AdmissionController admissionController;
 
     public JobClaimService(JobRepository jobRepository, String workerId) {
+        this(jobRepository, workerId, DEFAULT_LEASE_SECONDS, null);
+    }
+
+    @Autowired
+    public JobClaimService(JobRepository jobRepository,
+                           String workerId,
+                           @Value("${atlas.jobs.lease-seconds:30}") int leaseSeconds,
+                           AdmissionController admissionController) {
         this.jobRepository = jobRepository;
         this.workerId = workerId;
+        this.leaseSeconds = Math.max(1, leaseSeconds);
+        this.admissionController = admissionController;
     }
 
 
     @Transactional
     public Optional<Job> claimNextJob() {
-        Optional<Job> maybeJob = jobRepository.claimNextQueuedJob();
-        if (maybeJob.isEmpty()) return Optional.empty();
+        return claimBatch(1).stream().findFirst();
+    }
 
-        Job job = maybeJob.get();
-        job.markRunning(workerId);
-        jobRepository.saveAndFlush(job);
-        return Optional.of(job);
+    /**
+     * Claims up to {@code max} eligible jobs with one UPDATE ... RETURNING round trip.
+     * Returned jobs are already RUNNING and owned by this worker.
+     */
+    @Transactional
+    public List<Job> claimBatch(int max) {
+        return claimBatch(max, List.of());
+    }
+
+    /**
+     * Like {@link #claimBatch(int)}, but never returns jobs whose type is in {@code excludedTypes}.
+     */
+    @Transactional
+    public List<Job> claimBatch(int max, Collection<String> excludedTypes) {
+        if (max <= 0) return List.of();
+        Collection<String> excluded = excludedTypes.isEmpty() ? NO_EXCLUDED_TYPES : excludedTypes;
+        long startNanos = System.nanoTime();
+        List<Job> claimed = jobRepository.claimQueuedJobs(workerId, max, leaseSeconds, excluded);
+        if (admissionController != null) {
+            admissionController.recordClaimLatency(System.nanoTime() - startNanos);
+        }
+        return claimed;
+    }
+
+    /**
+     * Extends the leases of this worker's in-flight jobs in one UPDATE.
+     */
+    @Transactional
+    public int renewLeases(Collection<UUID> jobIds) {
+        if (jobIds.isEmpty()) return 0;
+        return jobRepository.renewLeases(workerId, jobIds, leaseSeconds);
+    }
+
+    /**
+     * Up to {@code limit} QUEUED jobs that become eligible within {@code horizonMs}, soonest first.
+     */
+    public List<UpcomingRun> upcomingRuns(long horizonMs, int limit) {
+        return jobRepository.findUpcomingRuns(horizonMs, limit);
+    }
+
+    /**
+     * Hands jobs this worker claimed but never started back to the queue.
+     */
+    @Transactional
+    public int releaseClaimed(Collection<UUID> jobIds) {
+        if (jobIds.isEmpty()) return 0;
+        return jobRepository.releaseClaimedJobs(workerId, jobIds);
     }
 }
@@ -0,0 +1,17 @@
+package com.nitai.atlas_jobs.job;
+
+import java.util.UUID;
+
+/**
+ * The outcome of one claimed attempt, identified by the job and the attempt count it was claimed with.
+ */
+public record JobCompletion(UUID jobId, int attemptCount, boolean succeeded, String error) {
+
+    public static JobCompletion succeeded(Job job) {
+        return new JobCompletion(job.getJobId(), job.getAttemptCount(), true, null);
+    }
+
+    public static JobCompletion failed(Job job, String error) {
+        return new JobCompletion(job.getJobId(), job.getAttemptCount(), false, error);
+    }
+}
@@ -0,0 +1,234 @@
+package com.nitai.atlas_jobs.job;
+
+import com.nitai.atlas_jobs.job.metrics.LatencySnapshot;
+import com.nitai.atlas_jobs.job.metrics.WindowedHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind completion pipeline: workers hand finished attempts to a bounded queue and a
+ * single flusher thread group-commits them with {@link JobCompletionRepository#completeAll}.
+ *
+ * <p>A flush starts at the first queued outcome and collects more for up to
+ * {@code flush-interval-ms} or until {@code max-batch-size} is reached. A failed commit is
+ * retried once; the batch is atomic and every UPDATE is guarded by the claimed attempt, so the
+ * retry cannot apply anything twice.
+ *
+ * <p>Durability: an outcome is only durable once its batch commits. Until then the job stays
+ * RUNNING and this class keeps renewing its lease. If the process dies first, or both commits
+ * fail, the lease lapses and stale recovery fails and retries the attempt, so the job runs
+ * again. That is the same at-least-once contract as a crash mid-execution.
+ *
+ * <p>When the queue is full, or batching is disabled, {@link #offer} returns {@code false} and
+ * the worker writes its completion itself.
+ */
+@Component
+public class JobCompletionBatcher implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(JobCompletionBatcher.class);
+
+    private static final long IDLE_POLL_MS = 100L;
+    private static final long STOP_WAIT_MS = 10_000L;
+
+    // Flush latency percentiles cover the last five minutes, in 30s slots, like JobMetrics.
+    private static final long HISTOGRAM_WINDOW_MS = 300_000L;
+    private static final int HISTOGRAM_SLOTS = 10;
+
+    private final JobCompletionRepository completionRepository;
+    private final JobClaimService jobClaimService;
+    private final String workerId;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+
+    private final BlockingQueue<JobCompletion> queue;
+    private final Set<UUID> pendingJobIds = ConcurrentHashMap.newKeySet();
+
+    private final WindowedHistogram flushLatency = new WindowedHistogram(HISTOGRAM_WINDOW_MS, HISTOGRAM_SLOTS);
+    private final LongAdder flushedBatches = new LongAdder();
+    private final LongAdder flushedCompletions = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    private volatile boolean running;
+    private Thread flusherThread;
+
+    public JobCompletionBatcher(JobCompletionRepository completionRepository,
+                                JobClaimService jobClaimService,
+                                String workerId,
+                                @Value("${atlas.worker.completion-batching.enabled:false}") boolean enabled,
+                                @Value("${atlas.worker.completion-batching.max-batch-size:256}") int maxBatchSize,
+                                @Value("${atlas.worker.completion-batching.flush-interval-ms:5}") long flushIntervalMs,
+                                @Value("${atlas.worker.completion-batching.queue-capacity:4096}") int queueCapacity) {
+        this.completionRepository = completionRepository;
+        this.jobClaimService = jobClaimService;
+        this.workerId = workerId;
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, flushIntervalMs));
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+    }
+
+    /**
+     * Queues {@code completion} for the next group commit. Returns {@code false}, queueing nothing,
+     * when batching is off or the queue is full; the caller must then write it synchronously.
+     */
+    public boolean offer(JobCompletion completion) {
+        if (!running) return false;
+        pendingJobIds.add(completion.jobId());
+        if (queue.offer(completion)) return true;
+        pendingJobIds.remove(completion.jobId());
+        return false;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled || running) return;
+        running = true;
+        flusherThread = new Thread(this::flushLoop, "atlas-completion-flusher");
+        flusherThread.setDaemon(true);
+        flusherThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        try {
+            flusherThread.join(STOP_WAIT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} job outcomes were not flushed on shutdown; stale recovery will re-run them", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Starts before and stops after the dispatcher, so outcomes of jobs drained on shutdown are flushed.
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 1;
+    }
+
+    /**
+     * Keeps the leases of queued outcomes alive while a flush is delayed, e.g. by a slow database.
+     */
+    @Scheduled(fixedDelayString = "${atlas.jobs.lease-renew-interval-ms:10000}")
+    public void renewLeases() {
+        if (pendingJobIds.isEmpty()) return;
+        try {
+            jobClaimService.renewLeases(List.copyOf(pendingJobIds));
+        } catch (RuntimeException e) {
+            log.warn("Lease renewal for {} unflushed completions failed", pendingJobIds.size(), e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getFlushedBatches() {
+        return flushedBatches.sum();
+    }
+
+    public long getFlushedCompletions() {
+        return flushedCompletions.sum();
+    }
+
+    public long getFailedFlushes() {
+        return failedFlushes.sum();
+    }
+
+    public LatencySnapshot getFlushLatency() {
+        return flushLatency.snapshot();
+    }
+
+    private void flushLoop() {
+        List<JobCompletion> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (!fillBatch(batch)) continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flush(batch);
+            batch.clear();
+            if (Thread.currentThread().isInterrupted()) return;
+        }
+    }
+
+    /**
+     * Waits for a first outcome, then collects more until the batch is full or the flush interval
+     * since that first outcome has passed. Returns {@code false} if nothing arrived.
+     */
+    private boolean fillBatch(List<JobCompletion> batch) throws InterruptedException {
+        JobCompletion first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+        if (first == null) return false;
+        batch.add(first);
+
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) break;
+
+            JobCompletion next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) break;
+            batch.add(next);
+        }
+        return true;
+    }
+
+    private void flush(List<JobCompletion> batch) {
+        if (batch.isEmpty()) return;
+        long startNanos = System.nanoTime();
+        try {
+            write(batch);
+        } catch (RuntimeException first) {
+            log.warn("Flushing {} job outcomes failed; retrying once", batch.size(), first);
+            try {
+                write(batch);
+            } catch (RuntimeException second) {
+                failedFlushes.increment();
+                log.error("Could not record {} job outcomes; stale recovery will re-run them once their leases expire",
+                        batch.size(), second);
+            }
+        } finally {
+            flushLatency.record((System.nanoTime() - startNanos) / 1_000L);
+            for (JobCompletion completion : batch) {
+                pendingJobIds.remove(completion.jobId());
+            }
+        }
+    }
+
+    private void write(List<JobCompletion> batch) {
+        int applied = completionRepository.completeAll(workerId, batch);
+        flushedBatches.increment();
+        flushedCompletions.add(batch.size());
+        if (applied < batch.size()) {
+            log.debug("{} of {} job outcomes no longer owned their job and were dropped", batch.size() - applied, batch.size());
+        }
+    }
+}
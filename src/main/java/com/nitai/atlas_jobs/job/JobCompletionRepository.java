@@ -0,0 +1,103 @@
+package com.nitai.atlas_jobs.job;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain-JDBC completion writes: one conditional UPDATE per attempt, no reload and no entity merge.
+ *
+ * <p>Every statement only matches a row that is still RUNNING under the worker and attempt count
+ * it was claimed with. If stale recovery has already failed the attempt, or the job has since
+ * been claimed again, the completion matches nothing and is dropped.
+ */
+@Repository
+public class JobCompletionRepository {
+
+    private static final String OWNED_ATTEMPT = """
+            WHERE job_id = ?
+              AND status = 'RUNNING'
+              AND worker_id = ?
+              AND attempt_count = ?
+            """;
+
+    private static final String SUCCEEDED_SQL = """
+            UPDATE jobs
+            SET status = 'SUCCEEDED',
+                lease_expires_at = NULL,
+                updated_at = now()
+            """ + OWNED_ATTEMPT;
+
+    // Same retry/dead-letter rules and backoff as Job#onFailureAndScheduleRetry and stale recovery.
+    private static final String FAILED_SQL = """
+            UPDATE jobs
+            SET attempt_count = attempt_count + 1,
+                last_error = ?,
+                status = CASE
+                    WHEN attempt_count + 1 >= max_attempts THEN 'DEAD_LETTERED'
+                    ELSE 'QUEUED'
+                END,
+                next_run_at = CASE
+                    WHEN attempt_count + 1 >= max_attempts THEN next_run_at
+                    ELSE now() + make_interval(secs => GREATEST(1,
+                            floor(LEAST(300, 5 * power(3, attempt_count)) * (0.7 + 0.3 * random()))))
+                END,
+                lease_expires_at = NULL,
+                updated_at = now()
+            """ + OWNED_ATTEMPT;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JobCompletionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Records one attempt's outcome. Returns {@code false} if the attempt no longer owns the job.
+     */
+    public boolean complete(String workerId, JobCompletion completion) {
+        if (completion.succeeded()) {
+            return jdbcTemplate.update(SUCCEEDED_SQL, completion.jobId(), workerId, completion.attemptCount()) == 1;
+        }
+        return jdbcTemplate.update(FAILED_SQL, errorParam(completion), completion.jobId(), workerId,
+                completion.attemptCount()) == 1;
+    }
+
+    /**
+     * Records many outcomes in one transaction, with one JDBC batch per statement shape.
+     * Returns how many of them still owned their job.
+     */
+    @Transactional
+    public int completeAll(String workerId, List<JobCompletion> completions) {
+        if (completions.isEmpty()) return 0;
+
+        List<Object[]> succeeded = new ArrayList<>();
+        List<Object[]> failed = new ArrayList<>();
+        for (JobCompletion completion : completions) {
+            if (completion.succeeded()) {
+                succeeded.add(new Object[]{completion.jobId(), workerId, completion.attemptCount()});
+            } else {
+                failed.add(new Object[]{errorParam(completion), completion.jobId(), workerId, completion.attemptCount()});
+            }
+        }
+        return batch(SUCCEEDED_SQL, succeeded) + batch(FAILED_SQL, failed);
+    }
+
+    private int batch(String sql, List<Object[]> args) {
+        if (args.isEmpty()) return 0;
+        int applied = 0;
+        for (int rows : jdbcTemplate.batchUpdate(sql, args)) {
+            if (rows > 0) applied += rows;
+        }
+        return applied;
+    }
+
+    private static SqlParameterValue errorParam(JobCompletion completion) {
+        return new SqlParameterValue(Types.VARCHAR, completion.error());
+    }
+}
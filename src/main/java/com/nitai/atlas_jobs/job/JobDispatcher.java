@@ -0,0 +1,505 @@
+package com.nitai.atlas_jobs.job;
+
+import com.nitai.atlas_jobs.job.handler.JobHandlerRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Worker engine: a dispatcher thread claims jobs in batches into a small local buffer
+ * and hands them to a bounded pool of execution slots.
+ *
+ * <p>Empty polls back off exponentially between {@code idle-backoff-min-ms} and
+ * {@code idle-backoff-max-ms}, or up to {@code fallback-poll-ms} when NOTIFY wakeups are
+ * enabled. {@link #wakeUp()} cuts an idle wait short.
+ *
+ * <p>Jobs due within {@code timer.horizon-ms} (delayed submissions, retry backoffs) are looked
+ * up with one range scan of {@code ix_jobs_status_next_run} and held in a {@link TimingWheel},
+ * and an idle wait ends exactly when the next of them is due. The lookahead is repeated when it
+ * runs out, after a wakeup (a new submission may be delayed) and after a job finishes here (it
+ * may have been requeued for a retry). At most {@code timer.max-jobs} ids are held; when the
+ * horizon holds more, the lookahead ends at the last one fetched.
+ *
+ * <p>Every claimed job, buffered or executing, is tracked so a heartbeat can renew all of
+ * their leases in one UPDATE.
+ *
+ * <p>{@code type-concurrency} (e.g. {@code SLEEP_JOB=2,FAIL_JOB=1}) caps how many jobs of a
+ * type this node holds at once; an entry overrides that handler's own
+ * {@code concurrencyLimit()}. Types at their cap are left out of the claim, so a flood of one
+ * slow type cannot occupy every slot.
+ *
+ * <p>Each attempt runs under a timeout: the handler's {@code timeout()}, else
+ * {@code job-timeout-seconds}. On expiry the watchdog interrupts the worker thread, records a
+ * failed attempt and frees the slot at once. Worker threads are not pooled to a fixed count, so
+ * a handler that ignores the interrupt strands only its own thread, never a slot. Claiming
+ * pauses while {@code max-overdue-threads} such threads are still running, so handlers that
+ * never return cannot grow the pool without bound.
+ *
+ * <p>On stop the dispatcher stops claiming, returns buffered (claimed but not started) jobs
+ * to the queue and waits for in-flight jobs to finish.
+ */
+@Component
+@ConditionalOnProperty(name = "atlas.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class JobDispatcher implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(JobDispatcher.class);
+
+    private static final long SLOT_WAIT_MS = 200L;
+    private static final int TIMER_WHEEL_SIZE = 64;
+
+    private final JobClaimService jobClaimService;
+    private final JobWorker jobWorker;
+    private final WorkerShutdownLatch shutdownLatch;
+
+    private final int concurrency;
+    private final int prefetch;
+    private final int claimBatchSize;
+    private final long idleBackoffMinMs;
+    private final long idleBackoffMaxMs;
+    private final long shutdownDrainSeconds;
+    private final Map<String, Integer> typeConcurrency;
+    private final JobHandlerRegistry handlerRegistry;
+    private final Duration defaultJobTimeout;
+    private final long lookaheadHorizonMs;
+    private final int lookaheadLimit;
+    private final int maxOverdueThreads;
+
+    private final Semaphore slots;
+    private final ConcurrentLinkedQueue<Job> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferSize = new AtomicInteger();
+    private final Set<UUID> leasedJobIds = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, Integer> heldByType = new ConcurrentHashMap<>();
+    private final AtomicInteger overdueThreads = new AtomicInteger();
+
+    private final ReentrantLock idleLock = new ReentrantLock();
+    private final Condition workAvailable = idleLock.newCondition();
+    private boolean wakeupPending;
+
+    // Owned by the dispatcher thread.
+    private final TimingWheel dueTimer;
+    private long lookaheadValidUntilMs;
+    private volatile boolean lookaheadStale = true;
+
+    private volatile boolean running;
+    private long idleDelayMs;
+    private boolean typesSaturated;
+    private ExecutorService executor;
+    private ScheduledExecutorService watchdog;
+    private Thread dispatcherThread;
+
+    public JobDispatcher(JobClaimService jobClaimService,
+                         JobWorker jobWorker,
+                         WorkerShutdownLatch shutdownLatch,
+                         JobHandlerRegistry handlerRegistry,
+                         @Value("${atlas.worker.concurrency:4}") int concurrency,
+                         @Value("${atlas.worker.prefetch:2}") int prefetch,
+                         @Value("${atlas.worker.claim-batch-size:10}") int claimBatchSize,
+                         @Value("${atlas.worker.idle-backoff-min-ms:50}") long idleBackoffMinMs,
+                         @Value("${atlas.worker.idle-backoff-max-ms:2000}") long idleBackoffMaxMs,
+                         @Value("${atlas.notify.enabled:true}") boolean notifyEnabled,
+                         @Value("${atlas.worker.fallback-poll-ms:30000}") long fallbackPollMs,
+                         @Value("${atlas.worker.shutdown-drain-seconds:30}") long shutdownDrainSeconds,
+                         @Value("${atlas.worker.type-concurrency:}") String typeConcurrency,
+                         @Value("${atlas.worker.job-timeout-seconds:600}") long jobTimeoutSeconds,
+                         @Value("${atlas.worker.max-overdue-threads:16}") int maxOverdueThreads,
+                         @Value("${atlas.worker.timer.tick-ms:10}") long timerTickMs,
+                         @Value("${atlas.worker.timer.horizon-ms:60000}") long lookaheadHorizonMs,
+                         @Value("${atlas.worker.timer.max-jobs:1000}") int lookaheadLimit) {
+        this.jobClaimService = jobClaimService;
+        this.jobWorker = jobWorker;
+        this.shutdownLatch = shutdownLatch;
+        this.concurrency = Math.max(1, concurrency);
+        this.prefetch = Math.max(0, prefetch);
+        this.claimBatchSize = Math.max(1, claimBatchSize);
+        this.idleBackoffMinMs = Math.max(1L, idleBackoffMinMs);
+        this.idleBackoffMaxMs = Math.max(this.idleBackoffMinMs, notifyEnabled ? fallbackPollMs : idleBackoffMaxMs);
+        this.shutdownDrainSeconds = Math.max(0L, shutdownDrainSeconds);
+        this.typeConcurrency = new LinkedHashMap<>(handlerRegistry.concurrencyLimits());
+        this.typeConcurrency.putAll(parseTypeConcurrency(typeConcurrency));
+        this.handlerRegistry = handlerRegistry;
+        this.defaultJobTimeout = jobTimeoutSeconds > 0 ? Duration.ofSeconds(jobTimeoutSeconds) : null;
+        this.maxOverdueThreads = Math.max(0, maxOverdueThreads);
+        this.lookaheadHorizonMs = Math.max(1L, lookaheadHorizonMs);
+        this.lookaheadLimit = Math.max(1, lookaheadLimit);
+        this.dueTimer = new TimingWheel(timerTickMs, TIMER_WHEEL_SIZE, nowMs());
+        this.slots = new Semaphore(this.concurrency);
+        this.idleDelayMs = this.idleBackoffMinMs;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) return;
+        AtomicInteger threadIndex = new AtomicInteger();
+        // Unbounded on purpose: the slots bound concurrency, and a thread stuck past its
+        // timeout must not keep the next job from getting a thread. max-overdue-threads
+        // bounds how many such stuck threads can pile up.
+        executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread t = new Thread(r, "atlas-worker-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "atlas-job-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        watchdog = timer;
+        running = true;
+        dispatcherThread = new Thread(this::dispatchLoop, "atlas-dispatcher");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        shutdownLatch.signalShutdown();
+        wakeUp();
+
+        try {
+            dispatcherThread.join(TimeUnit.SECONDS.toMillis(shutdownDrainSeconds));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        releaseBuffered();
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownDrainSeconds, TimeUnit.SECONDS)) {
+                log.warn("In-flight jobs did not finish within {}s; stale recovery will requeue them",
+                        shutdownDrainSeconds);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        watchdog.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Heartbeat: renews the leases of every job this node has claimed and not yet finished.
+     */
+    @Scheduled(fixedDelayString = "${atlas.jobs.lease-renew-interval-ms:10000}")
+    public void renewLeases() {
+        if (leasedJobIds.isEmpty()) return;
+        try {
+            jobClaimService.renewLeases(List.copyOf(leasedJobIds));
+        } catch (RuntimeException e) {
+            log.warn("Lease renewal for {} jobs failed", leasedJobIds.size(), e);
+        }
+    }
+
+    /**
+     * Worker threads whose attempt timed out but whose handler has not returned yet.
+     */
+    public int getOverdueThreads() {
+        return overdueThreads.get();
+    }
+
+    /**
+     * Ends the current idle wait so the dispatcher polls for work immediately.
+     */
+    public void wakeUp() {
+        lookaheadStale = true;
+        idleLock.lock();
+        try {
+            wakeupPending = true;
+            workAvailable.signalAll();
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (isActive()) {
+            try {
+                if (!slots.tryAcquire(SLOT_WAIT_MS, TimeUnit.MILLISECONDS)) continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            Job job = nextJob();
+            if (job == null) {
+                slots.release();
+                continue;
+            }
+
+            try {
+                executor.execute(() -> runAndRelease(job));
+            } catch (RuntimeException e) {
+                slots.release();
+                buffer.add(job);
+                bufferSize.incrementAndGet();
+                log.error("Failed to hand job {} to a worker slot", job.getJobId(), e);
+            }
+        }
+    }
+
+    private void runAndRelease(Job job) {
+        JobAttempt attempt = JobAttempt.onCurrentThread();
+        ScheduledFuture<?> timeout = scheduleTimeout(job, attempt);
+        try {
+            jobWorker.run(job, attempt);
+        } catch (RuntimeException e) {
+            log.error("Recording the outcome of job {} failed; stale recovery will re-run it", job.getJobId(), e);
+        } finally {
+            if (timeout != null) timeout.cancel(false);
+            if (attempt.finish()) {
+                releaseSlot(job);
+            } else {
+                // The watchdog won the attempt and already freed the slot.
+                log.info("Timed-out job {} returned; {} worker threads still overdue",
+                        job.getJobId(), overdueThreads.decrementAndGet());
+                wakeUp();
+            }
+        }
+    }
+
+    private ScheduledFuture<?> scheduleTimeout(Job job, JobAttempt attempt) {
+        Duration timeout = timeoutFor(job.getJobType());
+        if (timeout == null) return null;
+
+        long startNanos = System.nanoTime();
+        return watchdog.schedule(() -> {
+            // Counted before the CAS so the worker's decrement, once it returns, never comes first.
+            int overdue = overdueThreads.incrementAndGet();
+            if (!attempt.expire()) {
+                overdueThreads.decrementAndGet();
+                return;
+            }
+            log.warn("Job {} ({}) exceeded its {} ms timeout; interrupted it and freed its slot ({} worker threads overdue)",
+                    job.getJobId(), job.getJobType(), timeout.toMillis(), overdue);
+            try {
+                jobWorker.timeOut(job, timeout, System.nanoTime() - startNanos);
+            } catch (RuntimeException e) {
+                log.error("Could not record timeout of job {}; stale recovery will requeue it", job.getJobId(), e);
+            } finally {
+                releaseSlot(job);
+            }
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private Duration timeoutFor(String jobType) {
+        if (handlerRegistry.supports(jobType)) {
+            Duration handlerTimeout = handlerRegistry.handler(jobType).timeout();
+            if (handlerTimeout != null && !handlerTimeout.isZero() && !handlerTimeout.isNegative()) {
+                return handlerTimeout;
+            }
+        }
+        return defaultJobTimeout;
+    }
+
+    private void releaseSlot(Job job) {
+        lookaheadStale = true;
+        leasedJobIds.remove(job.getJobId());
+        release(job.getJobType());
+        slots.release();
+    }
+
+    /**
+     * Returns the next buffered job, claiming a new batch when the buffer is empty.
+     * Returns {@code null} when the dispatcher is stopping.
+     */
+    private Job nextJob() {
+        while (isActive()) {
+            Job job = buffer.poll();
+            if (job != null) {
+                bufferSize.decrementAndGet();
+                return job;
+            }
+            if (claimIntoBuffer() == 0) {
+                awaitWork(idleWaitMs());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Claims enough jobs to fill the free slots plus the prefetch allowance.
+     * The caller already holds one slot, hence the {@code + 1}.
+     */
+    int claimIntoBuffer() {
+        if (shutdownLatch.isShuttingDown()) return 0;
+        // Each claimed job may need a new thread; stop adding them while stuck ones pile up.
+        if (overdueThreads.get() >= maxOverdueThreads && maxOverdueThreads > 0) return 0;
+
+        int wanted = Math.min(claimBatchSize, slots.availablePermits() + 1 + prefetch - bufferSize.get());
+        if (wanted <= 0) return 0;
+
+        // A batch could be all one type, so it is no larger than the tightest remaining cap.
+        List<String> saturated = new ArrayList<>();
+        for (Map.Entry<String, Integer> cap : typeConcurrency.entrySet()) {
+            int remaining = cap.getValue() - heldByType.getOrDefault(cap.getKey(), 0);
+            if (remaining <= 0) {
+                saturated.add(cap.getKey());
+            } else {
+                wanted = Math.min(wanted, remaining);
+            }
+        }
+        typesSaturated = !saturated.isEmpty();
+
+        List<Job> claimed;
+        try {
+            claimed = jobClaimService.claimBatch(wanted, saturated);
+        } catch (RuntimeException e) {
+            log.warn("Claiming jobs failed; backing off", e);
+            return 0;
+        }
+
+        if (!claimed.isEmpty()) {
+            for (Job job : claimed) {
+                leasedJobIds.add(job.getJobId());
+                heldByType.merge(job.getJobType(), 1, Integer::sum);
+            }
+            buffer.addAll(claimed);
+            bufferSize.addAndGet(claimed.size());
+            idleDelayMs = idleBackoffMinMs;
+        }
+        return claimed.size();
+    }
+
+    /**
+     * Current backoff delay, shortened so the next job on the timer is claimed when it is due.
+     */
+    long idleWaitMs() {
+        // Due jobs of a capped type don't count; a finishing job of that type wakes the dispatcher.
+        if (typesSaturated) return idleDelayMs;
+
+        long now = nowMs();
+        if (lookaheadStale || now >= lookaheadValidUntilMs) {
+            refreshLookahead(now);
+        }
+        long nextDeadline = dueTimer.nextDeadlineMs();
+        if (nextDeadline == Long.MAX_VALUE) return idleDelayMs;
+        return Math.max(1L, Math.min(idleDelayMs, nextDeadline - now));
+    }
+
+    /**
+     * Puts every job due within the horizon on the timer.
+     */
+    private void refreshLookahead(long now) {
+        lookaheadStale = false;
+        List<UpcomingRun> upcoming;
+        try {
+            upcoming = jobClaimService.upcomingRuns(lookaheadHorizonMs, lookaheadLimit);
+        } catch (RuntimeException e) {
+            log.warn("Looking up upcoming jobs failed; relying on the idle backoff", e);
+            lookaheadValidUntilMs = now + idleDelayMs;
+            return;
+        }
+
+        // Delays are measured on the database clock when the query ran, so timing them from
+        // after it returned can only make the wakeup late by the round trip, never early.
+        long fetchedAt = nowMs();
+        long lastDueMs = fetchedAt;
+        for (UpcomingRun run : upcoming) {
+            lastDueMs = fetchedAt + run.getMillisUntilDue();
+            dueTimer.schedule(run.getJobId(), lastDueMs);
+        }
+        // When truncated, jobs after the last one fetched stay unknown until it is due.
+        lookaheadValidUntilMs = upcoming.size() < lookaheadLimit ? fetchedAt + lookaheadHorizonMs : lastDueMs;
+    }
+
+    private void awaitWork(long waitMs) {
+        idleLock.lock();
+        try {
+            if (!wakeupPending && isActive()) {
+                workAvailable.await(waitMs, TimeUnit.MILLISECONDS);
+            }
+            boolean jobsDue = !dueTimer.advance(nowMs()).isEmpty();
+            if (jobsDue) {
+                // Another node may claim them first or they may have been rescheduled; look again.
+                lookaheadStale = true;
+            }
+            if (!wakeupPending && !jobsDue) {
+                idleDelayMs = Math.min(idleBackoffMaxMs, idleDelayMs * 2);
+            }
+            wakeupPending = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    private static long nowMs() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    private void release(String jobType) {
+        heldByType.computeIfPresent(jobType, (type, held) -> held <= 1 ? null : held - 1);
+        if (typeConcurrency.containsKey(jobType)) {
+            wakeUp();
+        }
+    }
+
+    private void releaseBuffered() {
+        List<UUID> unstarted = new ArrayList<>();
+        Job job;
+        while ((job = buffer.poll()) != null) {
+            bufferSize.decrementAndGet();
+            release(job.getJobType());
+            unstarted.add(job.getJobId());
+        }
+        if (unstarted.isEmpty()) return;
+
+        try {
+            jobClaimService.releaseClaimed(unstarted);
+            unstarted.forEach(leasedJobIds::remove);
+        } catch (RuntimeException e) {
+            log.warn("Could not release {} unstarted jobs; stale recovery will requeue them", unstarted.size(), e);
+        }
+    }
+
+    private boolean isActive() {
+        return running && !shutdownLatch.isShuttingDown();
+    }
+
+    static Map<String, Integer> parseTypeConcurrency(String spec) {
+        Map<String, Integer> caps = new LinkedHashMap<>();
+        if (spec == null || spec.isBlank()) return caps;
+
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) continue;
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2 || parts[0].isBlank()) {
+                throw new IllegalArgumentException("Invalid atlas.worker.type-concurrency entry: " + entry.trim());
+            }
+            caps.put(parts[0].trim(), Math.max(1, Integer.parseInt(parts[1].trim())));
+        }
+        return caps;
+    }
+}
@@ -1,32 +1,38 @@
 package com.nitai.atlas_jobs.job;
 
+import com.nitai.atlas_jobs.job.metrics.LatencySnapshot;
+import com.nitai.atlas_jobs.job.metrics.SlidingWindowCounter;
+import com.nitai.atlas_jobs.job.metrics.WindowedHistogram;
 import org.springframework.stereotype.Component;
 
-import java.time.Instant;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.LongAdder;
 
 @Component
 public class JobMetrics {
 
-    private static final int WINDOW_SECONDS = 60;
+    private static final long ONE_MINUTE_MS = 60_000L;
+    private static final long FIVE_MINUTES_MS = 300_000L;
+    private static final long FIFTEEN_MINUTES_MS = 900_000L;
+    private static final long PROCESSED_RESOLUTION_MS = 250L;
 
-    private final AtomicLongArray processedCounts = new AtomicLongArray(WINDOW_SECONDS);
-    private final AtomicLongArray processedEpochSeconds = new AtomicLongArray(WINDOW_SECONDS);
-    private final Object[] bucketLocks = new Object[WINDOW_SECONDS];
+    // Percentiles cover the last five minutes, in 30s slots.
+    private static final long HISTOGRAM_WINDOW_MS = FIVE_MINUTES_MS;
+    private static final int HISTOGRAM_SLOTS = 10;
+
+    private final SlidingWindowCounter processed =
+            new SlidingWindowCounter(FIFTEEN_MINUTES_MS, PROCESSED_RESOLUTION_MS);
 
     private final ConcurrentHashMap<String, LongAdder> failuresByType = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> timeoutsByType = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, LongAdder> totalDurationNanosByType = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, LongAdder> durationCountByType = new ConcurrentHashMap<>();
 
-    public JobMetrics() {
-        for (int i = 0; i < WINDOW_SECONDS; i++) {
-            bucketLocks[i] = new Object();
-        }
-    }
+    private final ConcurrentHashMap<String, WindowedHistogram> executionTimeByType = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, WindowedHistogram> queueWaitByType = new ConcurrentHashMap<>();
 
     public void recordSuccess(String jobType, long durationNanos) {
         record(jobType, durationNanos, true);
@@ -36,44 +42,57 @@ public class JobMetrics {
         record(jobType, durationNanos, false);
     }
 
+    /**
+     * An attempt cut off by its timeout. Counts as a failure and, separately, as a timeout.
+     */
+    public void recordTimeout(String jobType, long durationNanos) {
+        record(jobType, durationNanos, false);
+        timeoutsByType.computeIfAbsent(normalize(jobType), k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Time a job spent eligible but unclaimed: {@code started_at - next_run_at}.
+     */
+    public void recordQueueWait(String jobType, long waitNanos) {
+        histogram(queueWaitByType, normalize(jobType)).record(waitNanos / 1_000L);
+    }
+
     private void record(String jobType, long durationNanos, boolean success) {
         String type = normalize(jobType);
-        recordProcessed();
+        processed.increment();
         recordDuration(type, durationNanos);
         if (!success) {
             failuresByType.computeIfAbsent(type, k -> new LongAdder()).increment();
         }
     }
 
-    private void recordProcessed() {
-        long nowSec = Instant.now().getEpochSecond();
-        int idx = (int) (nowSec % WINDOW_SECONDS);
-        synchronized (bucketLocks[idx]) {
-            long bucketSec = processedEpochSeconds.get(idx);
-            if (bucketSec != nowSec) {
-                processedEpochSeconds.set(idx, nowSec);
-                processedCounts.set(idx, 0L);
-            }
-            processedCounts.incrementAndGet(idx);
-        }
-    }
-
     private void recordDuration(String type, long durationNanos) {
         long safeNanos = Math.max(0L, durationNanos);
         totalDurationNanosByType.computeIfAbsent(type, k -> new LongAdder()).add(safeNanos);
         durationCountByType.computeIfAbsent(type, k -> new LongAdder()).increment();
+        histogram(executionTimeByType, type).record(safeNanos / 1_000L);
+    }
+
+    // get() first so the hot path does not allocate a capturing lambda per call
+    private WindowedHistogram histogram(ConcurrentHashMap<String, WindowedHistogram> byType, String type) {
+        WindowedHistogram histogram = byType.get(type);
+        if (histogram != null) return histogram;
+        return byType.computeIfAbsent(type, k -> new WindowedHistogram(HISTOGRAM_WINDOW_MS, HISTOGRAM_SLOTS));
     }
 
     public long getProcessedLastMinute() {
-        long nowSec = Instant.now().getEpochSecond();
-        long total = 0L;
-        for (int i = 0; i < WINDOW_SECONDS; i++) {
-            long bucketSec = processedEpochSeconds.get(i);
-            if (nowSec - bucketSec < WINDOW_SECONDS) {
-                total += processedCounts.get(i);
-            }
-        }
-        return total;
+        return processed.sum(ONE_MINUTE_MS);
+    }
+
+    /**
+     * Completed jobs per second averaged over the last 1, 5 and 15 minutes.
+     */
+    public Map<String, Double> getProcessedPerSecond() {
+        Map<String, Double> result = new LinkedHashMap<>();
+        result.put("1m", processed.ratePerSecond(ONE_MINUTE_MS));
+        result.put("5m", processed.ratePerSecond(FIVE_MINUTES_MS));
+        result.put("15m", processed.ratePerSecond(FIFTEEN_MINUTES_MS));
+        return result;
     }
 
     public Map<String, Long> getFailuresByJobType() {
@@ -82,6 +101,12 @@ public class JobMetrics {
         return result;
     }
 
+    public Map<String, Long> getTimeoutsByJobType() {
+        Map<String, Long> result = new HashMap<>();
+        timeoutsByType.forEach((k, v) -> result.put(k, v.sum()));
+        return result;
+    }
+
     public Map<String, Double> getAvgDurationSecondsByJobType() {
         Map<String, Double> result = new HashMap<>();
         totalDurationNanosByType.forEach((type, totalNanos) -> {
@@ -95,6 +120,20 @@ public class JobMetrics {
         return result;
     }
 
+    public Map<String, LatencySnapshot> getExecutionTimeByJobType() {
+        return snapshots(executionTimeByType);
+    }
+
+    public Map<String, LatencySnapshot> getQueueWaitByJobType() {
+        return snapshots(queueWaitByType);
+    }
+
+    private Map<String, LatencySnapshot> snapshots(ConcurrentHashMap<String, WindowedHistogram> byType) {
+        Map<String, LatencySnapshot> result = new HashMap<>();
+        byType.forEach((type, histogram) -> result.put(type, histogram.snapshot()));
+        return result;
+    }
+
     private String normalize(String jobType) {
         if (jobType == null || jobType.isBlank()) return "unknown";
         return jobType;
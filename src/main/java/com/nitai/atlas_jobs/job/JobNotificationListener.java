@@ -0,0 +1,108 @@
+package com.nitai.atlas_jobs.job;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Holds a dedicated LISTEN connection and wakes the {@link JobDispatcher} whenever a
+ * {@link JobNotifier} notification arrives. After a reconnect the dispatcher is woken
+ * unconditionally, since notifications sent while disconnected are lost.
+ */
+@Component
+@ConditionalOnProperty(name = {"atlas.worker.enabled", "atlas.notify.enabled"}, havingValue = "true", matchIfMissing = true)
+public class JobNotificationListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(JobNotificationListener.class);
+
+    private static final int RECEIVE_TIMEOUT_MS = 500;
+    private static final long RECONNECT_DELAY_MS = 5_000L;
+
+    private final DataSource dataSource;
+    private final JobDispatcher dispatcher;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public JobNotificationListener(DataSource dataSource, JobDispatcher dispatcher) {
+        this.dataSource = dataSource;
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "atlas-job-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        try {
+            listenerThread.join(RECEIVE_TIMEOUT_MS * 4L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                listen(connection);
+            } catch (SQLException | RuntimeException e) {
+                if (!running) return;
+                log.warn("LISTEN connection lost; retrying in {}ms", RECONNECT_DELAY_MS, e);
+                sleepQuietly(RECONNECT_DELAY_MS);
+            }
+        }
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + JobNotifier.CHANNEL);
+        }
+        dispatcher.wakeUp();
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        try {
+            while (running) {
+                PGNotification[] notifications = pgConnection.getNotifications(RECEIVE_TIMEOUT_MS);
+                if (notifications != null && notifications.length > 0) {
+                    dispatcher.wakeUp();
+                }
+            }
+        } finally {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("UNLISTEN " + JobNotifier.CHANNEL);
+            }
+        }
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
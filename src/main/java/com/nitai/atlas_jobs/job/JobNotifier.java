@@ -0,0 +1,29 @@
+package com.nitai.atlas_jobs.job;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes a Postgres NOTIFY when jobs become claimable. Inside a transaction Postgres
+ * delivers the notification on commit, so listeners never wake before the rows are visible.
+ */
+@Component
+public class JobNotifier {
+
+    public static final String CHANNEL = "atlas_jobs_ready";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public JobNotifier(JdbcTemplate jdbcTemplate,
+                       @Value("${atlas.notify.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    public void jobsAvailable() {
+        if (!enabled) return;
+        jdbcTemplate.execute("NOTIFY " + CHANNEL);
+    }
+}
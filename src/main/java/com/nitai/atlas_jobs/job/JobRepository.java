@@ -2,10 +2,11 @@ package com.nitai.atlas_jobs.job;
 
 import com.nitai.atlas_jobs.job.api.WorkerJobCount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
-import org.springframework.data.domain.Pageable;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,58 +15,134 @@ public interface JobRepository extends JpaRepository<Job, UUID> {
 
     Optional<Job> findByIdempotencyKey(String idempotencyKey);
 
+    /**
+     * Claims up to {@code limit} eligible jobs for {@code workerId} in a single statement.
+     * Rows locked by other claimers are skipped, so concurrent callers never receive the same job.
+     * Each claimed job gets a lease of {@code leaseSeconds} that the worker must keep renewing.
+     * Highest priority goes first, then the longest-due; the ORDER BY matches
+     * {@code ix_jobs_queued_priority_next_run} so the scan stops after {@code limit} rows.
+     * Types in {@code excludedTypes} (never empty) are skipped because this node is at their cap.
+     */
     @Query(
             value = """
-                SELECT *
-                FROM jobs
-                WHERE status = 'QUEUED'
-                  AND next_run_at <= now()
-                ORDER BY created_at
-                FOR UPDATE SKIP LOCKED
-                LIMIT 1
+                UPDATE jobs
+                SET status = 'RUNNING',
+                    worker_id = :workerId,
+                    started_at = now(),
+                    lease_expires_at = now() + make_interval(secs => :leaseSeconds),
+                    updated_at = now()
+                WHERE job_id IN (
+                    SELECT job_id
+                    FROM jobs
+                    WHERE status = 'QUEUED'
+                      AND next_run_at <= now()
+                      AND job_type NOT IN (:excludedTypes)
+                    ORDER BY priority DESC, next_run_at
+                    FOR UPDATE SKIP LOCKED
+                    LIMIT :limit
+                )
+                RETURNING *
             """,
             nativeQuery = true
     )
-    Optional<Job> claimNextQueuedJob();
+    List<Job> claimQueuedJobs(@Param("workerId") String workerId,
+                              @Param("limit") int limit,
+                              @Param("leaseSeconds") int leaseSeconds,
+                              @Param("excludedTypes") Collection<String> excludedTypes);
+
+    /**
+     * Heartbeat: extends the leases of all listed jobs still RUNNING under {@code workerId}.
+     */
+    @Modifying
     @Query(
             value = """
-        SELECT *
-        FROM jobs
-        WHERE status = 'RUNNING'
-          AND (
-               (started_at IS NOT NULL AND started_at < :olderThan)
-            OR (started_at IS NULL AND updated_at < :olderThan)
-          )
-        ORDER BY COALESCE(started_at, updated_at)
-    """,
+                UPDATE jobs
+                SET lease_expires_at = now() + make_interval(secs => :leaseSeconds)
+                WHERE job_id IN (:jobIds)
+                  AND status = 'RUNNING'
+                  AND worker_id = :workerId
+            """,
             nativeQuery = true
     )
-    List<Job> findStaleRunningJobs(@Param("olderThan") OffsetDateTime olderThan);
+    int renewLeases(@Param("workerId") String workerId,
+                    @Param("jobIds") Collection<UUID> jobIds,
+                    @Param("leaseSeconds") int leaseSeconds);
 
+    /**
+     * QUEUED jobs that become due within {@code horizonMs}, soonest first: a range scan of
+     * {@code ix_jobs_status_next_run} that stops after {@code limit} rows. Delays are rounded
+     * up, so a timer set from them never fires early.
+     */
     @Query(
             value = """
-                SELECT status, COUNT(*)
+                SELECT job_id AS jobId,
+                       CAST(CEIL(EXTRACT(EPOCH FROM (next_run_at - now())) * 1000) AS bigint) AS millisUntilDue
                 FROM jobs
-                GROUP BY status
+                WHERE status = 'QUEUED'
+                  AND next_run_at > now()
+                  AND next_run_at <= now() + :horizonMs * INTERVAL '1 millisecond'
+                ORDER BY next_run_at
+                LIMIT :limit
             """,
             nativeQuery = true
     )
-    List<Object[]> countJobsByStatus();
+    List<UpcomingRun> findUpcomingRuns(@Param("horizonMs") long horizonMs, @Param("limit") int limit);
 
+    /**
+     * Returns claimed-but-unstarted jobs to the queue without counting an attempt.
+     */
+    @Modifying
     @Query(
             value = """
-            SELECT
-              COALESCE(worker_id, 'unassigned') AS workerId,
-              status AS status,
-              COUNT(*) AS count
-            FROM jobs
-            GROUP BY COALESCE(worker_id, 'unassigned'), status
-            ORDER BY workerId, status
-        """,
+                UPDATE jobs
+                SET status = 'QUEUED',
+                    worker_id = NULL,
+                    started_at = NULL,
+                    lease_expires_at = NULL,
+                    updated_at = now()
+                WHERE job_id IN (:jobIds)
+                  AND status = 'RUNNING'
+                  AND worker_id = :workerId
+            """,
             nativeQuery = true
     )
-    List<WorkerJobCount> countJobsByWorkerAndStatus();
+    int releaseClaimedJobs(@Param("workerId") String workerId, @Param("jobIds") Collection<UUID> jobIds);
 
+    /**
+     * Fails every RUNNING job whose lease has expired, in one statement, applying the same
+     * retry/dead-letter rules and backoff as {@link Job#onFailureAndScheduleRetry(String)}.
+     * Rows without a lease (claimed before leases existed) fall back to the started_at timeout.
+     */
+    @Modifying
+    @Query(
+            value = """
+        UPDATE jobs
+        SET attempt_count = attempt_count + 1,
+            last_error = CASE
+                WHEN lease_expires_at IS NULL THEN 'Stale RUNNING (timeout)'
+                ELSE 'Stale RUNNING (lease expired)'
+            END,
+            status = CASE
+                WHEN attempt_count + 1 >= max_attempts THEN 'DEAD_LETTERED'
+                ELSE 'QUEUED'
+            END,
+            next_run_at = CASE
+                WHEN attempt_count + 1 >= max_attempts THEN next_run_at
+                ELSE now() + make_interval(secs => GREATEST(1,
+                        floor(LEAST(300, 5 * power(3, attempt_count)) * (0.7 + 0.3 * random()))))
+            END,
+            lease_expires_at = NULL,
+            updated_at = now()
+        WHERE status = 'RUNNING'
+          AND (
+               lease_expires_at < now()
+            OR (lease_expires_at IS NULL
+                AND COALESCE(started_at, updated_at) < now() - make_interval(mins => :runTimeoutMinutes))
+          )
+    """,
+            nativeQuery = true
+    )
+    int recoverExpiredRunningJobs(@Param("runTimeoutMinutes") int runTimeoutMinutes);
 
     @Query(
             value = """
@@ -95,17 +172,6 @@ public interface JobRepository extends JpaRepository<Job, UUID> {
 
 
 
-    @Query(
-            value = """
-            SELECT attempt_count, COUNT(*)
-            FROM jobs
-            GROUP BY attempt_count
-            ORDER BY attempt_count
-        """,
-            nativeQuery = true
-    )
-    List<Object[]> countJobsByAttemptCount();
-
     /**
      * Jobs that are QUEUED but not eligible yet (scheduled for the future).
      */
@@ -123,16 +189,27 @@ public interface JobRepository extends JpaRepository<Job, UUID> {
     /**
      * Recent activity window using updated_at (best signal for "processed recently").
      */
+    default List<Object[]> countJobsByStatusUpdatedSince(int sinceMinutes) {
+        return countJobsByStatusUpdatedSince(sinceMinutes, JobStatus.names());
+    }
+
+    // Naming every status lets ix_jobs_status_updated_at serve the window with one range scan each.
     @Query(
             value = """
             SELECT status, COUNT(*)
             FROM jobs
-            WHERE updated_at >= now() - make_interval(mins => :sinceMinutes)
+            WHERE status IN (:statuses)
+              AND updated_at >= now() - make_interval(mins => :sinceMinutes)
             GROUP BY status
         """,
             nativeQuery = true
     )
-    List<Object[]> countJobsByStatusUpdatedSince(@Param("sinceMinutes") int sinceMinutes);
+    List<Object[]> countJobsByStatusUpdatedSince(@Param("sinceMinutes") int sinceMinutes,
+                                                 @Param("statuses") Collection<String> statuses);
+
+    default List<WorkerJobCount> countJobsByWorkerAndStatusUpdatedSince(int sinceMinutes) {
+        return countJobsByWorkerAndStatusUpdatedSince(sinceMinutes, JobStatus.names());
+    }
 
     @Query(
             value = """
@@ -141,15 +218,91 @@ public interface JobRepository extends JpaRepository<Job, UUID> {
               status AS status,
               COUNT(*) AS count
             FROM jobs
-            WHERE updated_at >= now() - make_interval(mins => :sinceMinutes)
+            WHERE status IN (:statuses)
+              AND updated_at >= now() - make_interval(mins => :sinceMinutes)
             GROUP BY COALESCE(worker_id, 'unassigned'), status
             ORDER BY workerId, status
         """,
             nativeQuery = true
     )
-    List<WorkerJobCount> countJobsByWorkerAndStatusUpdatedSince(@Param("sinceMinutes") int sinceMinutes);
+    List<WorkerJobCount> countJobsByWorkerAndStatusUpdatedSince(@Param("sinceMinutes") int sinceMinutes,
+                                                                @Param("statuses") Collection<String> statuses);
+
+    /**
+     * Requeues up to {@code limit} DEAD_LETTERED jobs matching the optional filters, oldest first,
+     * without loading them. Null filters match everything; {@code errorPattern} is an ILIKE pattern.
+     */
+    @Modifying
+    @Query(
+            value = """
+            UPDATE jobs
+            SET status = 'QUEUED',
+                attempt_count = 0,
+                last_error = NULL,
+                worker_id = NULL,
+                started_at = NULL,
+                lease_expires_at = NULL,
+                next_run_at = now(),
+                updated_at = now()
+            WHERE job_id IN (
+                SELECT job_id
+                FROM jobs
+                WHERE status = 'DEAD_LETTERED'
+                  AND (CAST(:jobType AS varchar) IS NULL OR job_type = CAST(:jobType AS varchar))
+                  AND (CAST(:errorPattern AS text) IS NULL OR last_error ILIKE CAST(:errorPattern AS text))
+                  AND (CAST(:updatedFrom AS timestamptz) IS NULL OR updated_at >= CAST(:updatedFrom AS timestamptz))
+                  AND (CAST(:updatedTo AS timestamptz) IS NULL OR updated_at < CAST(:updatedTo AS timestamptz))
+                ORDER BY updated_at
+                FOR UPDATE SKIP LOCKED
+                LIMIT :limit
+            )
+        """,
+            nativeQuery = true
+    )
+    int requeueDeadLetteredJobs(@Param("jobType") String jobType,
+                                @Param("errorPattern") String errorPattern,
+                                @Param("updatedFrom") OffsetDateTime updatedFrom,
+                                @Param("updatedTo") OffsetDateTime updatedTo,
+                                @Param("limit") int limit);
 
-    List<Job> findByStatusOrderByUpdatedAtAsc(JobStatus status, Pageable pageable);
+    /**
+     * Moves up to {@code limit} SUCCEEDED/DEAD_LETTERED jobs last updated more than
+     * {@code retentionHours} ago into {@code jobs_archive} in one statement.
+     * Rows locked by a concurrent requeue are skipped and picked up on a later run.
+     */
+    @Modifying
+    @Query(
+            value = """
+            WITH moved AS (
+                DELETE FROM jobs
+                WHERE job_id IN (
+                    SELECT job_id
+                    FROM jobs
+                    WHERE status IN ('SUCCEEDED', 'DEAD_LETTERED')
+                      AND updated_at < now() - make_interval(hours => :retentionHours)
+                    FOR UPDATE SKIP LOCKED
+                    LIMIT :limit
+                )
+                RETURNING *
+            )
+            INSERT INTO jobs_archive (job_id, status, job_type, payload, attempt_count, max_attempts,
+                                      idempotency_key, last_error, created_at, updated_at, next_run_at,
+                                      worker_id, started_at, lease_expires_at, priority,
+                                      payload_format, payload_bin, archived_at)
+            SELECT job_id, status, job_type, payload, attempt_count, max_attempts,
+                   idempotency_key, last_error, created_at, updated_at, next_run_at,
+                   worker_id, started_at, lease_expires_at, priority,
+                   payload_format, payload_bin, now()
+            FROM moved
+        """,
+            nativeQuery = true
+    )
+    int archiveTerminalJobs(@Param("retentionHours") int retentionHours,
+                            @Param("limit") int limit);
 
+    @Query(value = "SELECT * FROM jobs_archive WHERE job_id = :jobId", nativeQuery = true)
+    Optional<Job> findArchivedById(@Param("jobId") UUID jobId);
 
+    @Query(value = "SELECT * FROM jobs_archive WHERE idempotency_key = :key LIMIT 1", nativeQuery = true)
+    Optional<Job> findArchivedByIdempotencyKey(@Param("key") String idempotencyKey);
 }
@@ -1,62 +1,272 @@
 package com.nitai.atlas_jobs.job;
 
+import com.nitai.atlas_jobs.job.api.BatchItemResult;
+import com.nitai.atlas_jobs.job.api.BatchJobItem;
 import com.nitai.atlas_jobs.job.api.CreateJobRequest;
-import com.nitai.atlas_jobs.job.payload.PayloadParser;
-import org.springframework.data.domain.PageRequest;
+import com.nitai.atlas_jobs.job.handler.JobHandlerRegistry;
+import com.nitai.atlas_jobs.job.payload.StoredPayload;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class JobService {
 
     private final JobRepository jobRepository;
-    private final PayloadParser payloadParser;
+    private final JobHandlerRegistry handlerRegistry;
+    private final JobNotifier jobNotifier;
+    private final JobBatchInsertRepository batchInsertRepository;
+    private final IdempotencyKeyCache idempotencyKeyCache;
+    private final AdmissionController admissionController;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchChunkSize;
 
-    public JobService(JobRepository jobRepository, PayloadParser payloadParser) {
+    public JobService(JobRepository jobRepository,
+                      JobHandlerRegistry handlerRegistry,
+                      JobNotifier jobNotifier,
+                      JobBatchInsertRepository batchInsertRepository,
+                      IdempotencyKeyCache idempotencyKeyCache,
+                      AdmissionController admissionController,
+                      TransactionTemplate transactionTemplate,
+                      @Value("${atlas.jobs.batch.chunk-size:500}") int batchChunkSize) {
         this.jobRepository = jobRepository;
-        this.payloadParser = payloadParser;
+        this.handlerRegistry = handlerRegistry;
+        this.jobNotifier = jobNotifier;
+        this.batchInsertRepository = batchInsertRepository;
+        this.idempotencyKeyCache = idempotencyKeyCache;
+        this.admissionController = admissionController;
+        this.transactionTemplate = transactionTemplate;
+        this.batchChunkSize = Math.max(1, batchChunkSize);
     }
 
+    /**
+     * Creates a job, or returns the job already stored under {@code idempotencyKey}.
+     *
+     * <p>Keys seen recently resolve through {@link IdempotencyKeyCache} to a primary-key read.
+     * Otherwise the job is written with {@code INSERT ... ON CONFLICT DO NOTHING RETURNING}: a new
+     * key costs that one statement, and a concurrent create with the same key loses the insert
+     * and reads the winner's row instead of failing on the unique index.
+     *
+     * <p>New jobs must first pass {@link AdmissionController}; replays of a cached key are
+     * answered even while submissions are being shed.
+     */
     public Job createJob(CreateJobRequest request, String idempotencyKey) {
-        // If idempotency key is provided, return existing job if present
-        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
-            Optional<Job> existing = jobRepository.findByIdempotencyKey(idempotencyKey);
-            if (existing.isPresent()) {
-                return existing.get();
+        String key = normalizeIdempotencyKey(idempotencyKey);
+        validateIdempotencyKey(key);
+        if (key != null) {
+            Optional<Job> cached = findCached(key);
+            if (cached.isPresent()) {
+                return cached.get();
             }
         }
 
-        validatePayloadForType(request);
+        validateSchedule(request);
+        StoredPayload payload = preparePayload(request);
+        admissionController.admit(request.getJobType());
 
-        int maxAttempts = (request.getMaxAttempts() == null) ? 3 : request.getMaxAttempts();
+        Job job = newQueuedJob(request, key, payload);
+
+        long startNanos = System.nanoTime();
+        Set<UUID> inserted = batchInsertRepository.insertIgnoringDuplicateKeys(List.of(job));
+        admissionController.recordInsertLatency(System.nanoTime() - startNanos);
+        if (inserted.isEmpty()) {
+            Job existing = jobRepository.findByIdempotencyKey(key)
+                    .or(() -> jobRepository.findArchivedByIdempotencyKey(key))
+                    .orElseThrow(() -> new IllegalStateException("Idempotency key conflict could not be resolved"));
+            idempotencyKeyCache.put(key, existing.getJobId());
+            return existing;
+        }
+        if (key != null) {
+            idempotencyKeyCache.put(key, job.getJobId());
+        }
+        jobNotifier.jobsAvailable();
+        return job;
+    }
+
+    private Optional<Job> findCached(String key) {
+        UUID jobId = idempotencyKeyCache.get(key);
+        if (jobId == null) return Optional.empty();
+
+        Optional<Job> job = jobRepository.findById(jobId).or(() -> jobRepository.findArchivedById(jobId));
+        if (job.isEmpty()) {
+            idempotencyKeyCache.invalidate(key);
+        }
+        return job;
+    }
+
+    /**
+     * Creates many jobs at once. Valid items are written in chunks with one multi-row
+     * {@code INSERT ... ON CONFLICT (idempotency_key) DO NOTHING} per chunk; existing keys
+     * resolve to the stored job. Results are returned in input order; items
+     * {@link AdmissionController} sheds come back as OVERLOADED.
+     */
+    public List<BatchItemResult> createJobs(List<? extends BatchJobItem> items) {
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        Map<String, Integer> firstIndexByKey = new HashMap<>();
+        List<Integer> pendingIndexes = new ArrayList<>();
+        List<Job> pendingJobs = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            BatchJobItem item = items.get(i);
+            String key = normalizeIdempotencyKey(item.getIdempotencyKey());
+            StoredPayload payload;
+            try {
+                if (item.getJobType() == null || item.getJobType().isBlank()) {
+                    throw new InvalidJobPayloadException("jobType must not be blank");
+                }
+                validateIdempotencyKey(key);
+                validateMaxAttempts(item);
+                validatePriority(item);
+                validateSchedule(item);
+                payload = preparePayload(item);
+            } catch (InvalidJobPayloadException e) {
+                results[i] = BatchItemResult.rejected(i, e.getMessage());
+                continue;
+            }
 
+            // Repeats of a key inside the batch resolve to the first occurrence below.
+            if (key != null && firstIndexByKey.putIfAbsent(key, i) != null) continue;
+
+            try {
+                admissionController.admit(item.getJobType());
+            } catch (AdmissionRejectedException e) {
+                results[i] = BatchItemResult.overloaded(i, e.getMessage());
+                continue;
+            }
+
+            pendingIndexes.add(i);
+            pendingJobs.add(newQueuedJob(item, key, payload));
+        }
+
+        for (int from = 0; from < pendingJobs.size(); from += batchChunkSize) {
+            int to = Math.min(from + batchChunkSize, pendingJobs.size());
+            insertChunk(pendingIndexes.subList(from, to), pendingJobs.subList(from, to), results);
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] != null) continue;
+            BatchItemResult first = results[firstIndexByKey.get(normalizeIdempotencyKey(items.get(i).getIdempotencyKey()))];
+            results[i] = first.jobId() == null
+                    ? new BatchItemResult(i, null, first.outcome(), first.error())
+                    : BatchItemResult.duplicate(i, first.jobId());
+        }
+        return Arrays.asList(results);
+    }
+
+    private void insertChunk(List<Integer> indexes, List<Job> jobs, BatchItemResult[] results) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<UUID> inserted = batchInsertRepository.insertIgnoringDuplicateKeys(jobs);
+
+            List<String> conflictingKeys = new ArrayList<>();
+            for (Job job : jobs) {
+                if (!inserted.contains(job.getJobId())) conflictingKeys.add(job.getIdempotencyKey());
+            }
+            Map<String, UUID> existing = batchInsertRepository.findJobIdsByIdempotencyKeys(conflictingKeys);
+
+            for (int i = 0; i < jobs.size(); i++) {
+                Job job = jobs.get(i);
+                int index = indexes.get(i);
+                if (inserted.contains(job.getJobId())) {
+                    results[index] = BatchItemResult.created(index, job.getJobId());
+                    if (job.getIdempotencyKey() != null) {
+                        idempotencyKeyCache.put(job.getIdempotencyKey(), job.getJobId());
+                    }
+                } else if (existing.containsKey(job.getIdempotencyKey())) {
+                    results[index] = BatchItemResult.duplicate(index, existing.get(job.getIdempotencyKey()));
+                    idempotencyKeyCache.put(job.getIdempotencyKey(), existing.get(job.getIdempotencyKey()));
+                } else {
+                    results[index] = BatchItemResult.rejected(index, "Idempotency key conflict could not be resolved");
+                }
+            }
+
+            if (!inserted.isEmpty()) {
+                jobNotifier.jobsAvailable();
+            }
+        });
+    }
+
+    private Job newQueuedJob(CreateJobRequest request, String idempotencyKey, StoredPayload payload) {
+        int maxAttempts = (request.getMaxAttempts() == null) ? 3 : request.getMaxAttempts();
+        int priority = (request.getPriority() == null) ? 0 : request.getPriority();
         Job job = new Job(
                 UUID.randomUUID(),
                 JobStatus.QUEUED,
                 request.getJobType(),
                 request.getPayload(),
                 maxAttempts,
-                (idempotencyKey == null || idempotencyKey.isBlank()) ? null : idempotencyKey
+                idempotencyKey,
+                priority
         );
+        job.storePayload(payload);
+        job.scheduleAt(request.getDelaySeconds() == null
+                ? request.getRunAt()
+                : job.getCreatedAt().plusSeconds(request.getDelaySeconds()));
+        return job;
+    }
+
+    private String normalizeIdempotencyKey(String idempotencyKey) {
+        return (idempotencyKey == null || idempotencyKey.isBlank()) ? null : idempotencyKey;
+    }
 
-        return jobRepository.save(job);
+    // The column is VARCHAR(128); a longer key would fail the whole insert chunk.
+    private void validateIdempotencyKey(String key) {
+        if (key != null && key.length() > CreateJobRequest.MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new InvalidJobPayloadException("idempotencyKey must be at most "
+                    + CreateJobRequest.MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
     }
 
-    private void validatePayloadForType(CreateJobRequest request) {
-        String jobType = request.getJobType();
-        switch (jobType) {
-            case "SLEEP_JOB" -> payloadParser.parseSleepPayload(request.getPayload());
-            case "FAIL_JOB" -> payloadParser.parseFailPayload(request.getPayload());
-            default -> throw new InvalidJobPayloadException("Unknown job type: " + jobType);
+    // Batch items skip bean validation, so the @Min/@Max range is checked here.
+    private void validateMaxAttempts(CreateJobRequest request) {
+        Integer maxAttempts = request.getMaxAttempts();
+        if (maxAttempts != null
+                && (maxAttempts < CreateJobRequest.MIN_MAX_ATTEMPTS || maxAttempts > CreateJobRequest.MAX_MAX_ATTEMPTS)) {
+            throw new InvalidJobPayloadException("maxAttempts must be between "
+                    + CreateJobRequest.MIN_MAX_ATTEMPTS + " and " + CreateJobRequest.MAX_MAX_ATTEMPTS);
         }
     }
 
+    // Batch items skip bean validation, so the @Min/@Max range is checked here.
+    private void validatePriority(CreateJobRequest request) {
+        Integer priority = request.getPriority();
+        if (priority != null
+                && (priority < CreateJobRequest.MIN_PRIORITY || priority > CreateJobRequest.MAX_PRIORITY)) {
+            throw new InvalidJobPayloadException("priority must be between "
+                    + CreateJobRequest.MIN_PRIORITY + " and " + CreateJobRequest.MAX_PRIORITY);
+        }
+    }
+
+    // Batch items skip bean validation, so the delaySeconds range is checked here too.
+    private void validateSchedule(CreateJobRequest request) {
+        if (request.getRunAt() != null && request.getDelaySeconds() != null) {
+            throw new InvalidJobPayloadException("Set either runAt or delaySeconds, not both");
+        }
+        Long delaySeconds = request.getDelaySeconds();
+        if (delaySeconds != null && (delaySeconds < 0 || delaySeconds > CreateJobRequest.MAX_DELAY_SECONDS)) {
+            throw new InvalidJobPayloadException("delaySeconds must be between 0 and " + CreateJobRequest.MAX_DELAY_SECONDS);
+        }
+    }
+
+    private StoredPayload preparePayload(CreateJobRequest request) {
+        return handlerRegistry.preparePayload(request.getJobType(), request.getPayload());
+    }
+
+    /**
+     * Looks in the live table first, then in {@code jobs_archive}.
+     */
     public Job getJob(UUID jobId) {
         return jobRepository.findById(jobId)
+                .or(() -> jobRepository.findArchivedById(jobId))
                 .orElseThrow(() -> new JobNotFoundException(jobId));
     }
 
@@ -70,22 +280,18 @@ public class JobService {
         }
 
         job.requeueFromDeadLetter();
-        return jobRepository.save(job);
+        Job saved = jobRepository.save(job);
+        jobNotifier.jobsAvailable();
+        return saved;
     }
 
     @Transactional
     public int requeueDeadLetters(int limit) {
         int safeLimit = Math.max(1, Math.min(limit, 1000));
-        List<Job> jobs = jobRepository.findByStatusOrderByUpdatedAtAsc(
-                JobStatus.DEAD_LETTERED,
-                PageRequest.of(0, safeLimit)
-        );
-
-        for (Job job : jobs) {
-            job.requeueFromDeadLetter();
+        int count = jobRepository.requeueDeadLetteredJobs(null, null, null, null, safeLimit);
+        if (count > 0) {
+            jobNotifier.jobsAvailable();
         }
-
-        jobRepository.saveAll(jobs);
-        return jobs.size();
+        return count;
     }
 }
\ No newline at end of file
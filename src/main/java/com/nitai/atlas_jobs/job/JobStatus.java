@@ -1,11 +1,19 @@
 package com.nitai.atlas_jobs.job;
 
+import java.util.Arrays;
+import java.util.List;
+
 public enum JobStatus {
     QUEUED,
     RUNNING,
     SUCCEEDED,
     FAILED,//Job failed intregation ongoing
 
-    DEAD_LETTERED
+    DEAD_LETTERED;
+
+    private static final List<String> NAMES = Arrays.stream(values()).map(Enum::name).toList();
 
+    public static List<String> names() {
+        return NAMES;
+    }
 }
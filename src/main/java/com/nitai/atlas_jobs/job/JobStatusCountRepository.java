@@ -0,0 +1,116 @@
+package com.nitai.atlas_jobs.job;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * SQL for the trigger-maintained {@code job_status_counts} summary (see V11, V14).
+ */
+@Repository
+public class JobStatusCountRepository {
+
+    public record Row(JobStatus status, String workerId, int attemptCount, String jobType, long count) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JobStatusCountRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Current counts: the rolled-up summary plus deltas not yet folded in, read in one snapshot.
+     */
+    public List<Row> currentCounts() {
+        return jdbcTemplate.query("""
+                SELECT status, worker_id, attempt_count, job_type, SUM(n) AS job_count
+                FROM (
+                    SELECT status, worker_id, attempt_count, job_type, job_count AS n FROM job_status_counts
+                    UNION ALL
+                    SELECT status, worker_id, attempt_count, job_type, delta FROM job_status_count_deltas
+                ) counts
+                GROUP BY status, worker_id, attempt_count, job_type
+                HAVING SUM(n) <> 0
+                """,
+                (rs, i) -> new Row(
+                        JobStatus.valueOf(rs.getString("status")),
+                        rs.getString("worker_id"),
+                        rs.getInt("attempt_count"),
+                        rs.getString("job_type"),
+                        rs.getLong("job_count")
+                ));
+    }
+
+    /**
+     * QUEUED jobs that are already due, by type, counting at most {@code limit} rows in all.
+     * Future-dated rows (delayed submissions, retries in backoff) fall outside the range read
+     * from {@code ix_jobs_status_next_run}.
+     */
+    public Map<String, Long> countDueQueuedByJobType(long limit) {
+        Map<String, Long> result = new TreeMap<>();
+        jdbcTemplate.query("""
+                SELECT job_type, COUNT(*) AS job_count
+                FROM (
+                    SELECT job_type FROM jobs
+                    WHERE status = 'QUEUED' AND next_run_at <= now()
+                    LIMIT ?
+                ) due
+                GROUP BY job_type
+                """,
+                rs -> {
+                    result.put(rs.getString("job_type"), rs.getLong("job_count"));
+                },
+                limit);
+        return result;
+    }
+
+    /**
+     * Folds every committed delta into the summary in one statement; returns the deltas consumed.
+     */
+    public int rollUpDeltas() {
+        List<Long> consumed = jdbcTemplate.queryForList("""
+                WITH drained AS (
+                    DELETE FROM job_status_count_deltas
+                    RETURNING status, worker_id, attempt_count, job_type, delta
+                ), summed AS (
+                    SELECT status, worker_id, attempt_count, job_type, SUM(delta) AS delta, COUNT(*) AS delta_rows
+                    FROM drained
+                    GROUP BY status, worker_id, attempt_count, job_type
+                ), applied AS (
+                    INSERT INTO job_status_counts AS c (status, worker_id, attempt_count, job_type, job_count)
+                    SELECT status, worker_id, attempt_count, job_type, delta FROM summed
+                    ON CONFLICT (status, worker_id, attempt_count, job_type)
+                        DO UPDATE SET job_count = c.job_count + EXCLUDED.job_count
+                )
+                SELECT COALESCE(SUM(delta_rows), 0) FROM summed
+                """, Long.class);
+        jdbcTemplate.update("DELETE FROM job_status_counts WHERE job_count = 0");
+        return consumed.isEmpty() ? 0 : consumed.get(0).intValue();
+    }
+
+    /**
+     * Compares the summary against a full GROUP BY of {@code jobs} and appends the difference
+     * as correction deltas. Everything is read in one statement snapshot, so work committed
+     * concurrently is neither double-counted nor lost. Returns the number of keys corrected.
+     */
+    public int reconcile() {
+        return jdbcTemplate.update("""
+                INSERT INTO job_status_count_deltas (status, worker_id, attempt_count, job_type, delta)
+                SELECT status, worker_id, attempt_count, job_type, SUM(n)
+                FROM (
+                    SELECT status, COALESCE(worker_id, 'unassigned') AS worker_id, attempt_count, job_type, COUNT(*) AS n
+                    FROM jobs
+                    GROUP BY 1, 2, 3, 4
+                    UNION ALL
+                    SELECT status, worker_id, attempt_count, job_type, -job_count FROM job_status_counts
+                    UNION ALL
+                    SELECT status, worker_id, attempt_count, job_type, -delta FROM job_status_count_deltas
+                ) drift
+                GROUP BY status, worker_id, attempt_count, job_type
+                HAVING SUM(n) <> 0
+                """);
+    }
+}
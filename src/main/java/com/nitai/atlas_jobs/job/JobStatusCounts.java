@@ -0,0 +1,97 @@
+package com.nitai.atlas_jobs.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Job counts by status, worker, attempt count and job type without scanning {@code jobs}.
+ *
+ * <p>Triggers on {@code jobs} record a delta for every status transition, whichever code path
+ * made it (JPA saves, claim and recovery UPDATEs, bulk inserts, archiving). This component
+ * rolls those deltas up periodically and runs a reconciliation pass that repairs any drift,
+ * e.g. after a manual TRUNCATE or a trigger disabled during maintenance.
+ */
+@Component
+public class JobStatusCounts {
+
+    private static final Logger log = LoggerFactory.getLogger(JobStatusCounts.class);
+
+    private final JobStatusCountRepository countRepository;
+
+    public JobStatusCounts(JobStatusCountRepository countRepository) {
+        this.countRepository = countRepository;
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(countRepository.currentCounts());
+    }
+
+    /**
+     * Due QUEUED jobs by type, read from {@code jobs} rather than the counters (which cannot
+     * tell a job due now from one delayed for a year); at most {@code limit} rows are counted.
+     */
+    public Map<String, Long> dueQueuedByJobType(long limit) {
+        return countRepository.countDueQueuedByJobType(limit);
+    }
+
+    @Scheduled(fixedDelayString = "${atlas.metrics.counts.rollup-interval-ms:5000}")
+    public void rollUp() {
+        countRepository.rollUpDeltas();
+    }
+
+    @Scheduled(
+            initialDelayString = "${atlas.metrics.counts.reconcile-interval-ms:600000}",
+            fixedDelayString = "${atlas.metrics.counts.reconcile-interval-ms:600000}"
+    )
+    public void reconcile() {
+        int corrected = countRepository.reconcile();
+        if (corrected > 0) {
+            log.warn("Job status counts had drifted; corrected {} keys", corrected);
+        }
+    }
+
+    public record Snapshot(List<JobStatusCountRepository.Row> rows) {
+
+        public Map<JobStatus, Long> byStatus() {
+            Map<JobStatus, Long> result = new EnumMap<>(JobStatus.class);
+            for (JobStatusCountRepository.Row row : rows) {
+                result.merge(row.status(), row.count(), Long::sum);
+            }
+            return result;
+        }
+
+        public Map<String, Map<JobStatus, Long>> byWorkerAndStatus() {
+            Map<String, Map<JobStatus, Long>> result = new TreeMap<>();
+            for (JobStatusCountRepository.Row row : rows) {
+                result.computeIfAbsent(row.workerId(), k -> new EnumMap<>(JobStatus.class))
+                        .merge(row.status(), row.count(), Long::sum);
+            }
+            return result;
+        }
+
+        public Map<String, Long> byJobType(JobStatus status) {
+            Map<String, Long> result = new TreeMap<>();
+            for (JobStatusCountRepository.Row row : rows) {
+                if (row.status() == status) {
+                    result.merge(row.jobType(), row.count(), Long::sum);
+                }
+            }
+            return result;
+        }
+
+        public Map<Integer, Long> byAttemptCount() {
+            Map<Integer, Long> result = new TreeMap<>();
+            for (JobStatusCountRepository.Row row : rows) {
+                result.merge(row.attemptCount(), row.count(), Long::sum);
+            }
+            return result;
+        }
+    }
+}
@@ -1,63 +1,104 @@
 package com.nitai.atlas_jobs.job;
 
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.UUID;
+import java.time.Duration;
 
 @Component
 public class JobWorker {
-    private final WorkerShutdownLatch shutdownLatch;
-    private final JobClaimService jobClaimService;
-    private final JobRepository jobRepository;
+
+    static final String TIMEOUT_ERROR_PREFIX = "Timed out after ";
+
+    private final JobCompletionRepository completionRepository;
+    private final JobCompletionBatcher completionBatcher;
     private final JobExecutor jobExecutor;
     private final JobMetrics jobMetrics;
+    private final String workerId;
 
-    public JobWorker(JobClaimService jobClaimService,
-                     JobRepository jobRepository,
+    public JobWorker(JobCompletionRepository completionRepository,
+                     JobCompletionBatcher completionBatcher,
                      JobExecutor jobExecutor,
-                     WorkerShutdownLatch shutdownLatch,
-                     JobMetrics jobMetrics) {
-        this.jobClaimService = jobClaimService;
-        this.jobRepository = jobRepository;
+                     JobMetrics jobMetrics,
+                     String workerId) {
+        this.completionRepository = completionRepository;
+        this.completionBatcher = completionBatcher;
         this.jobExecutor = jobExecutor;
-        this.shutdownLatch = shutdownLatch;
         this.jobMetrics = jobMetrics;
+        this.workerId = workerId;
     }
 
-    @Scheduled(fixedDelay = 2000)
-    public void pollAndExecuteOne() {
-        if (shutdownLatch.isShuttingDown()) return;
-        var maybeJob = jobClaimService.claimNextJob();
-        if (maybeJob.isEmpty()) return;
+    /**
+     * Executes a job that has already been claimed by this worker and records the outcome.
+     */
+    public void run(Job job) {
+        run(job, JobAttempt.onCurrentThread());
+    }
 
-        Job job = maybeJob.get();
+    /**
+     * Like {@link #run(Job)}, but records nothing if {@code attempt} was already settled by a timeout.
+     *
+     * <p>Only the handler is guarded: a failure to record the outcome propagates to the caller
+     * instead of being taken for a handler failure, and stale recovery re-runs the job.
+     */
+    public void run(Job job, JobAttempt attempt) {
+        recordQueueWait(job);
         long startNanos = System.nanoTime();
 
+        JobCompletion completion;
         try {
             jobExecutor.execute(job);
-            completeSuccess(job.getJobId());
-            jobMetrics.recordSuccess(job.getJobType(), System.nanoTime() - startNanos);
+            completion = JobCompletion.succeeded(job);
         } catch (Exception e) {
-            completeFailure(job.getJobId(), e.getMessage());
-            jobMetrics.recordFailure(job.getJobType(), System.nanoTime() - startNanos);
+            completion = JobCompletion.failed(job, e.getMessage());
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        if (!attempt.settle()) return;
+
+        if (completion.succeeded()) {
+            jobMetrics.recordSuccess(job.getJobType(), elapsedNanos);
+        } else {
+            jobMetrics.recordFailure(job.getJobType(), elapsedNanos);
+        }
+        record(completion);
+    }
+
+    /**
+     * Records an attempt that ran past {@code timeout} as a failed attempt; retries and
+     * dead-lettering follow the usual rules.
+     */
+    public void timeOut(Job job, Duration timeout, long elapsedNanos) {
+        record(JobCompletion.failed(job, TIMEOUT_ERROR_PREFIX + timeout.toMillis() + " ms"));
+        jobMetrics.recordTimeout(job.getJobType(), elapsedNanos);
+    }
+
+    /**
+     * Hands the outcome to the write-behind batcher, or writes it now if that is off or full.
+     */
+    private void record(JobCompletion completion) {
+        if (!completionBatcher.offer(completion)) {
+            completionRepository.complete(workerId, completion);
         }
     }
 
-    @Transactional
-    public void completeSuccess(UUID jobId) {
-        Job job = jobRepository.findById(jobId).orElseThrow();
-        if (job.getStatus() != JobStatus.RUNNING) return;
-        job.markSucceeded();
-        jobRepository.saveAndFlush(job);
+    private void recordQueueWait(Job job) {
+        if (job.getStartedAt() == null || job.getNextRunAt() == null) return;
+        long waitNanos = Duration.between(job.getNextRunAt(), job.getStartedAt()).toNanos();
+        jobMetrics.recordQueueWait(job.getJobType(), waitNanos);
+    }
+
+    /**
+     * Marks the attempt {@code job} was claimed with as succeeded, in one conditional UPDATE.
+     * Returns {@code false} if stale recovery got there first and the attempt no longer owns the job.
+     */
+    public boolean completeSuccess(Job job) {
+        return completionRepository.complete(workerId, JobCompletion.succeeded(job));
     }
 
-    @Transactional
-    public void completeFailure(UUID jobId, String error) {
-        Job job = jobRepository.findById(jobId).orElseThrow();
-        if (job.getStatus() != JobStatus.RUNNING) return;
-        job.onFailureAndScheduleRetry(error);
-        jobRepository.saveAndFlush(job);
+    /**
+     * Fails the attempt {@code job} was claimed with and schedules the retry or dead-letters it,
+     * in one conditional UPDATE. Returns {@code false} if the attempt no longer owns the job.
+     */
+    public boolean completeFailure(Job job, String error) {
+        return completionRepository.complete(workerId, JobCompletion.failed(job, error));
     }
-}
\ No newline at end of file
+}
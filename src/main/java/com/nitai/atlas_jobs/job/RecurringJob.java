@@ -0,0 +1,21 @@
+package com.nitai.atlas_jobs.job;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A stored cron schedule. {@code payload} is the raw JSON each occurrence is created with.
+ */
+public record RecurringJob(
+        String id,
+        String jobType,
+        String payload,
+        String cron,
+        String timeZone,
+        int maxAttempts,
+        int priority,
+        boolean enabled,
+        OffsetDateTime nextFireAt,
+        OffsetDateTime lastFiredAt,
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedAt
+) {}
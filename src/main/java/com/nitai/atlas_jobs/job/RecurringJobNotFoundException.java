@@ -0,0 +1,7 @@
+package com.nitai.atlas_jobs.job;
+
+public class RecurringJobNotFoundException extends RuntimeException {
+    public RecurringJobNotFoundException(String id) {
+        super("Recurring job not found: " + id);
+    }
+}
@@ -0,0 +1,131 @@
+package com.nitai.atlas_jobs.job;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Plain-JDBC access to {@code recurring_jobs}, including the scheduler's leader lock.
+ */
+@Repository
+public class RecurringJobRepository {
+
+    /**
+     * Where the scheduler moved a definition after firing it.
+     */
+    public record Advance(String id, OffsetDateTime nextFireAt, OffsetDateTime lastFiredAt) {}
+
+    private static final String COLUMNS = """
+            id, job_type, payload, cron, time_zone, max_attempts, priority, enabled,
+            next_fire_at, last_fired_at, created_at, updated_at
+            """;
+
+    private static final RowMapper<RecurringJob> ROW_MAPPER = (rs, i) -> new RecurringJob(
+            rs.getString("id"),
+            rs.getString("job_type"),
+            rs.getString("payload"),
+            rs.getString("cron"),
+            rs.getString("time_zone"),
+            rs.getInt("max_attempts"),
+            rs.getInt("priority"),
+            rs.getBoolean("enabled"),
+            rs.getObject("next_fire_at", OffsetDateTime.class),
+            rs.getObject("last_fired_at", OffsetDateTime.class),
+            rs.getObject("created_at", OffsetDateTime.class),
+            rs.getObject("updated_at", OffsetDateTime.class)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RecurringJobRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts or replaces a definition; {@code created_at} and {@code last_fired_at} survive a replace.
+     */
+    public RecurringJob upsert(RecurringJob job) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO recurring_jobs (id, job_type, payload, cron, time_zone, max_attempts, priority,
+                                            enabled, next_fire_at, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT (id) DO UPDATE
+                SET job_type = EXCLUDED.job_type,
+                    payload = EXCLUDED.payload,
+                    cron = EXCLUDED.cron,
+                    time_zone = EXCLUDED.time_zone,
+                    max_attempts = EXCLUDED.max_attempts,
+                    priority = EXCLUDED.priority,
+                    enabled = EXCLUDED.enabled,
+                    next_fire_at = EXCLUDED.next_fire_at,
+                    updated_at = EXCLUDED.updated_at
+                RETURNING
+                """ + COLUMNS,
+                ROW_MAPPER,
+                job.id(), job.jobType(), new SqlParameterValue(Types.VARCHAR, job.payload()), job.cron(), job.timeZone(), job.maxAttempts(),
+                job.priority(), job.enabled(), job.nextFireAt(), job.createdAt(), job.updatedAt());
+    }
+
+    public Optional<RecurringJob> findById(String id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM recurring_jobs WHERE id = ?", ROW_MAPPER, id)
+                .stream().findFirst();
+    }
+
+    public List<RecurringJob> findAll() {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM recurring_jobs ORDER BY id", ROW_MAPPER);
+    }
+
+    public boolean deleteById(String id) {
+        return jdbcTemplate.update("DELETE FROM recurring_jobs WHERE id = ?", id) > 0;
+    }
+
+    /**
+     * Takes the scheduler's leader lock for the rest of the current transaction, without waiting.
+     * Returns {@code false} when another node holds it.
+     */
+    public boolean tryLeadership() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('atlas_jobs.recurring_scheduler'))", Boolean.class));
+    }
+
+    /**
+     * Locks up to {@code limit} enabled definitions due at {@code now}, earliest first. Reads only
+     * the head of {@code ix_recurring_jobs_next_fire}; rows an API update holds are left for the next tick.
+     */
+    public List<RecurringJob> lockDue(OffsetDateTime now, int limit) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + """
+                FROM recurring_jobs
+                WHERE enabled AND next_fire_at <= ?
+                ORDER BY next_fire_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """, ROW_MAPPER, now, limit);
+    }
+
+    /**
+     * Stops firing definitions the scheduler can no longer turn into jobs.
+     */
+    public void disable(List<String> ids) {
+        if (ids.isEmpty()) return;
+        jdbcTemplate.update("UPDATE recurring_jobs SET enabled = FALSE, updated_at = now() WHERE id = ANY (?)",
+                (Object) ids.toArray(String[]::new));
+    }
+
+    public void advance(List<Advance> advances) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE recurring_jobs SET next_fire_at = ?, last_fired_at = COALESCE(?, last_fired_at) WHERE id = ?",
+                advances,
+                advances.size(),
+                (ps, advance) -> {
+                    ps.setObject(1, advance.nextFireAt());
+                    ps.setObject(2, advance.lastFiredAt(), Types.TIMESTAMP_WITH_TIMEZONE);
+                    ps.setString(3, advance.id());
+                });
+    }
+}
@@ -0,0 +1,155 @@
+package com.nitai.atlas_jobs.job;
+
+import com.nitai.atlas_jobs.job.handler.JobHandlerRegistry;
+import com.nitai.atlas_jobs.job.payload.StoredPayload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Turns due {@code recurring_jobs} occurrences into queued jobs.
+ *
+ * <p>Every node runs the tick, but each batch first takes a transaction-scoped advisory lock
+ * with {@code pg_try_advisory_xact_lock}; only the holder proceeds and the others return at
+ * once. The batch then locks the earliest due definitions through the {@code next_fire_at}
+ * index, inserts one job per due fire time and moves {@code next_fire_at} forward, all in the
+ * same transaction. A fire time at or before the definition's {@code last_fired_at} is
+ * skipped, so a replayed one (a definition rewound by hand, a clock step) creates no second
+ * job even after the first was archived. Jobs are also keyed
+ * {@code recurring:<id>:<fire epoch second>}, which catches a replay while the earlier job is
+ * still in {@code jobs}.
+ *
+ * <p>Occurrences bypass {@link AdmissionController}: shedding one would lose it for good.
+ */
+@Component
+@ConditionalOnProperty(name = "atlas.recurring.enabled", havingValue = "true", matchIfMissing = true)
+public class RecurringJobScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringJobScheduler.class);
+
+    // Keeps each multi-row INSERT well under Postgres' 65535 bind parameters.
+    private static final int INSERT_CHUNK_SIZE = 1000;
+
+    private final RecurringJobRepository recurringJobRepository;
+    private final JobBatchInsertRepository batchInsertRepository;
+    private final JobHandlerRegistry handlerRegistry;
+    private final JobNotifier jobNotifier;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxCatchUp;
+    private final Duration catchUpWindow;
+
+    public RecurringJobScheduler(RecurringJobRepository recurringJobRepository,
+                                 JobBatchInsertRepository batchInsertRepository,
+                                 JobHandlerRegistry handlerRegistry,
+                                 JobNotifier jobNotifier,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${atlas.recurring.batch-size:500}") int batchSize,
+                                 @Value("${atlas.recurring.max-batches-per-run:20}") int maxBatchesPerRun,
+                                 @Value("${atlas.recurring.max-catch-up:1}") int maxCatchUp,
+                                 @Value("${atlas.recurring.catch-up-window-ms:3600000}") long catchUpWindowMs) {
+        this.recurringJobRepository = recurringJobRepository;
+        this.batchInsertRepository = batchInsertRepository;
+        this.handlerRegistry = handlerRegistry;
+        this.jobNotifier = jobNotifier;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+        this.maxCatchUp = Math.max(1, maxCatchUp);
+        this.catchUpWindow = Duration.ofMillis(Math.max(0L, catchUpWindowMs));
+    }
+
+    @Scheduled(fixedDelayString = "${atlas.recurring.poll-interval-ms:1000}")
+    public void fireDueSchedules() {
+        long created = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Round round = transactionTemplate.execute(status -> fireBatch(OffsetDateTime.now()));
+            if (round == null) break;
+            created += round.created();
+            if (round.definitions() < batchSize) break;
+        }
+        if (created > 0) {
+            log.debug("Created {} jobs from recurring schedules", created);
+        }
+    }
+
+    private record Round(int definitions, int created) {}
+
+    private Round fireBatch(OffsetDateTime now) {
+        if (!recurringJobRepository.tryLeadership()) return null;
+
+        List<RecurringJob> due = recurringJobRepository.lockDue(now, batchSize);
+        if (due.isEmpty()) return new Round(0, 0);
+
+        List<Job> jobs = new ArrayList<>();
+        List<RecurringJobRepository.Advance> advances = new ArrayList<>(due.size());
+        List<String> broken = new ArrayList<>();
+        for (RecurringJob definition : due) {
+            CronSchedule.Occurrences occurrences;
+            StoredPayload payload;
+            try {
+                occurrences = CronSchedule.parse(definition.cron(), definition.timeZone())
+                        .due(definition.nextFireAt(), now, maxCatchUp, catchUpWindow);
+                payload = handlerRegistry.preparePayload(definition.jobType(), definition.payload());
+            } catch (InvalidJobPayloadException e) {
+                log.warn("Disabling recurring job {}: {}", definition.id(), e.getMessage());
+                broken.add(definition.id());
+                continue;
+            }
+            if (occurrences.next() == null) {
+                log.warn("Disabling recurring job {}: cron '{}' never fires again", definition.id(), definition.cron());
+                broken.add(definition.id());
+                continue;
+            }
+
+            OffsetDateTime lastFiredAt = null;
+            for (OffsetDateTime fireAt : occurrences.due()) {
+                if (definition.lastFiredAt() != null && !fireAt.isAfter(definition.lastFiredAt())) continue;
+                jobs.add(occurrence(definition, fireAt, payload));
+                lastFiredAt = fireAt;
+            }
+            advances.add(new RecurringJobRepository.Advance(definition.id(), occurrences.next(), lastFiredAt));
+        }
+
+        int inserted = 0;
+        for (int from = 0; from < jobs.size(); from += INSERT_CHUNK_SIZE) {
+            List<Job> chunk = jobs.subList(from, Math.min(from + INSERT_CHUNK_SIZE, jobs.size()));
+            inserted += batchInsertRepository.insertIgnoringDuplicateKeys(chunk).size();
+        }
+        recurringJobRepository.advance(advances);
+        recurringJobRepository.disable(broken);
+        if (inserted > 0) {
+            jobNotifier.jobsAvailable();
+        }
+        return new Round(due.size(), inserted);
+    }
+
+    private Job occurrence(RecurringJob definition, OffsetDateTime fireAt, StoredPayload payload) {
+        Job job = new Job(
+                UUID.randomUUID(),
+                JobStatus.QUEUED,
+                definition.jobType(),
+                definition.payload(),
+                definition.maxAttempts(),
+                idempotencyKey(definition.id(), fireAt),
+                definition.priority()
+        );
+        job.storePayload(payload);
+        return job;
+    }
+
+    static String idempotencyKey(String recurringJobId, OffsetDateTime fireAt) {
+        return "recurring:" + recurringJobId + ":" + fireAt.toEpochSecond();
+    }
+}
@@ -0,0 +1,78 @@
+package com.nitai.atlas_jobs.job;
+
+import com.nitai.atlas_jobs.job.api.RecurringJobRequest;
+import com.nitai.atlas_jobs.job.handler.JobHandlerRegistry;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.regex.Pattern;
+
+@Service
+public class RecurringJobService {
+
+    // Ids appear in URLs and in the idempotency key of every occurrence.
+    private static final Pattern ID_PATTERN = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final RecurringJobRepository recurringJobRepository;
+    private final JobHandlerRegistry handlerRegistry;
+
+    public RecurringJobService(RecurringJobRepository recurringJobRepository, JobHandlerRegistry handlerRegistry) {
+        this.recurringJobRepository = recurringJobRepository;
+        this.handlerRegistry = handlerRegistry;
+    }
+
+    /**
+     * Creates or replaces the definition {@code id}. Its next fire time is recomputed from now,
+     * so occurrences missed while it was disabled are not fired.
+     *
+     * @throws InvalidJobPayloadException for a bad id, cron expression, time zone or payload
+     */
+    public RecurringJob upsert(String id, RecurringJobRequest request) {
+        if (id == null || !ID_PATTERN.matcher(id).matches()) {
+            throw new InvalidJobPayloadException("id must be 1-64 characters of letters, digits, '.', '_' or '-'");
+        }
+        if (request.getJobType() == null || request.getJobType().isBlank()) {
+            throw new InvalidJobPayloadException("jobType must not be blank");
+        }
+        String timeZone = (request.getTimeZone() == null || request.getTimeZone().isBlank())
+                ? "UTC" : request.getTimeZone();
+        CronSchedule schedule = CronSchedule.parse(request.getCron(), timeZone);
+        handlerRegistry.preparePayload(request.getJobType(), request.getPayload());
+
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime nextFireAt = schedule.nextAfter(now);
+        if (nextFireAt == null) {
+            throw new InvalidJobPayloadException("Cron expression '" + request.getCron() + "' never fires");
+        }
+
+        return recurringJobRepository.upsert(new RecurringJob(
+                id,
+                request.getJobType(),
+                request.getPayload(),
+                request.getCron(),
+                timeZone,
+                request.getMaxAttempts() == null ? 3 : request.getMaxAttempts(),
+                request.getPriority() == null ? 0 : request.getPriority(),
+                request.getEnabled() == null || request.getEnabled(),
+                nextFireAt,
+                null,
+                now,
+                now
+        ));
+    }
+
+    public RecurringJob get(String id) {
+        return recurringJobRepository.findById(id).orElseThrow(() -> new RecurringJobNotFoundException(id));
+    }
+
+    public List<RecurringJob> list() {
+        return recurringJobRepository.findAll();
+    }
+
+    public void delete(String id) {
+        if (!recurringJobRepository.deleteById(id)) {
+            throw new RecurringJobNotFoundException(id);
+        }
+    }
+}
@@ -5,9 +5,6 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.OffsetDateTime;
-import java.util.List;
-
 @Component
 public class StaleJobRecoveryService {
 
@@ -22,17 +19,13 @@ public class StaleJobRecoveryService {
         this.runTimeoutMinutes = runTimeoutMinutes;
     }
 
-    @Scheduled(fixedDelayString = "${atlas.jobs.stale-recovery-interval-ms:60000}")
+    /**
+     * Requeues (or dead-letters) RUNNING jobs whose worker stopped renewing their lease.
+     * {@code run-timeout-minutes} only applies to rows claimed before leases existed.
+     */
+    @Scheduled(fixedDelayString = "${atlas.jobs.stale-recovery-interval-ms:10000}")
     @Transactional
     public void recoverStaleRunningJobs() {
-        OffsetDateTime olderThan = OffsetDateTime.now().minusMinutes(runTimeoutMinutes);
-        List<Job> stale = jobRepository.findStaleRunningJobs(olderThan);
-
-        for (Job job : stale) {
-            job.onFailureAndScheduleRetry("Stale RUNNING (timeout)");
-
-        }
-
-        jobRepository.saveAll(stale);
+        jobRepository.recoverExpiredRunningJobs(runTimeoutMinutes);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,152 @@
+package com.nitai.atlas_jobs.job;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hierarchical timing wheel of job ids that become due soon, so the dispatcher can sleep until
+ * exactly the next one instead of polling for it.
+ *
+ * <p>The lowest level has {@code wheelSize} buckets of {@code tickMs}; each level above has
+ * buckets as wide as the whole level below and is created on first use, so a few levels cover
+ * hours with O(1) inserts. A bucket on a higher level is cascaded into the levels below when
+ * its time comes. Due times are rounded up to a tick: an id never fires early, and at most one
+ * tick late.
+ *
+ * <p>Rescheduling an id replaces its due time; the superseded entry is dropped when its bucket
+ * is reached. Not thread-safe: the dispatcher thread owns it.
+ */
+final class TimingWheel {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final Level root;
+    private final Map<UUID, Long> dueById = new HashMap<>();
+
+    TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = Math.max(1L, tickMs);
+        this.wheelSize = Math.max(2, wheelSize);
+        this.root = new Level(this.tickMs, startMs);
+    }
+
+    /**
+     * Schedules {@code jobId} to fire at {@code dueMs}. Returns {@code false}, scheduling nothing,
+     * if it is already due.
+     */
+    boolean schedule(UUID jobId, long dueMs) {
+        long roundedMs = -Math.floorDiv(-dueMs, tickMs) * tickMs;
+        Long current = dueById.get(jobId);
+        if (current != null && current == roundedMs) return true;
+
+        Entry entry = new Entry(jobId, roundedMs);
+        if (!root.add(entry)) {
+            dueById.remove(jobId);
+            return false;
+        }
+        dueById.put(jobId, roundedMs);
+        return true;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMs} and returns the ids that became due, in no particular order.
+     */
+    List<UUID> advance(long nowMs) {
+        List<Entry> reached = new ArrayList<>();
+        for (Level level = root; level != null; level = level.overflow) {
+            level.advance(nowMs, reached);
+        }
+
+        List<UUID> due = new ArrayList<>();
+        for (Entry entry : reached) {
+            Long current = dueById.get(entry.jobId);
+            if (current == null || current != entry.dueMs) continue;
+            if (!root.add(entry)) {
+                dueById.remove(entry.jobId);
+                due.add(entry.jobId);
+            }
+        }
+        return due;
+    }
+
+    /**
+     * When the next bucket fires or cascades, or {@link Long#MAX_VALUE} when nothing is scheduled.
+     */
+    long nextDeadlineMs() {
+        long next = Long.MAX_VALUE;
+        for (Level level = root; level != null; level = level.overflow) {
+            next = Math.min(next, level.nextDeadlineMs());
+        }
+        return next;
+    }
+
+    int size() {
+        return dueById.size();
+    }
+
+    private record Entry(UUID jobId, long dueMs) {}
+
+    private final class Level {
+
+        private final long levelTickMs;
+        private final long spanMs;
+        private final ArrayDeque<Entry>[] buckets;
+        private final long[] deadlines;
+        private long currentMs;
+        private Level overflow;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Level(long levelTickMs, long startMs) {
+            this.levelTickMs = levelTickMs;
+            this.spanMs = levelTickMs * wheelSize;
+            this.buckets = new ArrayDeque[wheelSize];
+            this.deadlines = new long[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new ArrayDeque<>();
+            }
+            this.currentMs = startMs - Math.floorMod(startMs, levelTickMs);
+        }
+
+        /**
+         * Files the entry on this level or one above; {@code false} if it falls in the current tick.
+         */
+        boolean add(Entry entry) {
+            if (entry.dueMs < currentMs + levelTickMs) return false;
+            if (entry.dueMs < currentMs + spanMs) {
+                long virtualTick = Math.floorDiv(entry.dueMs, levelTickMs);
+                int index = (int) Math.floorMod(virtualTick, (long) wheelSize);
+                buckets[index].add(entry);
+                deadlines[index] = virtualTick * levelTickMs;
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(spanMs, currentMs);
+            }
+            return overflow.add(entry);
+        }
+
+        void advance(long nowMs, List<Entry> reached) {
+            if (nowMs < currentMs + levelTickMs) return;
+            currentMs = nowMs - Math.floorMod(nowMs, levelTickMs);
+            for (int i = 0; i < wheelSize; i++) {
+                if (!buckets[i].isEmpty() && deadlines[i] <= nowMs) {
+                    reached.addAll(buckets[i]);
+                    buckets[i].clear();
+                }
+            }
+        }
+
+        long nextDeadlineMs() {
+            long next = Long.MAX_VALUE;
+            for (int i = 0; i < wheelSize; i++) {
+                if (!buckets[i].isEmpty()) {
+                    next = Math.min(next, deadlines[i]);
+                }
+            }
+            return next;
+        }
+    }
+}
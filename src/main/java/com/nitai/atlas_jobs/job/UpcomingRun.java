@@ -0,0 +1,11 @@
+package com.nitai.atlas_jobs.job;
+
+import java.util.UUID;
+
+/**
+ * A QUEUED job that is not due yet, and how long until it is by the database clock.
+ */
+public interface UpcomingRun {
+    UUID getJobId();
+    long getMillisUntilDue();
+}
@@ -0,0 +1,26 @@
+package com.nitai.atlas_jobs.job.api;
+
+import java.util.List;
+
+public record BatchCreateJobResponse(
+        int created,
+        int duplicates,
+        int rejected,
+        int rateLimited,
+        int overloaded,
+        List<BatchItemResult> items
+) {
+    public static BatchCreateJobResponse of(List<BatchItemResult> items) {
+        int created = 0, duplicates = 0, rejected = 0, rateLimited = 0, overloaded = 0;
+        for (BatchItemResult item : items) {
+            switch (item.outcome()) {
+                case CREATED -> created++;
+                case DUPLICATE -> duplicates++;
+                case REJECTED -> rejected++;
+                case RATE_LIMITED -> rateLimited++;
+                case OVERLOADED -> overloaded++;
+            }
+        }
+        return new BatchCreateJobResponse(created, duplicates, rejected, rateLimited, overloaded, items);
+    }
+}
@@ -0,0 +1,38 @@
+package com.nitai.atlas_jobs.job.api;
+
+import java.util.UUID;
+
+public record BatchItemResult(
+        int index,
+        UUID jobId,
+        Outcome outcome,
+        String error
+) {
+    public enum Outcome {
+        CREATED,
+        DUPLICATE,
+        REJECTED,
+        RATE_LIMITED,
+        OVERLOADED
+    }
+
+    public static BatchItemResult created(int index, UUID jobId) {
+        return new BatchItemResult(index, jobId, Outcome.CREATED, null);
+    }
+
+    public static BatchItemResult duplicate(int index, UUID jobId) {
+        return new BatchItemResult(index, jobId, Outcome.DUPLICATE, null);
+    }
+
+    public static BatchItemResult rejected(int index, String error) {
+        return new BatchItemResult(index, null, Outcome.REJECTED, error);
+    }
+
+    public static BatchItemResult rateLimited(int index) {
+        return new BatchItemResult(index, null, Outcome.RATE_LIMITED, "Rate limit exceeded");
+    }
+
+    public static BatchItemResult overloaded(int index, String error) {
+        return new BatchItemResult(index, null, Outcome.OVERLOADED, error);
+    }
+}
@@ -0,0 +1,15 @@
+package com.nitai.atlas_jobs.job.api;
+
+/**
+ * One element of a {@code POST /jobs/batch} body. Carries its own idempotency key
+ * because a single {@code Idempotency-Key} header cannot cover many jobs.
+ */
+public class BatchJobItem extends CreateJobRequest {
+
+    private String idempotencyKey;
+
+    public BatchJobItem() {}
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+}
@@ -1,25 +1,56 @@
 package com.nitai.atlas_jobs.job.api;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 
+import java.time.OffsetDateTime;
+
 public class CreateJobRequest {
 
+    public static final int MIN_PRIORITY = -100;
+    public static final int MAX_PRIORITY = 100;
+    public static final long MAX_DELAY_SECONDS = 366L * 24 * 60 * 60;
+    public static final int MIN_MAX_ATTEMPTS = 1;
+    public static final int MAX_MAX_ATTEMPTS = 100;
+    //jobs.idempotency_key is VARCHAR(128)
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+
     @NotBlank
     private String jobType;
 
     //payload is raw JSON string for now
     private String payload;
 
-
+    @Min(MIN_MAX_ATTEMPTS)
+    @Max(MAX_MAX_ATTEMPTS)
     private Integer maxAttempts;
 
+    //higher runs first; defaults to 0
+    @Min(MIN_PRIORITY)
+    @Max(MAX_PRIORITY)
+    private Integer priority;
+
+    //when the job becomes eligible; set at most one of runAt and delaySeconds
+    private OffsetDateTime runAt;
+
+    @Min(0)
+    @Max(MAX_DELAY_SECONDS)
+    private Long delaySeconds;
+
     public CreateJobRequest() {}
 
     public String getJobType() { return jobType; }
     public String getPayload() { return payload; }
     public Integer getMaxAttempts() { return maxAttempts; }
+    public Integer getPriority() { return priority; }
+    public OffsetDateTime getRunAt() { return runAt; }
+    public Long getDelaySeconds() { return delaySeconds; }
 
     public void setJobType(String jobType) { this.jobType = jobType; }
     public void setPayload(String payload) { this.payload = payload; }
     public void setMaxAttempts(Integer maxAttempts) { this.maxAttempts = maxAttempts; }
+    public void setPriority(Integer priority) { this.priority = priority; }
+    public void setRunAt(OffsetDateTime runAt) { this.runAt = runAt; }
+    public void setDelaySeconds(Long delaySeconds) { this.delaySeconds = delaySeconds; }
 }
@@ -1,19 +1,32 @@
 package com.nitai.atlas_jobs.job.api;
 
+import com.nitai.atlas_jobs.job.BulkRequeueProgress;
+import com.nitai.atlas_jobs.job.DeadLetterFilter;
+import com.nitai.atlas_jobs.job.DeadLetterRequeueService;
 import com.nitai.atlas_jobs.job.JobService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.OffsetDateTime;
 import java.util.Map;
+import java.util.UUID;
 
 @RestController
 public class DeadLetterController {
 
     private final JobService jobService;
+    private final DeadLetterRequeueService deadLetterRequeueService;
 
-    public DeadLetterController(JobService jobService) {
+    public DeadLetterController(JobService jobService, DeadLetterRequeueService deadLetterRequeueService) {
         this.jobService = jobService;
+        this.deadLetterRequeueService = deadLetterRequeueService;
     }
 
     @PostMapping("/dead-letter/retry")
@@ -21,4 +34,22 @@ public class DeadLetterController {
         int count = jobService.requeueDeadLetters(limit);
         return Map.of("count", count);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/dead-letter/bulk-requeue")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public BulkRequeueProgress bulkRequeue(
+            @RequestParam(required = false) String jobType,
+            @RequestParam(required = false) String errorContains,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime updatedAfter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime updatedBefore,
+            @RequestParam(required = false) Long max
+    ) {
+        DeadLetterFilter filter = new DeadLetterFilter(jobType, errorContains, updatedAfter, updatedBefore);
+        return deadLetterRequeueService.start(filter, max);
+    }
+
+    @GetMapping("/dead-letter/bulk-requeue/{operationId}")
+    public ResponseEntity<BulkRequeueProgress> bulkRequeueProgress(@PathVariable UUID operationId) {
+        return ResponseEntity.of(deadLetterRequeueService.get(operationId));
+    }
+}
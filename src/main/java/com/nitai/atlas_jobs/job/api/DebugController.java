@@ -2,6 +2,9 @@ package com.nitai.atlas_jobs.job.api;
 
 import com.nitai.atlas_jobs.job.JobRepository;
 import com.nitai.atlas_jobs.job.JobStatus;
+import com.nitai.atlas_jobs.job.JobStatusCounts;
+import com.nitai.atlas_jobs.web.ResponseCaches;
+import com.nitai.atlas_jobs.web.SingleFlightCache;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -14,9 +17,17 @@ import java.util.*;
 public class DebugController {
 
     private final JobRepository jobRepository;
+    private final JobStatusCounts jobStatusCounts;
+    private final ResponseCaches responseCaches;
+    private final SingleFlightCache<String, Map<String, Map<JobStatus, Long>>> workersCache;
+    private final SingleFlightCache<String, Map<JobStatus, Long>> summaryCache;
 
-    public DebugController(JobRepository jobRepository) {
+    public DebugController(JobRepository jobRepository, JobStatusCounts jobStatusCounts, ResponseCaches responseCaches) {
         this.jobRepository = jobRepository;
+        this.jobStatusCounts = jobStatusCounts;
+        this.responseCaches = responseCaches;
+        this.workersCache = responseCaches.cache("debug.workers");
+        this.summaryCache = responseCaches.cache("debug.workers.summary");
     }
 
 
@@ -24,9 +35,15 @@ public class DebugController {
     public Map<String, Map<JobStatus, Long>> workerStats(
             @RequestParam(value = "sinceMinutes", required = false) Integer sinceMinutes
     ) {
-        List<WorkerJobCount> rows = (sinceMinutes == null)
-                ? jobRepository.countJobsByWorkerAndStatus()
-                : jobRepository.countJobsByWorkerAndStatusSince(sinceMinutes);
+        Integer window = sinceMinutes == null ? null : MetricsController.clampSinceMinutes(sinceMinutes);
+        return workersCache.get(cacheKey(window), () -> computeWorkerStats(window));
+    }
+
+    private Map<String, Map<JobStatus, Long>> computeWorkerStats(Integer sinceMinutes) {
+        if (sinceMinutes == null) {
+            return jobStatusCounts.snapshot().byWorkerAndStatus();
+        }
+        List<WorkerJobCount> rows = jobRepository.countJobsByWorkerAndStatusSince(sinceMinutes);
 
         Map<String, Map<JobStatus, Long>> result = new LinkedHashMap<>();
         for (WorkerJobCount row : rows) {
@@ -43,9 +60,23 @@ public class DebugController {
     public Map<JobStatus, Long> summary(
             @RequestParam(name = "sinceMinutes", required = false) Integer sinceMinutes
     ) {
-        List<Object[]> rows = (sinceMinutes == null)
-                ? jobRepository.countJobsByStatus()
-                : jobRepository.countJobsByStatusSince(sinceMinutes);
+        Integer window = sinceMinutes == null ? null : MetricsController.clampSinceMinutes(sinceMinutes);
+        return summaryCache.get(cacheKey(window), () -> computeSummary(window));
+    }
+
+    /**
+     * Hit, miss and coalesced-wait counters for the monitoring response caches.
+     */
+    @GetMapping("/cache")
+    public Map<String, SingleFlightCache.Stats> cacheStats() {
+        return responseCaches.stats();
+    }
+
+    private Map<JobStatus, Long> computeSummary(Integer sinceMinutes) {
+        if (sinceMinutes == null) {
+            return jobStatusCounts.snapshot().byStatus();
+        }
+        List<Object[]> rows = jobRepository.countJobsByStatusSince(sinceMinutes);
 
         Map<JobStatus, Long> result = new EnumMap<>(JobStatus.class);
         for (Object[] row : rows) {
@@ -55,4 +86,8 @@ public class DebugController {
         }
         return result;
     }
+
+    private static String cacheKey(Integer sinceMinutes) {
+        return sinceMinutes == null ? "all" : "since:" + sinceMinutes;
+    }
 }
@@ -1,13 +1,29 @@
 package com.nitai.atlas_jobs.job.api;
 
+import com.nitai.atlas_jobs.job.AdmissionController;
+import com.nitai.atlas_jobs.job.AdmissionRejectedException;
 import com.nitai.atlas_jobs.job.Job;
 import com.nitai.atlas_jobs.job.JobNotDeadLetteredException;
 import com.nitai.atlas_jobs.job.JobNotFoundException;
 import com.nitai.atlas_jobs.job.JobService;
+import com.nitai.atlas_jobs.web.RateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.nitai.atlas_jobs.job.InvalidJobPayloadException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -15,9 +31,21 @@ import java.util.UUID;
 public class JobController {
 
     private final JobService jobService;
+    private final AdmissionController admissionController;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<RateLimiter> rateLimiter;
+    private final int batchMaxItems;
 
-    public JobController(JobService jobService) {
+    public JobController(JobService jobService,
+                         AdmissionController admissionController,
+                         ObjectMapper objectMapper,
+                         ObjectProvider<RateLimiter> rateLimiter,
+                         @Value("${atlas.jobs.batch.max-items:10000}") int batchMaxItems) {
         this.jobService = jobService;
+        this.admissionController = admissionController;
+        this.objectMapper = objectMapper;
+        this.rateLimiter = rateLimiter;
+        this.batchMaxItems = Math.max(1, batchMaxItems);
     }
 
     @PostMapping
@@ -30,6 +58,59 @@ public class JobController {
         return JobResponse.from(job);
     }
 
+    /**
+     * Accepts a JSON array or newline-delimited JSON objects. Each item is charged one
+     * permit against the jobs rate limit; items past the client's remaining quota come
+     * back as RATE_LIMITED instead of failing the whole batch, and items shed by admission
+     * control as OVERLOADED. A batch that created nothing because of either gets 429 or 503.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BatchCreateJobResponse> createJobs(HttpServletRequest request) throws IOException {
+        List<BatchJobItem> items = readBatch(request.getInputStream());
+        if (items.isEmpty()) {
+            throw new InvalidJobPayloadException("Batch must contain at least one job");
+        }
+
+        long granted = items.size();
+        RateLimiter.Decision decision = null;
+        RateLimiter limiter = rateLimiter.getIfAvailable();
+        if (limiter != null) {
+            decision = limiter.acquire(RateLimiter.Bucket.JOBS, limiter.resolveClientKey(request), items.size());
+            granted = decision.granted();
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+        if (granted > 0) {
+            results.addAll(jobService.createJobs(items.subList(0, (int) granted)));
+        }
+        for (int i = (int) granted; i < items.size(); i++) {
+            results.add(BatchItemResult.rateLimited(i));
+        }
+
+        boolean shed = results.stream().anyMatch(r -> r.outcome() == BatchItemResult.Outcome.OVERLOADED);
+        boolean accepted = results.stream().anyMatch(r -> r.jobId() != null);
+
+        HttpStatus status = HttpStatus.OK;
+        if (granted == 0) {
+            status = HttpStatus.TOO_MANY_REQUESTS;
+        } else if (shed && !accepted) {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (decision != null) {
+            response.header("RateLimit-Limit", Long.toString(decision.limit()))
+                    .header("RateLimit-Remaining", Long.toString(decision.remaining()))
+                    .header("RateLimit-Reset", Long.toString(decision.resetSeconds()));
+            if (granted < items.size()) {
+                response.header("Retry-After", Long.toString(Math.max(1L, decision.retryAfterSeconds())));
+            }
+        }
+        if (shed && granted == items.size()) {
+            response.header("Retry-After", Long.toString(admissionController.getRetryAfterSeconds()));
+        }
+        return response.body(BatchCreateJobResponse.of(results));
+    }
+
     @GetMapping("/{jobId}")
     public JobResponse getJob(@PathVariable UUID jobId) {
         Job job = jobService.getJob(jobId);
@@ -51,6 +132,28 @@ public class JobController {
     public String handleNotFound(JobNotFoundException ex) {
         return ex.getMessage();
     }
+    private List<BatchJobItem> readBatch(InputStream body) {
+        List<BatchJobItem> items = new ArrayList<>();
+        try (MappingIterator<BatchJobItem> it = objectMapper.readerFor(BatchJobItem.class).readValues(body)) {
+            while (it.hasNextValue()) {
+                if (items.size() == batchMaxItems) {
+                    throw new InvalidJobPayloadException("Batch exceeds " + batchMaxItems + " jobs");
+                }
+                items.add(it.nextValue());
+            }
+        } catch (JacksonException e) {
+            throw new InvalidJobPayloadException("Malformed batch body: " + e.getOriginalMessage());
+        }
+        return items;
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<String> handleAdmissionRejected(AdmissionRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", Long.toString(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(InvalidJobPayloadException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public String handleInvalidPayload(InvalidJobPayloadException ex) {
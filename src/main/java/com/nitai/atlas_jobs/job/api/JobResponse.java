@@ -11,8 +11,12 @@ public class JobResponse {
     private String jobType;
     private int attemptCount;
     private int maxAttempts;
+    private int priority;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
+    private OffsetDateTime nextRunAt;
+    private OffsetDateTime startedAt;
+    private String workerId;
 
     public static JobResponse from(Job job) {
         JobResponse r = new JobResponse();
@@ -21,8 +25,12 @@ public class JobResponse {
         r.jobType = job.getJobType();
         r.attemptCount = job.getAttemptCount();
         r.maxAttempts = job.getMaxAttempts();
+        r.priority = job.getPriority();
         r.createdAt = job.getCreatedAt();
         r.updatedAt = job.getUpdatedAt();
+        r.nextRunAt = job.getNextRunAt();
+        r.startedAt = job.getStartedAt();
+        r.workerId = job.getWorkerId();
         return r;
     }
 
@@ -31,6 +39,10 @@ public class JobResponse {
     public String getJobType() { return jobType; }
     public int getAttemptCount() { return attemptCount; }
     public int getMaxAttempts() { return maxAttempts; }
+    public int getPriority() { return priority; }
     public OffsetDateTime getCreatedAt() { return createdAt; }
     public OffsetDateTime getUpdatedAt() { return updatedAt; }
+    public OffsetDateTime getNextRunAt() { return nextRunAt; }
+    public OffsetDateTime getStartedAt() { return startedAt; }
+    public String getWorkerId() { return workerId; }
 }
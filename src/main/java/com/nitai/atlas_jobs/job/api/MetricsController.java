@@ -1,8 +1,16 @@
 package com.nitai.atlas_jobs.job.api;
 
+import com.nitai.atlas_jobs.job.AdmissionController;
+import com.nitai.atlas_jobs.job.JobCompletionBatcher;
+import com.nitai.atlas_jobs.job.JobDispatcher;
+import com.nitai.atlas_jobs.job.IdempotencyKeyCache;
 import com.nitai.atlas_jobs.job.JobMetrics;
 import com.nitai.atlas_jobs.job.JobRepository;
 import com.nitai.atlas_jobs.job.JobStatus;
+import com.nitai.atlas_jobs.job.JobStatusCounts;
+import com.nitai.atlas_jobs.web.ResponseCaches;
+import com.nitai.atlas_jobs.web.SingleFlightCache;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -12,24 +20,58 @@ import java.util.*;
 @RestController
 public class MetricsController {
 
+    // Windows outside this range are clamped, which also bounds the distinct cache keys
+    static final int MAX_SINCE_MINUTES = 24 * 60;
+
     private final JobRepository jobRepository;
     private final JobMetrics jobMetrics;
-
-    public MetricsController(JobRepository jobRepository, JobMetrics jobMetrics) {
+    private final JobStatusCounts jobStatusCounts;
+    private final JobCompletionBatcher completionBatcher;
+    private final IdempotencyKeyCache idempotencyKeyCache;
+    private final AdmissionController admissionController;
+    private final ObjectProvider<JobDispatcher> jobDispatcher;
+    private final SingleFlightCache<Integer, MetricsResponse> cache;
+
+    public MetricsController(JobRepository jobRepository,
+                             JobMetrics jobMetrics,
+                             JobStatusCounts jobStatusCounts,
+                             JobCompletionBatcher completionBatcher,
+                             IdempotencyKeyCache idempotencyKeyCache,
+                             AdmissionController admissionController,
+                             ObjectProvider<JobDispatcher> jobDispatcher,
+                             ResponseCaches responseCaches) {
         this.jobRepository = jobRepository;
         this.jobMetrics = jobMetrics;
+        this.jobStatusCounts = jobStatusCounts;
+        this.completionBatcher = completionBatcher;
+        this.idempotencyKeyCache = idempotencyKeyCache;
+        this.admissionController = admissionController;
+        this.jobDispatcher = jobDispatcher;
+        this.cache = responseCaches.cache("metrics");
     }
 
     @GetMapping("/metrics")
     public MetricsResponse metrics(@RequestParam(name = "sinceMinutes", required = false, defaultValue = "5") int sinceMinutes) {
+        int window = clampSinceMinutes(sinceMinutes);
+        return cache.get(window, () -> computeMetrics(window));
+    }
+
+    static int clampSinceMinutes(int sinceMinutes) {
+        return Math.min(MAX_SINCE_MINUTES, Math.max(1, sinceMinutes));
+    }
+
+    private MetricsResponse computeMetrics(int sinceMinutes) {
+        // Totals come from the trigger-maintained counters, not a scan of jobs
+        JobStatusCounts.Snapshot counts = jobStatusCounts.snapshot();
+
         // Global counts by status
-        Map<JobStatus, Long> statusCounts = toStatusMap(jobRepository.countJobsByStatus());
+        Map<JobStatus, Long> statusCounts = counts.byStatus();
 
         // Counts by worker + status
-        Map<String, Map<JobStatus, Long>> byWorker = toWorkerMap(jobRepository.countJobsByWorkerAndStatus());
+        Map<String, Map<JobStatus, Long>> byWorker = counts.byWorkerAndStatus();
 
         // Attempt distribution
-        Map<Integer, Long> attemptDist = toAttemptMap(jobRepository.countJobsByAttemptCount());
+        Map<Integer, Long> attemptDist = counts.byAttemptCount();
 
         // Scheduled retries
         long scheduledForRetry = jobRepository.countScheduledForRetry();
@@ -55,8 +97,49 @@ public class MetricsController {
                 scheduledForRetry,
                 recent,
                 processedLastMinute,
+                jobMetrics.getProcessedPerSecond(),
                 failuresByJobType,
-                avgDurationSecondsByJobType
+                jobMetrics.getTimeoutsByJobType(),
+                overdueWorkerThreads(),
+                avgDurationSecondsByJobType,
+                jobMetrics.getExecutionTimeByJobType(),
+                jobMetrics.getQueueWaitByJobType(),
+                new MetricsResponse.CompletionQueue(
+                        completionBatcher.isEnabled(),
+                        completionBatcher.getQueueDepth(),
+                        completionBatcher.getFlushedBatches(),
+                        completionBatcher.getFlushedCompletions(),
+                        completionBatcher.getFailedFlushes(),
+                        completionBatcher.getFlushLatency()
+                ),
+                idempotencyCache(),
+                admission()
+        );
+    }
+
+    // No dispatcher on API-only nodes (atlas.worker.enabled=false).
+    private int overdueWorkerThreads() {
+        JobDispatcher dispatcher = jobDispatcher.getIfAvailable();
+        return dispatcher == null ? 0 : dispatcher.getOverdueThreads();
+    }
+
+    private MetricsResponse.IdempotencyCache idempotencyCache() {
+        IdempotencyKeyCache.Stats stats = idempotencyKeyCache.stats();
+        return new MetricsResponse.IdempotencyCache(stats.hits(), stats.misses(), stats.hitRate(), stats.size());
+    }
+
+    private MetricsResponse.Admission admission() {
+        AdmissionController.Stats stats = admissionController.stats();
+        return new MetricsResponse.Admission(
+                stats.enabled(),
+                stats.queuedJobs(),
+                stats.queuedByJobType(),
+                stats.insertLatencyMs(),
+                stats.claimLatencyMs(),
+                stats.pressure(),
+                stats.admitted(),
+                stats.shed(),
+                stats.shedByJobType()
         );
     }
 
@@ -70,16 +153,6 @@ public class MetricsController {
         return result;
     }
 
-    private Map<Integer, Long> toAttemptMap(List<Object[]> rows) {
-        Map<Integer, Long> result = new LinkedHashMap<>();
-        for (Object[] row : rows) {
-            int attemptCount = ((Number) row[0]).intValue();
-            long count = ((Number) row[1]).longValue();
-            result.put(attemptCount, count);
-        }
-        return result;
-    }
-
     private Map<String, Map<JobStatus, Long>> toWorkerMap(List<WorkerJobCount> rows) {
         Map<String, Map<JobStatus, Long>> result = new LinkedHashMap<>();
         for (WorkerJobCount row : rows) {
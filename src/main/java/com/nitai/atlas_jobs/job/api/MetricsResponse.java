@@ -1,6 +1,7 @@
 package com.nitai.atlas_jobs.job.api;
 
 import com.nitai.atlas_jobs.job.JobStatus;
+import com.nitai.atlas_jobs.job.metrics.LatencySnapshot;
 
 import java.util.Map;
 
@@ -11,12 +12,48 @@ public record MetricsResponse(
         long scheduledForRetry,
         MetricsWindow recent,
         long processedLastMinute,
+        Map<String, Double> processedPerSecond,
         Map<String, Long> failuresByJobType,
-        Map<String, Double> avgDurationSecondsByJobType
+        Map<String, Long> timeoutsByJobType,
+        int overdueWorkerThreads,
+        Map<String, Double> avgDurationSecondsByJobType,
+        Map<String, LatencySnapshot> executionTimeByJobType,
+        Map<String, LatencySnapshot> queueWaitByJobType,
+        CompletionQueue completionQueue,
+        IdempotencyCache idempotencyCache,
+        Admission admission
 ) {
     public record MetricsWindow(
             int sinceMinutes,
             Map<JobStatus, Long> statusCounts,
             Map<String, Map<JobStatus, Long>> byWorker
     ) {}
+
+    public record CompletionQueue(
+            boolean enabled,
+            int depth,
+            long flushedBatches,
+            long flushedCompletions,
+            long failedFlushes,
+            LatencySnapshot flushLatency
+    ) {}
+
+    public record IdempotencyCache(
+            long hits,
+            long misses,
+            double hitRate,
+            int size
+    ) {}
+
+    public record Admission(
+            boolean enabled,
+            long queuedJobs,
+            Map<String, Long> queuedByJobType,
+            double insertLatencyMs,
+            double claimLatencyMs,
+            double pressure,
+            long admitted,
+            long shed,
+            Map<String, Long> shedByJobType
+    ) {}
 }
\ No newline at end of file
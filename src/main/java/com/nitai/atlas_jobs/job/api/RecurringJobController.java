@@ -0,0 +1,63 @@
+package com.nitai.atlas_jobs.job.api;
+
+import com.nitai.atlas_jobs.job.InvalidJobPayloadException;
+import com.nitai.atlas_jobs.job.RecurringJob;
+import com.nitai.atlas_jobs.job.RecurringJobNotFoundException;
+import com.nitai.atlas_jobs.job.RecurringJobService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/recurring-jobs")
+public class RecurringJobController {
+
+    private final RecurringJobService recurringJobService;
+
+    public RecurringJobController(RecurringJobService recurringJobService) {
+        this.recurringJobService = recurringJobService;
+    }
+
+    @PutMapping("/{id}")
+    public RecurringJob upsert(@PathVariable String id, @Valid @RequestBody RecurringJobRequest request) {
+        return recurringJobService.upsert(id, request);
+    }
+
+    @GetMapping
+    public List<RecurringJob> list() {
+        return recurringJobService.list();
+    }
+
+    @GetMapping("/{id}")
+    public RecurringJob get(@PathVariable String id) {
+        return recurringJobService.get(id);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable String id) {
+        recurringJobService.delete(id);
+    }
+
+    @ExceptionHandler(RecurringJobNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public String handleNotFound(RecurringJobNotFoundException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(InvalidJobPayloadException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleInvalid(InvalidJobPayloadException ex) {
+        return ex.getMessage();
+    }
+}
@@ -0,0 +1,49 @@
+package com.nitai.atlas_jobs.job.api;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+public class RecurringJobRequest {
+
+    @NotBlank
+    private String jobType;
+
+    //raw JSON; validated now, encoded again for every occurrence
+    private String payload;
+
+    //six fields, seconds first, e.g. "0 */5 * * * *"
+    @NotBlank
+    private String cron;
+
+    //zone the cron fields are read in; defaults to UTC
+    private String timeZone;
+
+    @Min(CreateJobRequest.MIN_MAX_ATTEMPTS)
+    @Max(CreateJobRequest.MAX_MAX_ATTEMPTS)
+    private Integer maxAttempts;
+
+    @Min(CreateJobRequest.MIN_PRIORITY)
+    @Max(CreateJobRequest.MAX_PRIORITY)
+    private Integer priority;
+
+    private Boolean enabled;
+
+    public RecurringJobRequest() {}
+
+    public String getJobType() { return jobType; }
+    public String getPayload() { return payload; }
+    public String getCron() { return cron; }
+    public String getTimeZone() { return timeZone; }
+    public Integer getMaxAttempts() { return maxAttempts; }
+    public Integer getPriority() { return priority; }
+    public Boolean getEnabled() { return enabled; }
+
+    public void setJobType(String jobType) { this.jobType = jobType; }
+    public void setPayload(String payload) { this.payload = payload; }
+    public void setCron(String cron) { this.cron = cron; }
+    public void setTimeZone(String timeZone) { this.timeZone = timeZone; }
+    public void setMaxAttempts(Integer maxAttempts) { this.maxAttempts = maxAttempts; }
+    public void setPriority(Integer priority) { this.priority = priority; }
+    public void setEnabled(Boolean enabled) { this.enabled = enabled; }
+}
@@ -0,0 +1,27 @@
+package com.nitai.atlas_jobs.job.handler;
+
+import com.nitai.atlas_jobs.job.Job;
+import com.nitai.atlas_jobs.job.payload.FailJobPayload;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FailJobHandler implements JobHandler<FailJobPayload> {
+
+    @Override
+    public String jobType() {
+        return "FAIL_JOB";
+    }
+
+    @Override
+    public Class<FailJobPayload> payloadType() {
+        return FailJobPayload.class;
+    }
+
+    @Override
+    public void execute(Job job, FailJobPayload payload) {
+        String message = (payload.getMessage() == null || payload.getMessage().isBlank())
+                ? "Intentional failure for testing"
+                : payload.getMessage();
+        throw new RuntimeException(message);
+    }
+}
@@ -0,0 +1,42 @@
+package com.nitai.atlas_jobs.job.handler;
+
+import com.nitai.atlas_jobs.job.Job;
+
+import java.time.Duration;
+
+/**
+ * Executes one job type. Every {@code JobHandler} bean is picked up by {@link JobHandlerRegistry};
+ * adding a job type means adding a handler, not touching the service or the worker.
+ *
+ * <p>The payload is bound to {@link #payloadType()} and bean-validated once, on submission;
+ * {@link #execute} receives it bound from the stored form without a second validation. An
+ * empty payload binds to a new instance made by the no-arg constructor.
+ *
+ * @param <P> payload type, a Jackson-bindable bean with a public no-arg constructor
+ */
+public interface JobHandler<P> {
+
+    /**
+     * Value of {@code job_type} this handler owns, e.g. {@code SLEEP_JOB}.
+     */
+    String jobType();
+
+    Class<P> payloadType();
+
+    void execute(Job job, P payload) throws Exception;
+
+    /**
+     * Most jobs of this type one node runs at once; {@code 0} means only the worker pool bounds it.
+     * {@code atlas.worker.type-concurrency} overrides it per node.
+     */
+    default int concurrencyLimit() {
+        return 0;
+    }
+
+    /**
+     * Longest a single attempt should run; {@code null} means no per-type limit.
+     */
+    default Duration timeout() {
+        return null;
+    }
+}
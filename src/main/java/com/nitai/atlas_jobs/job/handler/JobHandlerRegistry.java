@@ -0,0 +1,193 @@
+package com.nitai.atlas_jobs.job.handler;
+
+import com.nitai.atlas_jobs.job.InvalidJobPayloadException;
+import com.nitai.atlas_jobs.job.Job;
+import com.nitai.atlas_jobs.job.payload.PayloadCodec;
+import com.nitai.atlas_jobs.job.payload.PayloadFormat;
+import com.nitai.atlas_jobs.job.payload.StoredPayload;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * All {@link JobHandler} beans, keyed by job type.
+ *
+ * <p>Everything per-type is resolved once at startup: the JSON and Smile {@link ObjectReader}s
+ * bound to the payload class, its no-arg constructor for empty payloads, and whether the class
+ * carries any constraints at all, so unconstrained payloads skip the validator entirely.
+ *
+ * <p>Payloads are validated once, on submission ({@link #preparePayload}); execution binds the
+ * stored form without validating it again.
+ */
+@Component
+public class JobHandlerRegistry {
+
+    private final Map<String, Registration<?>> byType;
+
+    public JobHandlerRegistry(List<JobHandler<?>> handlers,
+                              ObjectMapper objectMapper,
+                              Validator validator,
+                              PayloadCodec payloadCodec) {
+        Map<String, Registration<?>> registrations = new HashMap<>();
+        for (JobHandler<?> handler : handlers) {
+            Registration<?> registration = new Registration<>(handler, objectMapper, validator, payloadCodec);
+            Registration<?> previous = registrations.putIfAbsent(handler.jobType(), registration);
+            if (previous != null) {
+                throw new IllegalStateException("Job type " + handler.jobType() + " is handled by both "
+                        + previous.handler.getClass().getName() + " and " + handler.getClass().getName());
+            }
+        }
+        this.byType = Map.copyOf(registrations);
+    }
+
+    public boolean supports(String jobType) {
+        return jobType != null && byType.containsKey(jobType);
+    }
+
+    /**
+     * Binds and validates {@code payloadJson} for {@code jobType}.
+     *
+     * @throws InvalidJobPayloadException for an unknown type or a payload that does not bind or validate
+     */
+    public Object parsePayload(String jobType, String payloadJson) {
+        return registration(jobType).parse(payloadJson);
+    }
+
+    /**
+     * Validates {@code payloadJson} for {@code jobType} and encodes it in the configured storage format.
+     *
+     * @throws InvalidJobPayloadException for an unknown type or a payload that does not bind or validate
+     */
+    public StoredPayload preparePayload(String jobType, String payloadJson) {
+        return registration(jobType).prepare(payloadJson);
+    }
+
+    /**
+     * Binds the stored payload of a job that was validated on submission.
+     */
+    public Object decodePayload(Job job) {
+        return registration(job.getJobType()).decode(job);
+    }
+
+    public void execute(Job job) throws Exception {
+        registration(job.getJobType()).execute(job);
+    }
+
+    public JobHandler<?> handler(String jobType) {
+        return registration(jobType).handler;
+    }
+
+    /**
+     * Non-zero {@link JobHandler#concurrencyLimit()}s by job type.
+     */
+    public Map<String, Integer> concurrencyLimits() {
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        byType.forEach((type, registration) -> {
+            int limit = registration.handler.concurrencyLimit();
+            if (limit > 0) limits.put(type, limit);
+        });
+        return limits;
+    }
+
+    private Registration<?> registration(String jobType) {
+        Registration<?> registration = jobType == null ? null : byType.get(jobType);
+        if (registration == null) {
+            throw new InvalidJobPayloadException("Unknown job type: " + jobType);
+        }
+        return registration;
+    }
+
+    private static final class Registration<P> {
+
+        private final JobHandler<P> handler;
+        private final ObjectReader reader;
+        private final ObjectReader smileReader;
+        private final Constructor<P> emptyPayload;
+        private final Validator validator;
+        private final boolean constrained;
+        private final PayloadCodec payloadCodec;
+
+        Registration(JobHandler<P> handler, ObjectMapper objectMapper, Validator validator, PayloadCodec payloadCodec) {
+            this.handler = handler;
+            this.reader = objectMapper.readerFor(handler.payloadType());
+            this.smileReader = payloadCodec.smileReaderFor(handler.payloadType());
+            this.payloadCodec = payloadCodec;
+            this.validator = validator;
+            this.constrained = validator.getConstraintsForClass(handler.payloadType()).isBeanConstrained();
+            try {
+                this.emptyPayload = handler.payloadType().getConstructor();
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(
+                        "Payload type " + handler.payloadType().getName() + " needs a public no-arg constructor", e);
+            }
+        }
+
+        P parse(String payloadJson) {
+            P payload = readJson(payloadJson);
+            if (constrained) {
+                validate(payload);
+            }
+            return payload;
+        }
+
+        StoredPayload prepare(String payloadJson) {
+            return payloadCodec.encode(parse(payloadJson), payloadJson);
+        }
+
+        P decode(Job job) {
+            if (job.getPayloadFormat() == PayloadFormat.JSON) {
+                return readJson(job.getPayload());
+            }
+            try {
+                return smileReader.readValue(payloadCodec.openBinary(job.getPayloadFormat(), job.getPayloadBinary()));
+            } catch (Exception e) {
+                throw new InvalidJobPayloadException(
+                        "Unreadable " + job.getPayloadFormat() + " payload for " + handler.jobType() + ": " + e.getMessage(), e);
+            }
+        }
+
+        void execute(Job job) throws Exception {
+            handler.execute(job, decode(job));
+        }
+
+        private P readJson(String payloadJson) {
+            if (payloadJson == null || payloadJson.isBlank()) {
+                return newEmptyPayload();
+            }
+            try {
+                return reader.readValue(payloadJson);
+            } catch (Exception e) {
+                throw new InvalidJobPayloadException(
+                        "Invalid JSON payload for " + handler.jobType() + ": " + e.getMessage(), e);
+            }
+        }
+
+        private void validate(P payload) {
+            Set<ConstraintViolation<P>> violations = validator.validate(payload);
+            if (violations.isEmpty()) return;
+
+            String details = violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .collect(Collectors.joining(", "));
+            throw new InvalidJobPayloadException("Invalid payload for " + handler.jobType() + ": " + details);
+        }
+
+        private P newEmptyPayload() {
+            try {
+                return emptyPayload.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create empty payload for " + handler.jobType(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.nitai.atlas_jobs.job.handler;
+
+import com.nitai.atlas_jobs.job.Job;
+import com.nitai.atlas_jobs.job.payload.SleepJobPayload;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SleepJobHandler implements JobHandler<SleepJobPayload> {
+
+    @Override
+    public String jobType() {
+        return "SLEEP_JOB";
+    }
+
+    @Override
+    public Class<SleepJobPayload> payloadType() {
+        return SleepJobPayload.class;
+    }
+
+    @Override
+    public void execute(Job job, SleepJobPayload payload) throws InterruptedException {
+        int seconds = payload.getSleepSeconds() == null ? 1 : payload.getSleepSeconds();
+        Thread.sleep(seconds * 1000L);
+    }
+}
@@ -0,0 +1,53 @@
+package com.nitai.atlas_jobs.job.metrics;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free exponentially weighted moving average that also decays toward zero while no
+ * samples arrive.
+ *
+ * <p>Each sample moves the average {@code alpha} of the way toward it. Between samples the
+ * average halves every {@code halfLifeMillis}, so a signal that stops being fed (e.g. insert
+ * latency while inserts are being shed because of it) cannot stay high forever.
+ */
+public final class DecayingAverage {
+
+    private final double alpha;
+    private final double decayPerNano;
+    private final LongSupplier clockNanos;
+    private final AtomicReference<Sample> state;
+
+    public DecayingAverage(double alpha, long halfLifeMillis) {
+        this(alpha, halfLifeMillis, System::nanoTime);
+    }
+
+    public DecayingAverage(double alpha, long halfLifeMillis, LongSupplier clockNanos) {
+        this.alpha = Math.min(1.0, Math.max(Double.MIN_NORMAL, alpha));
+        this.decayPerNano = Math.log(2) / (Math.max(1L, halfLifeMillis) * 1_000_000.0);
+        this.clockNanos = clockNanos;
+        this.state = new AtomicReference<>(new Sample(0.0, clockNanos.getAsLong()));
+    }
+
+    public void record(double value) {
+        long now = clockNanos.getAsLong();
+        Sample current;
+        Sample next;
+        do {
+            current = state.get();
+            double decayed = current.valueAt(now, decayPerNano);
+            next = new Sample(decayed + alpha * (value - decayed), now);
+        } while (!state.compareAndSet(current, next));
+    }
+
+    public double value() {
+        return state.get().valueAt(clockNanos.getAsLong(), decayPerNano);
+    }
+
+    private record Sample(double value, long atNanos) {
+        double valueAt(long now, double decayPerNano) {
+            long elapsed = now - atNanos;
+            return elapsed <= 0 ? value : value * Math.exp(-decayPerNano * elapsed);
+        }
+    }
+}
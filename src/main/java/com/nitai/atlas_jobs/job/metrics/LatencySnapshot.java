@@ -0,0 +1,16 @@
+package com.nitai.atlas_jobs.job.metrics;
+
+/**
+ * Percentiles over a histogram window, in milliseconds. Percentiles are accurate to the
+ * bucket width (about 6% of the value).
+ */
+public record LatencySnapshot(
+        long count,
+        double p50Ms,
+        double p90Ms,
+        double p99Ms,
+        double p999Ms,
+        double maxMs
+) {
+    public static final LatencySnapshot EMPTY = new LatencySnapshot(0, 0, 0, 0, 0, 0);
+}
@@ -0,0 +1,100 @@
+package com.nitai.atlas_jobs.job.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free event counter over a sliding time window, queryable over any sub-window
+ * (e.g. 1m/5m/15m rates like a load average).
+ *
+ * <p>Time is cut into buckets of {@code resolutionMillis}. Each bucket cell packs the bucket's
+ * epoch tag (high {@value #TAG_BITS} bits) and its count (low bits) into one {@code long}, so
+ * a stale cell is recognised and reset by the same CAS that increments it. Cells are striped
+ * by thread, so concurrent writers rarely touch the same cache line; each stripe owns a
+ * contiguous run of buckets.
+ */
+public final class SlidingWindowCounter {
+
+    private static final int TAG_BITS = 24;
+    private static final int COUNT_BITS = 64 - TAG_BITS;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final long TAG_MASK = (1L << TAG_BITS) - 1;
+
+    private final long resolutionMillis;
+    private final int bucketsPerStripe;
+    private final int stripeMask;
+    private final AtomicLongArray cells;
+    private final LongSupplier clockMillis;
+
+    public SlidingWindowCounter(long maxWindowMillis, long resolutionMillis) {
+        this(maxWindowMillis, resolutionMillis, Runtime.getRuntime().availableProcessors(), System::currentTimeMillis);
+    }
+
+    SlidingWindowCounter(long maxWindowMillis, long resolutionMillis, int stripes, LongSupplier clockMillis) {
+        this.resolutionMillis = Math.max(1L, resolutionMillis);
+        // One spare bucket so the oldest full bucket of the window is never being reused.
+        this.bucketsPerStripe = (int) Math.max(2L, ceilDiv(maxWindowMillis, this.resolutionMillis) + 1);
+        int stripeCount = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripeMask = stripeCount - 1;
+        this.cells = new AtomicLongArray(stripeCount * bucketsPerStripe);
+        this.clockMillis = clockMillis;
+    }
+
+    public void increment() {
+        add(1L);
+    }
+
+    public void add(long delta) {
+        long epoch = clockMillis.getAsLong() / resolutionMillis;
+        long tag = epoch & TAG_MASK;
+        int index = stripe() * bucketsPerStripe + (int) (epoch % bucketsPerStripe);
+
+        long current;
+        long next;
+        do {
+            current = cells.get(index);
+            long base = (current >>> COUNT_BITS) == tag ? (current & COUNT_MASK) : 0L;
+            next = (tag << COUNT_BITS) | ((base + delta) & COUNT_MASK);
+        } while (!cells.compareAndSet(index, current, next));
+    }
+
+    /**
+     * Events in the last {@code windowMillis}, including the bucket in progress.
+     * Windows longer than the configured maximum are truncated to it.
+     */
+    public long sum(long windowMillis) {
+        long epoch = clockMillis.getAsLong() / resolutionMillis;
+        int buckets = (int) Math.min(bucketsPerStripe - 1L, Math.max(1L, ceilDiv(windowMillis, resolutionMillis)));
+
+        long total = 0;
+        for (int back = 0; back < buckets; back++) {
+            long bucketEpoch = epoch - back;
+            long tag = bucketEpoch & TAG_MASK;
+            int offset = (int) (bucketEpoch % bucketsPerStripe);
+            for (int stripe = 0; stripe <= stripeMask; stripe++) {
+                long cell = cells.get(stripe * bucketsPerStripe + offset);
+                if ((cell >>> COUNT_BITS) == tag) {
+                    total += cell & COUNT_MASK;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Average events per second over the last {@code windowMillis}.
+     */
+    public double ratePerSecond(long windowMillis) {
+        return sum(windowMillis) * 1_000.0 / windowMillis;
+    }
+
+    private int stripe() {
+        long id = Thread.currentThread().getId();
+        // Fibonacci hashing spreads sequential thread ids across stripes.
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & stripeMask;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return (a + b - 1) / b;
+    }
+}
@@ -0,0 +1,124 @@
+package com.nitai.atlas_jobs.job.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free latency histogram over a sliding time window.
+ *
+ * <p>Values (microseconds) go into log-linear buckets: every power of two is split into
+ * {@value #SUB_BUCKETS} equal sub-buckets, so any value is off by at most ~6% and the full
+ * {@code long} range fits in {@value #BUCKETS} counters. The window is a ring of time slots;
+ * a slot is cleared in place when the clock moves onto it again, so {@link #record(long)}
+ * never allocates. Counts landing in a slot while it is being cleared may be lost.
+ */
+public final class WindowedHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final Slot[] slots;
+    private final long slotMillis;
+    private final LongSupplier clockMillis;
+
+    public WindowedHistogram(long windowMillis, int slotCount) {
+        this(windowMillis, slotCount, System::currentTimeMillis);
+    }
+
+    WindowedHistogram(long windowMillis, int slotCount, LongSupplier clockMillis) {
+        int count = Math.max(1, slotCount);
+        this.slots = new Slot[count];
+        for (int i = 0; i < count; i++) {
+            slots[i] = new Slot();
+        }
+        this.slotMillis = Math.max(1L, windowMillis / count);
+        this.clockMillis = clockMillis;
+    }
+
+    public void record(long valueMicros) {
+        long value = Math.max(0L, valueMicros);
+        long epoch = clockMillis.getAsLong() / slotMillis;
+        Slot slot = slots[(int) (epoch % slots.length)];
+
+        long seen = slot.epoch.get();
+        if (seen != epoch) {
+            if (seen > epoch) return; // clock stepped backwards; drop rather than pollute a newer slot
+            if (slot.epoch.compareAndSet(seen, epoch)) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    slot.counts.set(i, 0L);
+                }
+                slot.max.set(0L);
+            }
+        }
+
+        slot.counts.incrementAndGet(bucketIndex(value));
+        slot.max.accumulateAndGet(value, Math::max);
+    }
+
+    public LatencySnapshot snapshot() {
+        long epoch = clockMillis.getAsLong() / slotMillis;
+        long[] merged = new long[BUCKETS];
+        long total = 0;
+        long max = 0;
+        for (Slot slot : slots) {
+            long slotEpoch = slot.epoch.get();
+            if (slotEpoch > epoch || epoch - slotEpoch >= slots.length) continue;
+            for (int i = 0; i < BUCKETS; i++) {
+                long c = slot.counts.get(i);
+                merged[i] += c;
+                total += c;
+            }
+            max = Math.max(max, slot.max.get());
+        }
+        if (total == 0) return LatencySnapshot.EMPTY;
+
+        return new LatencySnapshot(
+                total,
+                toMillis(percentile(merged, total, 0.50, max)),
+                toMillis(percentile(merged, total, 0.90, max)),
+                toMillis(percentile(merged, total, 0.99, max)),
+                toMillis(percentile(merged, total, 0.999, max)),
+                toMillis(max)
+        );
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Midpoint of the values that land in bucket {@code index}.
+     */
+    static long bucketMidpoint(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long lower = ((long) (SUB_BUCKETS + index % SUB_BUCKETS)) << shift;
+        return lower + ((1L << shift) >>> 1);
+    }
+
+    private static long percentile(long[] counts, long total, double quantile, long max) {
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(bucketMidpoint(i), max);
+        }
+        return max;
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1_000.0;
+    }
+
+    private static final class Slot {
+        final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        final AtomicLong epoch = new AtomicLong(-1L);
+        final AtomicLong max = new AtomicLong();
+    }
+}
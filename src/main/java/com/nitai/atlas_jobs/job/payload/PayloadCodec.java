@@ -0,0 +1,81 @@
+package com.nitai.atlas_jobs.job.payload;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes validated payloads for storage and opens stored binary payloads for reading.
+ *
+ * <p>With {@code atlas.jobs.payload.storage-format=SMILE} the bound payload object is written
+ * as Smile, and deflated when the encoding exceeds {@code compression-threshold-bytes}
+ * (kept only if it actually got smaller). {@code JSON} keeps the submitted text unchanged;
+ * Postgres already compresses large TEXT values when it TOASTs them.
+ */
+@Component
+public class PayloadCodec {
+
+    private final SmileMapper smileMapper = SmileMapper.builder().build();
+    private final PayloadFormat storageFormat;
+    private final int compressionThresholdBytes;
+
+    public PayloadCodec(@Value("${atlas.jobs.payload.storage-format:JSON}") String storageFormat,
+                        @Value("${atlas.jobs.payload.compression-threshold-bytes:1024}") int compressionThresholdBytes) {
+        this.storageFormat = PayloadFormat.valueOf(storageFormat.trim().toUpperCase(Locale.ROOT));
+        if (this.storageFormat == PayloadFormat.SMILE_DEFLATE) {
+            throw new IllegalArgumentException(
+                    "atlas.jobs.payload.storage-format must be JSON or SMILE; compression follows the threshold");
+        }
+        this.compressionThresholdBytes = Math.max(0, compressionThresholdBytes);
+    }
+
+    public StoredPayload encode(Object payload, String payloadJson) {
+        if (storageFormat == PayloadFormat.JSON || payloadJson == null || payloadJson.isBlank()) {
+            return StoredPayload.json(payloadJson);
+        }
+
+        byte[] smile = smileMapper.writeValueAsBytes(payload);
+        if (smile.length > compressionThresholdBytes) {
+            byte[] deflated = deflate(smile);
+            if (deflated.length < smile.length) {
+                return new StoredPayload(PayloadFormat.SMILE_DEFLATE, null, deflated);
+            }
+        }
+        return new StoredPayload(PayloadFormat.SMILE, null, smile);
+    }
+
+    public ObjectReader smileReaderFor(Class<?> payloadType) {
+        return smileMapper.readerFor(payloadType);
+    }
+
+    /**
+     * Smile bytes of a {@link PayloadFormat#SMILE} or {@link PayloadFormat#SMILE_DEFLATE} payload.
+     */
+    public InputStream openBinary(PayloadFormat format, byte[] binary) {
+        InputStream raw = new ByteArrayInputStream(binary);
+        return format == PayloadFormat.SMILE_DEFLATE ? new InflaterInputStream(raw) : raw;
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream stream = new DeflaterOutputStream(out, deflater)) {
+            stream.write(bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Deflating payload failed", e);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+}
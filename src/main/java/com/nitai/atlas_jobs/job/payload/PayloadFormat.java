@@ -0,0 +1,13 @@
+package com.nitai.atlas_jobs.job.payload;
+
+/**
+ * How a job's payload is stored, kept in {@code jobs.payload_format}.
+ */
+public enum PayloadFormat {
+    /** Submitted JSON text in {@code payload}. */
+    JSON,
+    /** Jackson Smile encoding of the validated payload in {@code payload_bin}. */
+    SMILE,
+    /** Smile, then deflated, in {@code payload_bin}. */
+    SMILE_DEFLATE
+}
@@ -0,0 +1,12 @@
+package com.nitai.atlas_jobs.job.payload;
+
+/**
+ * A validated payload in its stored form: {@code text} for {@link PayloadFormat#JSON},
+ * {@code binary} otherwise.
+ */
+public record StoredPayload(PayloadFormat format, String text, byte[] binary) {
+
+    public static StoredPayload json(String text) {
+        return new StoredPayload(PayloadFormat.JSON, text, null);
+    }
+}
@@ -0,0 +1,157 @@
+package com.nitai.atlas_jobs.web;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory {@link RateLimiter}; every node enforces each limit on its own.
+ *
+ * <p>Each limit is a token bucket of {@code per-minute} permits refilled continuously, kept as a
+ * GCRA: the only state per client is its theoretical arrival time (TAT), one {@code long}
+ * updated by CAS. A burst can never exceed the bucket, unlike a fixed window that allows twice
+ * the limit across a window edge, and a hot client costs a CAS, not a lock.
+ *
+ * <p>A client whose TAT has passed has a full bucket, which is exactly what a missing entry
+ * means, so idle clients are evicted without changing any decision. At most
+ * {@code max-clients} keys are tracked per bucket; once full, unknown clients share one
+ * overflow key, so spoofed {@code X-Forwarded-For} values cannot grow memory without bound.
+ * A full map is swept from the request path at most once per emission interval; in between,
+ * unknown clients go straight to the overflow key instead of each paying for a scan.
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    static final String OVERFLOW_KEY = "__overflow__";
+
+    private static final long WINDOW_NANOS = 60_000_000_000L;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    // Marks a cell removed by eviction; acquirers that see it start over with a fresh cell.
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    private final Limit jobs;
+    private final Limit requeue;
+    private final int maxClients;
+    private final LongSupplier clockNanos;
+
+    public LocalRateLimiter(long jobsPerMinute, long requeuePerMinute, int maxClients) {
+        this(jobsPerMinute, requeuePerMinute, maxClients, System::nanoTime);
+    }
+
+    LocalRateLimiter(long jobsPerMinute, long requeuePerMinute, int maxClients, LongSupplier clockNanos) {
+        this.clockNanos = clockNanos;
+        this.maxClients = Math.max(1, maxClients);
+        this.jobs = new Limit(jobsPerMinute);
+        this.requeue = new Limit(requeuePerMinute);
+    }
+
+    @Override
+    public Decision acquire(Bucket bucket, String key, long permits) {
+        return limit(bucket).acquire(key, Math.max(0L, permits));
+    }
+
+    /**
+     * Drops clients whose bucket has refilled.
+     */
+    @Scheduled(fixedDelayString = "${atlas.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleClients() {
+        jobs.evictIdle();
+        requeue.evictIdle();
+    }
+
+    int trackedClients(Bucket bucket) {
+        return limit(bucket).cells.size();
+    }
+
+    private Limit limit(Bucket bucket) {
+        return bucket == Bucket.JOBS ? jobs : requeue;
+    }
+
+    private final class Limit {
+
+        private final long perMinute;
+        // Time one permit takes to refill, and the time a full bucket takes.
+        private final long intervalNanos;
+        private final long capacityNanos;
+        private final ConcurrentHashMap<String, AtomicLong> cells = new ConcurrentHashMap<>();
+        private final AtomicBoolean evicting = new AtomicBoolean();
+        private final AtomicLong lastInlineSweepNanos;
+
+        Limit(long perMinute) {
+            this.perMinute = Math.max(0L, perMinute);
+            this.intervalNanos = this.perMinute == 0 ? 0L : Math.max(1L, WINDOW_NANOS / this.perMinute);
+            this.capacityNanos = this.perMinute * intervalNanos;
+            this.lastInlineSweepNanos = new AtomicLong(clockNanos.getAsLong() - intervalNanos);
+        }
+
+        Decision acquire(String key, long permits) {
+            if (perMinute == 0) {
+                return new Decision(0, 0, 0, 0, WINDOW_NANOS / NANOS_PER_SECOND);
+            }
+            while (true) {
+                AtomicLong cell = cell(key);
+                long now = clockNanos.getAsLong();
+                long tat = cell.get();
+                if (tat == EVICTED) {
+                    cells.remove(key, cell);
+                    continue;
+                }
+
+                long start = Math.max(tat, now);
+                long available = (capacityNanos - (start - now)) / intervalNanos;
+                long granted = Math.min(permits, Math.max(0L, available));
+                long next = start + granted * intervalNanos;
+                if (granted > 0 && !cell.compareAndSet(tat, next)) continue;
+
+                long backlog = next - now;
+                return new Decision(granted, perMinute, (capacityNanos - backlog) / intervalNanos,
+                        ceilSeconds(backlog), ceilSeconds(backlog + intervalNanos - capacityNanos));
+            }
+        }
+
+        private AtomicLong cell(String key) {
+            AtomicLong cell = cells.get(key);
+            if (cell != null) return cell;
+
+            if (cells.size() >= maxClients) {
+                if (inlineSweepDue()) evictIdle();
+                if (cells.size() >= maxClients) {
+                    key = OVERFLOW_KEY;
+                }
+            }
+            // A TAT of "now" is a full bucket.
+            return cells.computeIfAbsent(key, k -> new AtomicLong(clockNanos.getAsLong()));
+        }
+
+        // No cell can refill sooner than one interval after the last sweep, so sweeping more often
+        // only rescans the same cells. One caller per interval wins the CAS and does the scan.
+        private boolean inlineSweepDue() {
+            long last = lastInlineSweepNanos.get();
+            long now = clockNanos.getAsLong();
+            return now - last >= intervalNanos && lastInlineSweepNanos.compareAndSet(last, now);
+        }
+
+        void evictIdle() {
+            // One sweep at a time; a caller that finds one running goes ahead with the overflow key.
+            if (!evicting.compareAndSet(false, true)) return;
+            try {
+                long now = clockNanos.getAsLong();
+                cells.forEach((key, cell) -> {
+                    long tat = cell.get();
+                    if (tat != EVICTED && tat - now <= 0 && cell.compareAndSet(tat, EVICTED)) {
+                        cells.remove(key, cell);
+                    }
+                });
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    private static long ceilSeconds(long nanos) {
+        if (nanos <= 0) return 0L;
+        return (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+    }
+}
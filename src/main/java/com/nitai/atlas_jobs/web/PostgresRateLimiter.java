@@ -0,0 +1,266 @@
+package com.nitai.atlas_jobs.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Cluster-wide {@link RateLimiter}: every node sharing the database draws from one GCRA per
+ * client in {@code rate_limit_buckets}.
+ *
+ * <p>Requests are served from a local allowance of permits, a CAS decrement in memory. When a
+ * client's allowance runs out, one thread for that client leases what it needs plus
+ * {@code lease-size} more in a single upsert, so the database sees one round trip per batch,
+ * not per request. Leased permits expire after {@code lease-ttl-ms}; unused ones are simply
+ * lost, so the cluster can only undershoot the limit by them. It can overshoot by at most
+ * {@code lease-size} per node, the permits leased but not yet spent when the bucket empties.
+ *
+ * <p>The lease round trip runs without holding any lock; other threads of the same client
+ * wait for it on a future and then reuse what it leased. If the database cannot be reached the
+ * node falls back to its own {@link LocalRateLimiter}, i.e. to per-node limits, and stops
+ * calling the database for {@code db-backoff-ms}, so an outage costs one failed round trip per
+ * back-off period, not one per request.
+ */
+public class PostgresRateLimiter implements RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresRateLimiter.class);
+
+    private static final long WINDOW_MICROS = 60_000_000L;
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final long FALLBACK_WARN_INTERVAL_NANOS = 60_000_000_000L;
+
+    private final RateLimitLeaseRepository repository;
+    private final LocalRateLimiter fallback;
+    private final Map<Bucket, Limit> limits = new EnumMap<>(Bucket.class);
+    private final long leaseSize;
+    private final long leaseTtlNanos;
+    private final int maxClients;
+    private final long dbBackoffNanos;
+    private final LongSupplier clockNanos;
+    private final AtomicLong lastFallbackWarnNanos;
+    private volatile long dbRetryAtNanos;
+
+    public PostgresRateLimiter(RateLimitLeaseRepository repository,
+                               LocalRateLimiter fallback,
+                               long jobsPerMinute,
+                               long requeuePerMinute,
+                               int maxClients,
+                               long leaseSize,
+                               long leaseTtlMs,
+                               long dbBackoffMs) {
+        this(repository, fallback, jobsPerMinute, requeuePerMinute, maxClients, leaseSize, leaseTtlMs, dbBackoffMs,
+                System::nanoTime);
+    }
+
+    PostgresRateLimiter(RateLimitLeaseRepository repository,
+                        LocalRateLimiter fallback,
+                        long jobsPerMinute,
+                        long requeuePerMinute,
+                        int maxClients,
+                        long leaseSize,
+                        long leaseTtlMs,
+                        long dbBackoffMs,
+                        LongSupplier clockNanos) {
+        this.repository = repository;
+        this.fallback = fallback;
+        this.limits.put(Bucket.JOBS, new Limit(jobsPerMinute));
+        this.limits.put(Bucket.REQUEUE, new Limit(requeuePerMinute));
+        this.leaseSize = Math.max(0L, leaseSize);
+        this.leaseTtlNanos = Math.max(1L, leaseTtlMs) * 1_000_000L;
+        this.maxClients = Math.max(1, maxClients);
+        this.dbBackoffNanos = Math.max(0L, dbBackoffMs) * 1_000_000L;
+        this.clockNanos = clockNanos;
+        this.lastFallbackWarnNanos = new AtomicLong(clockNanos.getAsLong() - FALLBACK_WARN_INTERVAL_NANOS);
+        this.dbRetryAtNanos = clockNanos.getAsLong();
+    }
+
+    @Override
+    public Decision acquire(Bucket bucket, String key, long permits) {
+        Limit limit = limits.get(bucket);
+        if (limit.perMinute == 0) {
+            return new Decision(0, 0, 0, 0, WINDOW_MICROS / MICROS_PER_SECOND);
+        }
+        long wanted = Math.max(0L, permits);
+        Allowance allowance = limit.allowance(key);
+        long now = clockNanos.getAsLong();
+        long granted = allowance.take(wanted, now);
+        // A client the shared bucket just refused is refused locally until its next permit is due,
+        // so a rejected client hammering the API costs no database round trips.
+        while (granted < wanted && !allowance.denied(now)) {
+            if (now - dbRetryAtNanos < 0) {
+                return fallback(bucket, key, wanted, granted);
+            }
+            // One thread per client goes to the database; the others wait and reuse its lease.
+            CompletableFuture<Void> leasing = new CompletableFuture<>();
+            CompletableFuture<Void> inFlight = allowance.leasing.compareAndExchange(null, leasing);
+            if (inFlight != null) {
+                inFlight.join();
+            } else {
+                try {
+                    RateLimitLeaseRepository.Lease lease = repository.lease(bucket.name(), allowance.key,
+                            wanted - granted + leaseSize, limit.intervalMicros, limit.capacityMicros);
+                    long forCaller = Math.min(wanted - granted, lease.granted());
+                    granted += forCaller;
+                    long deniedMicros = granted < wanted
+                            ? lease.backlogMicros() + limit.intervalMicros - limit.capacityMicros : 0L;
+                    allowance.refill(lease.granted() - forCaller, lease.backlogMicros(), deniedMicros,
+                            clockNanos.getAsLong(), leaseTtlNanos);
+                    break;
+                } catch (DataAccessException e) {
+                    dbRetryAtNanos = clockNanos.getAsLong() + dbBackoffNanos;
+                    warnFallback(e);
+                    return fallback(bucket, key, wanted, granted);
+                } finally {
+                    allowance.leasing.set(null);
+                    leasing.complete(null);
+                }
+            }
+            now = clockNanos.getAsLong();
+            granted += allowance.take(wanted - granted, now);
+        }
+        return limit.decision(allowance, granted, clockNanos.getAsLong());
+    }
+
+    private Decision fallback(Bucket bucket, String key, long wanted, long granted) {
+        Decision local = fallback.acquire(bucket, key, wanted - granted);
+        return new Decision(granted + local.granted(), local.limit(), local.remaining(),
+                local.resetSeconds(), local.retryAfterSeconds());
+    }
+
+    /**
+     * Drops expired local allowances and shared rows whose bucket has refilled.
+     */
+    @Scheduled(fixedDelayString = "${atlas.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleClients() {
+        long now = clockNanos.getAsLong();
+        for (Limit limit : limits.values()) {
+            limit.evictExpired(now);
+        }
+        fallback.evictIdleClients();
+        try {
+            repository.deleteRefilled();
+        } catch (DataAccessException e) {
+            log.warn("Could not delete refilled rate-limit rows", e);
+        }
+    }
+
+    private void warnFallback(DataAccessException e) {
+        long now = clockNanos.getAsLong();
+        long last = lastFallbackWarnNanos.get();
+        if (now - last >= FALLBACK_WARN_INTERVAL_NANOS && lastFallbackWarnNanos.compareAndSet(last, now)) {
+            log.warn("Leasing rate-limit permits failed; enforcing per-node limits for {} ms before retrying",
+                    dbBackoffNanos / 1_000_000L, e);
+        }
+    }
+
+    private final class Limit {
+
+        private final long perMinute;
+        private final long intervalMicros;
+        private final long capacityMicros;
+        private final ConcurrentHashMap<String, Allowance> allowances = new ConcurrentHashMap<>();
+
+        Limit(long perMinute) {
+            this.perMinute = Math.max(0L, perMinute);
+            this.intervalMicros = this.perMinute == 0 ? 0L : Math.max(1L, WINDOW_MICROS / this.perMinute);
+            this.capacityMicros = this.perMinute * intervalMicros;
+        }
+
+        Allowance allowance(String key) {
+            Allowance allowance = allowances.get(key);
+            if (allowance != null) return allowance;
+
+            if (allowances.size() >= maxClients) {
+                evictExpired(clockNanos.getAsLong());
+                if (allowances.size() >= maxClients) {
+                    key = LocalRateLimiter.OVERFLOW_KEY;
+                }
+            }
+            return allowances.computeIfAbsent(key, Allowance::new);
+        }
+
+        // A removed allowance still in use only loses its leftover permits, never grants extra.
+        void evictExpired(long now) {
+            allowances.values().removeIf(allowance -> allowance.expired(now));
+        }
+
+        Decision decision(Allowance allowance, long granted, long now) {
+            long backlog = allowance.backlogMicros(now);
+            long remaining = Math.max(0L, allowance.permits.get()) + Math.max(0L, (capacityMicros - backlog) / intervalMicros);
+            long retryAfter = remaining > 0 ? 0L : ceilSeconds(backlog + intervalMicros - capacityMicros);
+            return new Decision(granted, perMinute, remaining, ceilSeconds(backlog), retryAfter);
+        }
+    }
+
+    /**
+     * Permits this node has leased for one client and not yet spent.
+     */
+    private static final class Allowance {
+
+        // The shared row this allowance leases from; the overflow key once max-clients is reached.
+        final String key;
+        final AtomicLong permits = new AtomicLong();
+        // The lease round trip in progress for this client, if any.
+        final AtomicReference<CompletableFuture<Void>> leasing = new AtomicReference<>();
+        private volatile long expiresAtNanos;
+        private volatile long backlogMicros;
+        private volatile long leasedAtNanos;
+        private volatile long deniedUntilNanos;
+        private volatile boolean leased;
+
+        Allowance(String key) {
+            this.key = key;
+        }
+
+        long take(long wanted, long now) {
+            if (wanted == 0 || expired(now)) return 0L;
+            while (true) {
+                long current = permits.get();
+                if (current <= 0) return 0L;
+                long taken = Math.min(wanted, current);
+                if (permits.compareAndSet(current, current - taken)) return taken;
+            }
+        }
+
+        // Called only by the thread holding the lease slot. Permits first: a reader that still sees
+        // the old expiry treats the new permits as expired, which only errs on the strict side.
+        void refill(long extra, long backlogMicros, long deniedMicros, long now, long ttlNanos) {
+            permits.set(extra);
+            this.backlogMicros = backlogMicros;
+            this.deniedUntilNanos = now + Math.max(0L, deniedMicros) * 1_000L;
+            this.leasedAtNanos = now;
+            this.expiresAtNanos = now + ttlNanos;
+            this.leased = true;
+        }
+
+        boolean denied(long now) {
+            return leased && now - deniedUntilNanos < 0;
+        }
+
+        boolean expired(long now) {
+            return !leased || now - expiresAtNanos >= 0;
+        }
+
+        /**
+         * The shared bucket's backlog as of the last lease, aged by the time since.
+         */
+        long backlogMicros(long now) {
+            if (!leased) return 0L;
+            return Math.max(0L, backlogMicros - (now - leasedAtNanos) / 1_000L);
+        }
+    }
+
+    private static long ceilSeconds(long micros) {
+        if (micros <= 0) return 0L;
+        return (micros + MICROS_PER_SECOND - 1) / MICROS_PER_SECOND;
+    }
+}
@@ -0,0 +1,61 @@
+package com.nitai.atlas_jobs.web;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Leases permits from the shared GCRA rows in {@code rate_limit_buckets}. Time is the
+ * database's, so clock skew between nodes does not matter.
+ */
+@Repository
+public class RateLimitLeaseRepository {
+
+    /**
+     * {@code granted} permits were taken; {@code backlogMicros} is how far the bucket's TAT now
+     * lies ahead of the database clock (0 = full, the bucket's capacity = empty).
+     */
+    public record Lease(long granted, long backlogMicros) {}
+
+    private static final String NOW_US = "(extract(epoch FROM now()) * 1000000)::bigint";
+    private static final String START_US = "GREATEST(b.tat_us, " + NOW_US + ")";
+    private static final String GRANT = "LEAST(:want, GREATEST(0, (:capacity - (" + START_US + " - " + NOW_US + ")) / :interval))";
+
+    private static final String LEASE_SQL = """
+            INSERT INTO rate_limit_buckets AS b (bucket, client_key, tat_us, last_granted)
+            VALUES (:bucket, :key,
+                    %1$s + LEAST(:want, :capacity / :interval) * :interval,
+                    LEAST(:want, :capacity / :interval))
+            ON CONFLICT (bucket, client_key) DO UPDATE
+            SET tat_us = %2$s + %3$s * :interval,
+                last_granted = %3$s
+            RETURNING last_granted, tat_us - %1$s
+            """.formatted(NOW_US, START_US, GRANT);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public RateLimitLeaseRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Takes up to {@code want} permits from the client's shared bucket in one upsert.
+     */
+    public Lease lease(String bucket, String key, long want, long intervalMicros, long capacityMicros) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("bucket", bucket)
+                .addValue("key", key)
+                .addValue("want", want)
+                .addValue("interval", intervalMicros)
+                .addValue("capacity", capacityMicros);
+        return jdbcTemplate.queryForObject(LEASE_SQL, params, (rs, i) -> new Lease(rs.getLong(1), rs.getLong(2)));
+    }
+
+    /**
+     * Deletes rows whose bucket has refilled; they carry no state a missing row would not.
+     */
+    public int deleteRefilled() {
+        return jdbcTemplate.getJdbcTemplate().update("DELETE FROM rate_limit_buckets WHERE tat_us <= " + NOW_US);
+    }
+}
@@ -0,0 +1,50 @@
+package com.nitai.atlas_jobs.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Per-client limits, shared by {@link RateLimitingFilter} and endpoints that charge more than
+ * one permit per request (e.g. one per item of a batch).
+ *
+ * <p>{@code atlas.rate-limit.mode} picks the implementation: {@link LocalRateLimiter} enforces
+ * each limit per node, {@link PostgresRateLimiter} across every node sharing the database.
+ */
+public interface RateLimiter {
+
+    enum Bucket {
+        JOBS,
+        REQUEUE
+    }
+
+    /**
+     * The outcome of one acquire. {@code remaining} is what is left after it,
+     * {@code resetSeconds} the time until the bucket is full again and {@code retryAfterSeconds}
+     * the time until the next permit after this acquire (0 when one is left).
+     */
+    record Decision(long granted, long limit, long remaining, long resetSeconds, long retryAfterSeconds) {}
+
+    /**
+     * Takes up to {@code permits} from the client's bucket; the decision carries what the
+     * {@code RateLimit-*} and {@code Retry-After} headers need.
+     */
+    Decision acquire(Bucket bucket, String key, long permits);
+
+    default boolean isRateLimited(Bucket bucket, String key) {
+        return acquire(bucket, key, 1).granted() == 0;
+    }
+
+    /**
+     * Takes up to {@code permits} from the client's bucket and returns how many were granted.
+     */
+    default long acquireUpTo(Bucket bucket, String key, long permits) {
+        return acquire(bucket, key, permits).granted();
+    }
+
+    default String resolveClientKey(HttpServletRequest request) {
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded != null && !forwarded.isBlank()) {
+            return forwarded.split(",")[0].trim();
+        }
+        return request.getRemoteAddr();
+    }
+}
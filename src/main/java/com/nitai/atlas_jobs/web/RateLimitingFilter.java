@@ -4,7 +4,6 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
@@ -12,27 +11,27 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.Set;
+
+/**
+ * Charges one permit per request. {@code POST /jobs/batch} is not limited here: the batch
+ * endpoint charges one permit per item once it has read the body.
+ *
+ * <p>Limited requests carry {@code RateLimit-Limit}, {@code RateLimit-Remaining} and
+ * {@code RateLimit-Reset} (seconds until the bucket is full); rejections add {@code Retry-After}.
+ */
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE)
 @ConditionalOnProperty(name = "atlas.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
 public class RateLimitingFilter extends OncePerRequestFilter {
 
-    private static final long WINDOW_MS = 60_000L;
-
-    private final long jobsPerMinute;
-    private final long requeuePerMinute;
+    // Listed one by one so a new POST under /dead-letter/ is not limited as a requeue by accident.
+    private static final Set<String> REQUEUE_PATHS = Set.of("/dead-letter/retry", "/dead-letter/bulk-requeue");
 
-    private final ConcurrentHashMap<String, Counter> jobsCounters = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Counter> requeueCounters = new ConcurrentHashMap<>();
+    private final RateLimiter rateLimiter;
 
-    public RateLimitingFilter(
-            @Value("${atlas.rate-limit.jobs-per-minute:60}") long jobsPerMinute,
-            @Value("${atlas.rate-limit.requeue-per-minute:30}") long requeuePerMinute
-    ) {
-        this.jobsPerMinute = jobsPerMinute;
-        this.requeuePerMinute = requeuePerMinute;
+    public RateLimitingFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
     }
 
     @Override
@@ -45,42 +44,28 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         }
 
         String path = request.getRequestURI();
-        String key = resolveClientKey(request);
+        String key = rateLimiter.resolveClientKey(request);
 
         if ("/jobs".equals(path)) {
-            if (isRateLimited(jobsCounters, key, jobsPerMinute)) {
-                reject(response, "Rate limit exceeded for POST /jobs");
-                return;
-            }
-        } else if (path.endsWith("/requeue") || "/dead-letter/retry".equals(path)) {
-            if (isRateLimited(requeueCounters, key, requeuePerMinute)) {
-                reject(response, "Rate limit exceeded for requeue");
-                return;
-            }
+            if (!admit(RateLimiter.Bucket.JOBS, key, response, "Rate limit exceeded for POST /jobs")) return;
+        } else if (path.endsWith("/requeue") || REQUEUE_PATHS.contains(path)) {
+            if (!admit(RateLimiter.Bucket.REQUEUE, key, response, "Rate limit exceeded for requeue")) return;
         }
 
         chain.doFilter(request, response);
     }
 
-    private boolean isRateLimited(ConcurrentHashMap<String, Counter> counters, String key, long limit) {
-        long now = System.currentTimeMillis();
-        Counter bucket = counters.computeIfAbsent(key, k -> new Counter(now));
-        synchronized (bucket) {
-            if (now - bucket.windowStartMs >= WINDOW_MS) {
-                bucket.windowStartMs = now;
-                bucket.count = 0;
-            }
-            bucket.count++;
-            return bucket.count > limit;
-        }
-    }
-
-    private String resolveClientKey(HttpServletRequest request) {
-        String forwarded = request.getHeader("X-Forwarded-For");
-        if (forwarded != null && !forwarded.isBlank()) {
-            return forwarded.split(",")[0].trim();
-        }
-        return request.getRemoteAddr();
+    private boolean admit(RateLimiter.Bucket bucket, String key, HttpServletResponse response, String message)
+            throws IOException {
+        RateLimiter.Decision decision = rateLimiter.acquire(bucket, key, 1);
+        response.setHeader("RateLimit-Limit", Long.toString(decision.limit()));
+        response.setHeader("RateLimit-Remaining", Long.toString(decision.remaining()));
+        response.setHeader("RateLimit-Reset", Long.toString(decision.resetSeconds()));
+        if (decision.granted() > 0) return true;
+
+        response.setHeader("Retry-After", Long.toString(Math.max(1L, decision.retryAfterSeconds())));
+        reject(response, message);
+        return false;
     }
 
     private void reject(HttpServletResponse response, String message) throws IOException {
@@ -88,14 +73,4 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         response.setContentType("text/plain");
         response.getWriter().write(message);
     }
-
-    private static class Counter {
-        long windowStartMs;
-        long count;
-
-        Counter(long windowStartMs) {
-            this.windowStartMs = windowStartMs;
-            this.count = 0;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package com.nitai.atlas_jobs.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named {@link SingleFlightCache}s for the read-only monitoring endpoints, so a burst of
+ * scrapes costs one database evaluation per key and TTL.
+ */
+@Component
+public class ResponseCaches {
+
+    private final long ttlMs;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, SingleFlightCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    public ResponseCaches(
+            @Value("${atlas.metrics.cache.ttl-ms:2000}") long ttlMs,
+            @Value("${atlas.metrics.cache.max-entries:64}") int maxEntries
+    ) {
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <K, V> SingleFlightCache<K, V> cache(String name) {
+        return (SingleFlightCache<K, V>) caches.computeIfAbsent(name, n -> new SingleFlightCache<>(ttlMs, maxEntries));
+    }
+
+    public Map<String, SingleFlightCache.Stats> stats() {
+        Map<String, SingleFlightCache.Stats> result = new TreeMap<>();
+        caches.forEach((name, cache) -> result.put(name, cache.stats()));
+        return result;
+    }
+}
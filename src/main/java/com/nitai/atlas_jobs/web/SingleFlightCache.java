@@ -0,0 +1,108 @@
+package com.nitai.atlas_jobs.web;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caches each key's value for a fixed TTL and coalesces concurrent loads: while one caller
+ * computes a key, everyone else asking for it waits for that result instead of loading again.
+ * Failed loads, including ones that throw an {@link Error}, are not cached. Past
+ * {@code maxEntries} expired entries are dropped first, then the oldest loaded ones.
+ */
+public class SingleFlightCache<K, V> {
+
+    public record Stats(long hits, long misses, long coalesced, int size) {}
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlightCache(long ttlMs, int maxEntries) {
+        this.ttlNanos = Math.max(0L, ttlMs) * 1_000_000L;
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        long now = System.nanoTime();
+        Entry<V> mine = new Entry<>();
+        Entry<V> current = entries.compute(key, (k, existing) ->
+                (existing != null && existing.isUsable(now)) ? existing : mine);
+
+        if (current != mine) {
+            if (current.future.isDone()) {
+                hits.increment();
+            } else {
+                coalesced.increment();
+            }
+            return await(current.future);
+        }
+
+        misses.increment();
+        evictExpiredIfFull(now);
+        try {
+            V value = loader.get();
+            mine.expiresAtNanos = System.nanoTime() + ttlNanos;
+            mine.future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Errors too: a future left incomplete would block every later caller for the key.
+            entries.remove(key, mine);
+            mine.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), coalesced.sum(), entries.size());
+    }
+
+    private void evictExpiredIfFull(long now) {
+        if (entries.size() <= maxEntries) return;
+        entries.values().removeIf(entry -> entry.future.isDone() && !entry.isUsable(now));
+        while (entries.size() > maxEntries) {
+            if (!evictOldest()) return;
+        }
+    }
+
+    // Every entry shares the TTL, so the earliest expiry is the oldest load
+    private boolean evictOldest() {
+        Map.Entry<K, Entry<V>> oldest = null;
+        for (Map.Entry<K, Entry<V>> candidate : entries.entrySet()) {
+            // In-flight loads stay so their waiters keep coalescing
+            if (!candidate.getValue().future.isDone()) continue;
+            if (oldest == null || candidate.getValue().expiresAtNanos - oldest.getValue().expiresAtNanos < 0) {
+                oldest = candidate;
+            }
+        }
+        return oldest != null && entries.remove(oldest.getKey(), oldest.getValue());
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+    private static final class Entry<V> {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        // Set before the future completes; an in-flight entry is always usable so callers join it.
+        volatile long expiresAtNanos;
+
+        boolean isUsable(long now) {
+            if (!future.isDone()) return true;
+            return !future.isCompletedExceptionally() && now - expiresAtNanos < 0;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+-- Terminal jobs past the retention window are moved here by JobArchiver.
+-- Columns mirror jobs in the same order; a migration that adds a column to jobs
+-- must add it here as well.
+CREATE TABLE jobs_archive (LIKE jobs INCLUDING DEFAULTS);
+
+ALTER TABLE jobs_archive ADD PRIMARY KEY (job_id);
+ALTER TABLE jobs_archive ADD COLUMN archived_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+CREATE INDEX ix_jobs_archive_archived_at
+    ON jobs_archive(archived_at);
+
+--index for archiver scans of old terminal jobs
+CREATE INDEX ix_jobs_terminal_updated_at
+    ON jobs(updated_at)
+    WHERE status IN ('SUCCEEDED', 'DEAD_LETTERED');
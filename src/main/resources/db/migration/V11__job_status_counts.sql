@@ -0,0 +1,75 @@
+-- Job counts by (status, worker, attempt_count), kept current by statement-level
+-- triggers so /metrics never has to GROUP BY the jobs table.
+--
+-- Writers only append to job_status_count_deltas (no hot rows to contend on);
+-- JobStatusCounts periodically folds the deltas into job_status_counts. Readers
+-- sum both tables, so counts are exact between rollups.
+
+CREATE TABLE job_status_counts (
+    status VARCHAR(32) NOT NULL,
+    worker_id VARCHAR(64) NOT NULL,
+    attempt_count INT NOT NULL,
+    job_count BIGINT NOT NULL,
+    PRIMARY KEY (status, worker_id, attempt_count)
+);
+
+CREATE TABLE job_status_count_deltas (
+    delta_id BIGSERIAL PRIMARY KEY,
+    status VARCHAR(32) NOT NULL,
+    worker_id VARCHAR(64) NOT NULL,
+    attempt_count INT NOT NULL,
+    delta BIGINT NOT NULL
+);
+
+CREATE FUNCTION jobs_record_count_deltas() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO job_status_count_deltas (status, worker_id, attempt_count, delta)
+        SELECT status, COALESCE(worker_id, 'unassigned'), attempt_count, COUNT(*)
+        FROM new_rows
+        GROUP BY 1, 2, 3;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO job_status_count_deltas (status, worker_id, attempt_count, delta)
+        SELECT status, COALESCE(worker_id, 'unassigned'), attempt_count, -COUNT(*)
+        FROM old_rows
+        GROUP BY 1, 2, 3;
+    ELSE
+        -- Updates that leave all three keys alone (lease renewals, touches) net to zero.
+        INSERT INTO job_status_count_deltas (status, worker_id, attempt_count, delta)
+        SELECT status, worker_id, attempt_count, SUM(d)
+        FROM (
+            SELECT status, COALESCE(worker_id, 'unassigned') AS worker_id, attempt_count, -1 AS d FROM old_rows
+            UNION ALL
+            SELECT status, COALESCE(worker_id, 'unassigned'), attempt_count, 1 FROM new_rows
+        ) changes
+        GROUP BY 1, 2, 3
+        HAVING SUM(d) <> 0;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_jobs_count_insert
+    AFTER INSERT ON jobs
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION jobs_record_count_deltas();
+
+CREATE TRIGGER trg_jobs_count_update
+    AFTER UPDATE ON jobs
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION jobs_record_count_deltas();
+
+CREATE TRIGGER trg_jobs_count_delete
+    AFTER DELETE ON jobs
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION jobs_record_count_deltas();
+
+INSERT INTO job_status_counts (status, worker_id, attempt_count, job_count)
+SELECT status, COALESCE(worker_id, 'unassigned'), attempt_count, COUNT(*)
+FROM jobs
+GROUP BY 1, 2, 3;
+
+--index for the windowed (sinceMinutes) metrics
+CREATE INDEX ix_jobs_updated_at
+    ON jobs(updated_at);
@@ -0,0 +1,15 @@
+-- Payloads may be stored pre-validated in binary form (atlas.jobs.payload.storage-format).
+-- payload_format says where the payload lives and how it is encoded:
+--   JSON           payload (TEXT), as submitted
+--   SMILE          payload_bin, Jackson Smile of the validated payload
+--   SMILE_DEFLATE  payload_bin, Smile then deflate, for payloads over the compression threshold
+ALTER TABLE jobs ADD COLUMN payload_format VARCHAR(16) NOT NULL DEFAULT 'JSON';
+ALTER TABLE jobs ADD COLUMN payload_bin BYTEA;
+
+-- Deflated payloads do not compress further; skip pglz and go straight to TOAST when large.
+ALTER TABLE jobs ALTER COLUMN payload_bin SET STORAGE EXTERNAL;
+
+-- These land after archived_at, so the archiver lists its columns explicitly from here on.
+ALTER TABLE jobs_archive ADD COLUMN payload_format VARCHAR(16) NOT NULL DEFAULT 'JSON';
+ALTER TABLE jobs_archive ADD COLUMN payload_bin BYTEA;
+ALTER TABLE jobs_archive ALTER COLUMN payload_bin SET STORAGE EXTERNAL;
@@ -0,0 +1,13 @@
+-- Shared rate-limit state for atlas.rate-limit.mode=postgres: one GCRA per (bucket, client).
+-- tat_us is the theoretical arrival time in epoch microseconds; a row whose tat_us has passed
+-- is a full bucket and may be deleted at any time. Nodes lease permits from a row in batches,
+-- and last_granted reports what the latest lease got.
+--
+-- UNLOGGED: no WAL for a row updated on every lease; a crash only refills every bucket.
+CREATE UNLOGGED TABLE rate_limit_buckets (
+    bucket VARCHAR(16) NOT NULL,
+    client_key TEXT NOT NULL,
+    tat_us BIGINT NOT NULL,
+    last_granted BIGINT NOT NULL,
+    PRIMARY KEY (bucket, client_key)
+);
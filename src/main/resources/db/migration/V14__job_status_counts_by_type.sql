@@ -0,0 +1,49 @@
+-- Adds job_type to the trigger-maintained counts (V11), so admission control can read the
+-- queue depth of each job type without a GROUP BY over jobs.
+--
+-- The summary is rebuilt from jobs; writers are held off meanwhile so no delta is lost.
+
+LOCK TABLE jobs IN SHARE ROW EXCLUSIVE MODE;
+
+TRUNCATE job_status_count_deltas;
+TRUNCATE job_status_counts;
+
+ALTER TABLE job_status_counts ADD COLUMN job_type VARCHAR(64) NOT NULL;
+ALTER TABLE job_status_counts DROP CONSTRAINT job_status_counts_pkey;
+ALTER TABLE job_status_counts ADD PRIMARY KEY (status, worker_id, attempt_count, job_type);
+
+ALTER TABLE job_status_count_deltas ADD COLUMN job_type VARCHAR(64) NOT NULL;
+
+CREATE OR REPLACE FUNCTION jobs_record_count_deltas() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO job_status_count_deltas (status, worker_id, attempt_count, job_type, delta)
+        SELECT status, COALESCE(worker_id, 'unassigned'), attempt_count, job_type, COUNT(*)
+        FROM new_rows
+        GROUP BY 1, 2, 3, 4;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO job_status_count_deltas (status, worker_id, attempt_count, job_type, delta)
+        SELECT status, COALESCE(worker_id, 'unassigned'), attempt_count, job_type, -COUNT(*)
+        FROM old_rows
+        GROUP BY 1, 2, 3, 4;
+    ELSE
+        -- Updates that leave all four keys alone (lease renewals, touches) net to zero.
+        INSERT INTO job_status_count_deltas (status, worker_id, attempt_count, job_type, delta)
+        SELECT status, worker_id, attempt_count, job_type, SUM(d)
+        FROM (
+            SELECT status, COALESCE(worker_id, 'unassigned') AS worker_id, attempt_count, job_type, -1 AS d FROM old_rows
+            UNION ALL
+            SELECT status, COALESCE(worker_id, 'unassigned'), attempt_count, job_type, 1 FROM new_rows
+        ) changes
+        GROUP BY 1, 2, 3, 4
+        HAVING SUM(d) <> 0;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+INSERT INTO job_status_counts (status, worker_id, attempt_count, job_type, job_count)
+SELECT status, COALESCE(worker_id, 'unassigned'), attempt_count, job_type, COUNT(*)
+FROM jobs
+GROUP BY 1, 2, 3, 4;
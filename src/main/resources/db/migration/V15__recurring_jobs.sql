@@ -0,0 +1,26 @@
+-- Recurring job definitions. The elected scheduler node turns each due occurrence into a
+-- row in jobs, keyed recurring:<id>:<fire epoch second>, and moves next_fire_at forward
+-- in the same transaction.
+--
+-- payload is the raw JSON as submitted; it is encoded per occurrence so a change of
+-- atlas.jobs.payload.storage-format applies to the next firing.
+
+CREATE TABLE recurring_jobs (
+    id VARCHAR(64) PRIMARY KEY,
+    job_type VARCHAR(64) NOT NULL,
+    payload TEXT,
+    cron VARCHAR(120) NOT NULL,
+    time_zone VARCHAR(64) NOT NULL DEFAULT 'UTC',
+    max_attempts INT NOT NULL DEFAULT 3,
+    priority INT NOT NULL DEFAULT 0,
+    enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    next_fire_at TIMESTAMPTZ NOT NULL,
+    last_fired_at TIMESTAMPTZ,
+    created_at TIMESTAMPTZ NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL
+);
+
+--each tick reads only the due head of this index, however many definitions exist
+CREATE INDEX ix_recurring_jobs_next_fire
+    ON recurring_jobs(next_fire_at)
+    WHERE enabled;
@@ -0,0 +1,6 @@
+-- Archived jobs keep their idempotency keys: a replay of a key whose job was archived must
+-- resolve to that job, not create a second one. Not unique, since the archive is append-only
+-- and checked by the inserting transaction instead (see JobBatchInsertRepository).
+CREATE INDEX ix_jobs_archive_idempotency_key
+    ON jobs_archive(idempotency_key)
+    WHERE idempotency_key IS NOT NULL;
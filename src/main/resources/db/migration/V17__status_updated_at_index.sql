@@ -0,0 +1,56 @@
+-- One (status, updated_at) index replaces three overlapping updated_at indexes, so an update
+-- that moves updated_at maintains one index instead of three:
+--   ix_jobs_dead_lettered_updated_at (V8)  dead-letter requeue, oldest first
+--   ix_jobs_terminal_updated_at (V10)      archiver scan of old terminal jobs
+--   ix_jobs_updated_at (V11)               windowed /metrics counts
+-- Each of those queries names its statuses, so it becomes one range scan per status.
+DROP INDEX ix_jobs_dead_lettered_updated_at;
+DROP INDEX ix_jobs_terminal_updated_at;
+DROP INDEX ix_jobs_updated_at;
+
+CREATE INDEX ix_jobs_status_updated_at
+    ON jobs(status, updated_at);
+
+-- The statement-level count triggers (V11, V14) fire on every UPDATE of jobs, including
+-- lease renewals that change no counted key; Postgres fills the transition tables for them
+-- regardless (full rows, inline payloads included; a row-level trigger with a WHEN clause would
+-- avoid that, at one delta row per job instead of one per group). Renewals touch only a node's
+-- leased jobs, so that copy stays small; what is skipped here is the aggregation and insert.
+CREATE OR REPLACE FUNCTION jobs_record_count_deltas() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO job_status_count_deltas (status, worker_id, attempt_count, job_type, delta)
+        SELECT status, COALESCE(worker_id, 'unassigned'), attempt_count, job_type, COUNT(*)
+        FROM new_rows
+        GROUP BY 1, 2, 3, 4;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO job_status_count_deltas (status, worker_id, attempt_count, job_type, delta)
+        SELECT status, COALESCE(worker_id, 'unassigned'), attempt_count, job_type, -COUNT(*)
+        FROM old_rows
+        GROUP BY 1, 2, 3, 4;
+    ELSE
+        -- Lease renewals and other touches leave all four keys alone: nothing to record.
+        IF NOT EXISTS (
+            SELECT 1
+            FROM old_rows o
+            JOIN new_rows n ON n.job_id = o.job_id
+            WHERE (o.status, o.worker_id, o.attempt_count, o.job_type)
+                  IS DISTINCT FROM (n.status, n.worker_id, n.attempt_count, n.job_type)
+        ) THEN
+            RETURN NULL;
+        END IF;
+
+        INSERT INTO job_status_count_deltas (status, worker_id, attempt_count, job_type, delta)
+        SELECT status, worker_id, attempt_count, job_type, SUM(d)
+        FROM (
+            SELECT status, COALESCE(worker_id, 'unassigned') AS worker_id, attempt_count, job_type, -1 AS d FROM old_rows
+            UNION ALL
+            SELECT status, COALESCE(worker_id, 'unassigned'), attempt_count, job_type, 1 FROM new_rows
+        ) changes
+        GROUP BY 1, 2, 3, 4
+        HAVING SUM(d) <> 0;
+    END IF;
+    RETURN NULL;
+END;
+$$;
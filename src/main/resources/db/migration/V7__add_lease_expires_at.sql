@@ -0,0 +1,9 @@
+ALTER TABLE jobs ADD COLUMN lease_expires_at TIMESTAMPTZ;
+
+-- RUNNING rows from before this migration have no lease; recovery falls back
+-- to the started_at timeout for them.
+
+--index for lease expiry scans
+CREATE INDEX ix_jobs_running_lease_expires_at
+    ON jobs(lease_expires_at)
+    WHERE status = 'RUNNING';
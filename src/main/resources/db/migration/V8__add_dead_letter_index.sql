@@ -0,0 +1,4 @@
+--index for dead-letter requeue scans (oldest first)
+CREATE INDEX ix_jobs_dead_lettered_updated_at
+    ON jobs(updated_at)
+    WHERE status = 'DEAD_LETTERED';
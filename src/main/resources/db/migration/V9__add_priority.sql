@@ -0,0 +1,6 @@
+ALTER TABLE jobs ADD COLUMN priority INTEGER NOT NULL DEFAULT 0;
+
+--index for claim ordering: highest priority first, then oldest due
+CREATE INDEX ix_jobs_queued_priority_next_run
+    ON jobs(priority DESC, next_run_at)
+    WHERE status = 'QUEUED';
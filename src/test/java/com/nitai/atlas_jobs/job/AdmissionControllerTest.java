@@ -0,0 +1,142 @@
+package com.nitai.atlas_jobs.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class AdmissionControllerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<JobStatusCountRepository.Row> rows = new ArrayList<>();
+    private final Map<String, Long> notYetDue = new HashMap<>();
+    private long lastDueScanLimit = -1;
+    private double nextRandom;
+
+    private final JobStatusCounts statusCounts = new JobStatusCounts(null) {
+        @Override
+        public Snapshot snapshot() {
+            return new Snapshot(List.copyOf(rows));
+        }
+
+        @Override
+        public Map<String, Long> dueQueuedByJobType(long limit) {
+            lastDueScanLimit = limit;
+            Map<String, Long> due = new HashMap<>(snapshot().byJobType(JobStatus.QUEUED));
+            notYetDue.forEach((type, count) -> due.merge(type, -count, Long::sum));
+            return due;
+        }
+    };
+
+    @Test
+    void shedsWithRisingProbabilityBetweenQueueDepthWatermarks() {
+        AdmissionController admission = controller("", 0, 0);
+        queued("SLEEP_JOB", 150);
+        admission.refreshQueueDepth();
+
+        // Halfway between the watermarks: shed when the draw falls under 0.5.
+        nextRandom = 0.6;
+        assertThatCode(() -> admission.admit("SLEEP_JOB")).doesNotThrowAnyException();
+        nextRandom = 0.4;
+        assertThatThrownBy(() -> admission.admit("SLEEP_JOB"))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(7))
+                .hasMessageContaining("queue depth");
+
+        queued("SLEEP_JOB", 100);
+        admission.refreshQueueDepth();
+        nextRandom = 0.99;
+        assertThatThrownBy(() -> admission.admit("SLEEP_JOB")).isInstanceOf(AdmissionRejectedException.class);
+
+        AdmissionController.Stats stats = admission.stats();
+        assertThat(stats.queuedJobs()).isEqualTo(250);
+        assertThat(stats.pressure()).isEqualTo(1.0);
+        assertThat(stats.admitted()).isEqualTo(1);
+        assertThat(stats.shed()).isEqualTo(2);
+        assertThat(stats.shedByJobType()).containsExactlyEntriesOf(Map.of("SLEEP_JOB", 2L));
+    }
+
+    @Test
+    void delayedJobsDoNotCountTowardsQueueDepth() {
+        AdmissionController admission = controller("", 0, 0);
+        queued("SLEEP_JOB", 10_000);
+        notYetDue.put("SLEEP_JOB", 9_990L);
+        admission.refreshQueueDepth();
+        nextRandom = 0.0;
+
+        assertThatCode(() -> admission.admit("SLEEP_JOB")).doesNotThrowAnyException();
+        assertThat(admission.stats().queuedJobs()).isEqualTo(10);
+        assertThat(lastDueScanLimit).isEqualTo(200);
+    }
+
+    @Test
+    void dueRowsAreOnlyCountedOnceTheCountersPassALowWatermark() {
+        AdmissionController admission = controller("", 0, 0);
+        queued("SLEEP_JOB", 100);
+        admission.refreshQueueDepth();
+
+        assertThat(lastDueScanLimit).isEqualTo(-1);
+        assertThat(admission.stats().queuedJobs()).isEqualTo(100);
+    }
+
+    @Test
+    void perTypeCapsOnlyShedTheirOwnType() {
+        AdmissionController admission = controller("FAIL_JOB=10", 0, 0);
+        queued("FAIL_JOB", 10);
+        queued("SLEEP_JOB", 10);
+        admission.refreshQueueDepth();
+        nextRandom = 0.99;
+
+        assertThatThrownBy(() -> admission.admit("FAIL_JOB"))
+                .isInstanceOf(AdmissionRejectedException.class)
+                .hasMessageContaining("FAIL_JOB queue depth");
+        assertThatCode(() -> admission.admit("SLEEP_JOB")).doesNotThrowAnyException();
+        assertThat(admission.stats().queuedByJobType()).containsEntry("FAIL_JOB", 10L).containsEntry("SLEEP_JOB", 10L);
+    }
+
+    @Test
+    void slowInsertsShedUntilTheLatencyDecays() {
+        AdmissionController admission = controller("", 100, 500);
+        admission.recordInsertLatency(TimeUnit.MILLISECONDS.toNanos(2_000));
+        assertThat(admission.stats().insertLatencyMs()).isEqualTo(400.0);
+
+        nextRandom = 0.5;
+        assertThatThrownBy(() -> admission.admit("SLEEP_JOB"))
+                .isInstanceOf(AdmissionRejectedException.class)
+                .hasMessageContaining("insert latency");
+
+        // Nothing measured for two half-lives: 400ms has faded to the low watermark.
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        assertThat(admission.stats().insertLatencyMs()).isCloseTo(100.0, offset(0.001));
+        assertThatCode(() -> admission.admit("SLEEP_JOB")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void disabledControllerAdmitsEverything() {
+        AdmissionController admission = new AdmissionController(statusCounts, false, 1, 2, "", 1, 2, 1, 2,
+                10_000, 7, () -> 0.0, clock::get);
+        queued("SLEEP_JOB", 1_000);
+        admission.refreshQueueDepth();
+
+        assertThatCode(() -> admission.admit("SLEEP_JOB")).doesNotThrowAnyException();
+        assertThat(admission.stats().pressure()).isZero();
+    }
+
+    private AdmissionController controller(String typeMaxQueued, long insertLowMs, long insertHighMs) {
+        return new AdmissionController(statusCounts, true, 100, 200, typeMaxQueued,
+                insertLowMs, insertHighMs, 0, 0, 10_000, 7, () -> nextRandom, clock::get);
+    }
+
+    private void queued(String jobType, long count) {
+        rows.add(new JobStatusCountRepository.Row(JobStatus.QUEUED, "unassigned", 0, jobType, count));
+    }
+}
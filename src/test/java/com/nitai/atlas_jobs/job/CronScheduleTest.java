@@ -0,0 +1,54 @@
+package com.nitai.atlas_jobs.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CronScheduleTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2026, 3, 10, 12, 30, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void keepsOnlyTheLatestMissedFireTimes() {
+        CronSchedule hourly = CronSchedule.parse("0 0 * * * *", "UTC");
+
+        CronSchedule.Occurrences occurrences = hourly.due(NOW.minusHours(5).withMinute(0), NOW, 2, Duration.ofDays(1));
+
+        assertThat(occurrences.due()).containsExactly(NOW.minusHours(1).withMinute(0), NOW.withMinute(0));
+        assertThat(occurrences.next()).isEqualTo(NOW.plusHours(1).withMinute(0));
+    }
+
+    @Test
+    void fireTimesBeforeTheCatchUpWindowAreSkipped() {
+        CronSchedule everySecond = CronSchedule.parse("* * * * * *", "UTC");
+
+        // A month behind, but only the last minute is walked.
+        CronSchedule.Occurrences occurrences = everySecond.due(NOW.minusMonths(1), NOW, 100, Duration.ofMinutes(1));
+        assertThat(occurrences.due()).hasSize(61).startsWith(NOW.minusMinutes(1)).endsWith(NOW);
+
+        CronSchedule daily = CronSchedule.parse("0 0 9 * * *", "UTC");
+        assertThat(daily.due(NOW.minusDays(2), NOW, 1, Duration.ofHours(1)).due()).isEmpty();
+    }
+
+    @Test
+    void fieldsAreReadInTheScheduleTimeZone() {
+        CronSchedule nineInTokyo = CronSchedule.parse("0 0 9 * * *", "Asia/Tokyo");
+
+        assertThat(nineInTokyo.nextAfter(NOW)).isEqualTo(OffsetDateTime.of(2026, 3, 11, 0, 0, 0, 0, ZoneOffset.UTC));
+    }
+
+    @Test
+    void malformedSchedulesAreRejected() {
+        assertThatThrownBy(() -> CronSchedule.parse("0 0 * * *", "UTC"))
+                .isInstanceOf(InvalidJobPayloadException.class)
+                .hasMessageContaining("Invalid cron expression");
+        assertThatThrownBy(() -> CronSchedule.parse("0 0 * * * *", "Mars/Olympus"))
+                .isInstanceOf(InvalidJobPayloadException.class)
+                .hasMessageContaining("Unknown time zone");
+    }
+}
@@ -3,13 +3,18 @@ package com.nitai.atlas_jobs.job;
 import com.nitai.atlas_jobs.AbstractPostgresTest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+@TestPropertySource(properties = "atlas.dead-letter.requeue-chunk-size=2")
 class DeadLetterRequeueTest extends AbstractPostgresTest {
 
     @Autowired
@@ -18,6 +23,12 @@ class DeadLetterRequeueTest extends AbstractPostgresTest {
     @Autowired
     JobService jobService;
 
+    @Autowired
+    DeadLetterRequeueService deadLetterRequeueService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
     @Test
     void requeueDeadLetteredJob() {
         Job job = new Job(
@@ -63,4 +74,67 @@ class DeadLetterRequeueTest extends AbstractPostgresTest {
         assertThatThrownBy(() -> jobService.requeueDeadLetter(job.getJobId()))
                 .isInstanceOf(JobNotDeadLetteredException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void bulkRequeueAppliesFiltersInChunks() throws InterruptedException {
+        List<UUID> matching = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            matching.add(saveDeadLettered("BULK_JOB", "connection reset by peer").getJobId());
+        }
+        UUID otherError = saveDeadLettered("BULK_JOB", "validation failed").getJobId();
+        UUID otherType = saveDeadLettered("OTHER_JOB", "connection reset by peer").getJobId();
+
+        BulkRequeueProgress started = deadLetterRequeueService.start(
+                new DeadLetterFilter("BULK_JOB", "RESET BY", OffsetDateTime.now().minusHours(1), null),
+                null
+        );
+        BulkRequeueProgress finished = awaitFinished(started.operationId());
+
+        assertThat(finished.state()).isEqualTo(BulkRequeueProgress.State.COMPLETED);
+        assertThat(finished.requeued()).isEqualTo(5);
+        // chunk size 2: 2 + 2 + 1
+        assertThat(finished.chunks()).isEqualTo(3);
+
+        assertThat(jobRepository.findAllById(matching))
+                .allSatisfy(job -> {
+                    assertThat(job.getStatus()).isEqualTo(JobStatus.QUEUED);
+                    assertThat(job.getAttemptCount()).isZero();
+                    assertThat(job.getLastError()).isNull();
+                });
+        assertThat(jobRepository.findById(otherError).orElseThrow().getStatus()).isEqualTo(JobStatus.DEAD_LETTERED);
+        assertThat(jobRepository.findById(otherType).orElseThrow().getStatus()).isEqualTo(JobStatus.DEAD_LETTERED);
+    }
+
+    @Test
+    void bulkRequeueOnlyMatchesJobsDeadLetteredBeforeItStarted() throws InterruptedException {
+        UUID before = saveDeadLettered("REPEAT_JOB", "boom").getJobId();
+        // Stands in for a requeued job that failed again while the run was going.
+        UUID after = saveDeadLettered("REPEAT_JOB", "boom").getJobId();
+        jdbcTemplate.update("UPDATE jobs SET updated_at = now() + interval '1 minute' WHERE job_id = ?", after);
+
+        BulkRequeueProgress started = deadLetterRequeueService.start(
+                new DeadLetterFilter("REPEAT_JOB", null, null, null), null);
+        assertThat(started.filter().updatedBefore()).isEqualTo(started.startedAt());
+        BulkRequeueProgress finished = awaitFinished(started.operationId());
+
+        assertThat(finished.requeued()).isEqualTo(1);
+        assertThat(jobRepository.findById(before).orElseThrow().getStatus()).isEqualTo(JobStatus.QUEUED);
+        assertThat(jobRepository.findById(after).orElseThrow().getStatus()).isEqualTo(JobStatus.DEAD_LETTERED);
+    }
+
+    private Job saveDeadLettered(String jobType, String error) {
+        Job job = new Job(UUID.randomUUID(), JobStatus.QUEUED, jobType, null, 1, null);
+        job.onFailureAndScheduleRetry(error);
+        return jobRepository.saveAndFlush(job);
+    }
+
+    private BulkRequeueProgress awaitFinished(UUID operationId) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            BulkRequeueProgress progress = deadLetterRequeueService.get(operationId).orElseThrow();
+            if (progress.state() != BulkRequeueProgress.State.RUNNING) return progress;
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Bulk requeue " + operationId + " did not finish within 10s");
+    }
+}
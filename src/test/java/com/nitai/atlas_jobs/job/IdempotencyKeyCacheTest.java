@@ -0,0 +1,59 @@
+package com.nitai.atlas_jobs.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyKeyCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void entriesExpireAfterTtlAndCountHitsAndMisses() {
+        IdempotencyKeyCache cache = new IdempotencyKeyCache(1_000, 10, clock::get);
+        UUID jobId = UUID.randomUUID();
+
+        assertThat(cache.get("k")).isNull();
+        cache.put("k", jobId);
+        assertThat(cache.get("k")).isEqualTo(jobId);
+        assertThat(cache.get("k")).isEqualTo(jobId);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_000));
+        assertThat(cache.get("k")).isNull();
+
+        IdempotencyKeyCache.Stats stats = cache.stats();
+        assertThat(stats.hits()).isEqualTo(2);
+        assertThat(stats.misses()).isEqualTo(2);
+        assertThat(stats.hitRate()).isEqualTo(0.5);
+        assertThat(stats.size()).isZero();
+    }
+
+    @Test
+    void oldestKeysAreEvictedFirstWhenFull() {
+        IdempotencyKeyCache cache = new IdempotencyKeyCache(60_000, 3, clock::get);
+        for (int i = 0; i < 5; i++) {
+            cache.put("k" + i, UUID.randomUUID());
+            // Hits do not protect an entry from eviction.
+            cache.get("k0");
+        }
+
+        assertThat(cache.stats().size()).isEqualTo(3);
+        assertThat(cache.get("k0")).isNull();
+        assertThat(cache.get("k1")).isNull();
+        assertThat(cache.get("k2")).isNotNull();
+        assertThat(cache.get("k4")).isNotNull();
+    }
+
+    @Test
+    void zeroTtlDisablesTheCache() {
+        IdempotencyKeyCache cache = new IdempotencyKeyCache(0, 10, clock::get);
+        cache.put("k", UUID.randomUUID());
+
+        assertThat(cache.get("k")).isNull();
+        assertThat(cache.stats().size()).isZero();
+    }
+}
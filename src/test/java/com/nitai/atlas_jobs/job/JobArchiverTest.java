@@ -0,0 +1,161 @@
+package com.nitai.atlas_jobs.job;
+
+import com.nitai.atlas_jobs.AbstractPostgresTest;
+import com.nitai.atlas_jobs.job.api.BatchItemResult;
+import com.nitai.atlas_jobs.job.api.BatchJobItem;
+import com.nitai.atlas_jobs.job.api.CreateJobRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "atlas.archive.retention-hours=24",
+        "atlas.archive.chunk-size=2"
+})
+class JobArchiverTest extends AbstractPostgresTest {
+
+    @Autowired
+    JobRepository jobRepository;
+
+    @Autowired
+    JobArchiver jobArchiver;
+
+    @Autowired
+    JobService jobService;
+
+    @Autowired
+    JobClaimService jobClaimService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    IdempotencyKeyCache idempotencyKeyCache;
+
+    @Test
+    void oldTerminalJobsAreArchivedAndStillReadable() {
+        UUID oldSucceeded = saveJob(JobStatus.SUCCEEDED, OffsetDateTime.now().minusDays(3));
+        UUID oldDeadLettered = saveJob(JobStatus.DEAD_LETTERED, OffsetDateTime.now().minusDays(2));
+        UUID oldSucceeded2 = saveJob(JobStatus.SUCCEEDED, OffsetDateTime.now().minusDays(5));
+        UUID recentSucceeded = saveJob(JobStatus.SUCCEEDED, OffsetDateTime.now().minusHours(1));
+        UUID oldQueued = saveJob(JobStatus.QUEUED, OffsetDateTime.now().minusDays(3));
+
+        jobArchiver.archiveTerminalJobs();
+
+        assertThat(jobRepository.findById(oldSucceeded)).isEmpty();
+        assertThat(jobRepository.findById(oldDeadLettered)).isEmpty();
+        assertThat(jobRepository.findById(oldSucceeded2)).isEmpty();
+        assertThat(jobRepository.findById(recentSucceeded)).isPresent();
+        assertThat(jobRepository.findById(oldQueued)).isPresent();
+
+        Job archived = jobService.getJob(oldDeadLettered);
+        assertThat(archived.getStatus()).isEqualTo(JobStatus.DEAD_LETTERED);
+        assertThat(archived.getJobType()).isEqualTo("FAIL_JOB");
+    }
+
+    @Test
+    void replayingTheKeyOfAnArchivedJobReturnsThatJob() {
+        CreateJobRequest request = new CreateJobRequest();
+        request.setJobType("SLEEP_JOB");
+        request.setPayload("{\"sleepSeconds\": 1}");
+        UUID original = jobService.createJob(request, "archived-key").getJobId();
+        jdbcTemplate.update("UPDATE jobs SET status = 'SUCCEEDED', updated_at = now() - interval '3 days' WHERE job_id = ?",
+                original);
+        jobArchiver.archiveTerminalJobs();
+        assertThat(jobRepository.findById(original)).isEmpty();
+
+        // Long after the cache entry has gone.
+        idempotencyKeyCache.invalidate("archived-key");
+        assertThat(jobService.createJob(request, "archived-key").getJobId()).isEqualTo(original);
+
+        BatchJobItem item = new BatchJobItem();
+        item.setJobType("SLEEP_JOB");
+        item.setPayload("{\"sleepSeconds\": 1}");
+        item.setIdempotencyKey("archived-key");
+        idempotencyKeyCache.invalidate("archived-key");
+        assertThat(jobService.createJobs(List.of(item))).singleElement()
+                .satisfies(result -> {
+                    assertThat(result.outcome()).isEqualTo(BatchItemResult.Outcome.DUPLICATE);
+                    assertThat(result.jobId()).isEqualTo(original);
+                });
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM jobs WHERE idempotency_key = 'archived-key'", Long.class)).isZero();
+    }
+
+    @Test
+    void claimLatencyIsFlatAfterArchivingHundredsOfThousandsOfTerminalRows() {
+        for (int i = 0; i < 400; i++) {
+            saveJob(JobStatus.QUEUED, OffsetDateTime.now());
+        }
+        long baselineMedianNanos = medianClaimNanos(100);
+
+        // Terminal rows go where they really pile up, the live table, and the archiver moves them.
+        int terminalRows = 500_000;
+        jdbcTemplate.update("""
+                INSERT INTO jobs (job_id, status, job_type, payload, attempt_count, max_attempts,
+                                  created_at, updated_at, next_run_at, priority)
+                SELECT gen_random_uuid(), 'SUCCEEDED', 'SLEEP_JOB', '{"sleepSeconds": 1}', 1, 3,
+                       now() - interval '2 days' - make_interval(secs => g),
+                       now() - interval '2 days' - make_interval(secs => g),
+                       now() - interval '2 days' - make_interval(secs => g), 0
+                FROM generate_series(1, ?) g
+                """, terminalRows);
+
+        JobArchiver bulkArchiver = new JobArchiver(jobRepository, transactionTemplate, 24, 50_000, 100);
+        bulkArchiver.archiveTerminalJobs();
+        jdbcTemplate.execute("VACUUM ANALYZE jobs");
+        jdbcTemplate.execute("ANALYZE jobs_archive");
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM jobs WHERE status = 'SUCCEEDED'", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM jobs_archive WHERE job_type = 'SLEEP_JOB'", Long.class)).isEqualTo(terminalRows);
+
+        long archivedMedianNanos = medianClaimNanos(100);
+
+        // Allow for timer noise on small absolute numbers.
+        assertThat(archivedMedianNanos).isLessThan(baselineMedianNanos * 3 + 5_000_000L);
+    }
+
+    private long medianClaimNanos(int samples) {
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            assertThat(jobClaimService.claimBatch(1)).hasSize(1);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[samples / 2];
+    }
+
+    private UUID saveJob(JobStatus status, OffsetDateTime updatedAt) {
+        Job job = new Job(
+                UUID.randomUUID(),
+                JobStatus.QUEUED,
+                "FAIL_JOB",
+                null,
+                1,
+                null
+        );
+        jobRepository.saveAndFlush(job);
+
+        Timestamp ts = Timestamp.from(updatedAt.toInstant());
+        jdbcTemplate.update("UPDATE jobs SET status = ?, updated_at = ? WHERE job_id = ?",
+                status.name(), ts, job.getJobId());
+        return job.getJobId();
+    }
+}
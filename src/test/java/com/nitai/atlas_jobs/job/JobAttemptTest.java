@@ -0,0 +1,101 @@
+package com.nitai.atlas_jobs.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobAttemptTest {
+
+    @Test
+    void handlerReturningRightAfterTheTimeoutLeavesTheSlotToTheWatchdog() throws Exception {
+        CountDownLatch expired = new CountDownLatch(1);
+        AtomicBoolean workerSettled = new AtomicBoolean();
+        AtomicBoolean workerOwnsSlot = new AtomicBoolean();
+        AtomicBoolean interruptCleared = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicReference<JobAttempt> onWorker = new AtomicReference<>();
+
+        Thread worker = new Thread(() -> {
+            JobAttempt attempt = JobAttempt.onCurrentThread();
+            onWorker.set(attempt);
+            started.countDown();
+            // The handler returns only once the watchdog has won: the window the race lived in.
+            awaitUninterruptibly(expired);
+            workerSettled.set(attempt.settle());
+            workerOwnsSlot.set(attempt.finish());
+            interruptCleared.set(!Thread.currentThread().isInterrupted());
+        });
+        worker.start();
+
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        JobAttempt attempt = onWorker.get();
+        assertThat(attempt.expire()).isTrue();
+        expired.countDown();
+        worker.join(5_000);
+
+        assertThat(workerSettled).isFalse();
+        assertThat(workerOwnsSlot).isFalse();
+        assertThat(interruptCleared).isTrue();
+        assertThat(attempt.expire()).isFalse();
+    }
+
+    @Test
+    void watchdogFiringAfterTheHandlerReturnedDoesNothing() {
+        JobAttempt attempt = JobAttempt.onCurrentThread();
+        assertThat(attempt.settle()).isTrue();
+        assertThat(attempt.expire()).isFalse();
+        assertThat(attempt.finish()).isTrue();
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void exactlyOneSideOwnsTheSlotUnderContention() throws Exception {
+        AtomicInteger releases = new AtomicInteger();
+        for (int i = 0; i < 2_000; i++) {
+            CyclicBarrier start = new CyclicBarrier(2);
+            JobAttempt attempt = new JobAttempt(Thread.currentThread());
+            CompletableFuture<Boolean> watchdog = CompletableFuture.supplyAsync(() -> {
+                await(start);
+                return attempt.expire();
+            });
+            await(start);
+            boolean worker = attempt.finish();
+            boolean timedOut = watchdog.get(5, TimeUnit.SECONDS);
+
+            assertThat(worker).isNotEqualTo(timedOut);
+            if (worker) releases.incrementAndGet();
+            if (timedOut) releases.incrementAndGet();
+            Thread.interrupted();
+        }
+        assertThat(releases).hasValue(2_000);
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Waits like a handler that ignores interrupts, then leaves the flag set for finish() to clear.
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (latch.getCount() > 0) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -13,6 +14,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -91,4 +93,60 @@ class JobClaimConcurrencyTest extends AbstractPostgresTest {
 
         assertThat(claimedIds).hasSize(jobCount);
     }
-}
\ No newline at end of file
+
+    @Test
+    void concurrentBatchClaimersNeverClaimSameJob() throws InterruptedException {
+        int jobCount = 500;
+        int claimers = 8;
+        int batchSize = 7;
+        for (int i = 0; i < jobCount; i++) {
+            jobRepository.save(new Job(
+                    UUID.randomUUID(),
+                    JobStatus.QUEUED,
+                    "SLEEP_JOB",
+                    "{\"sleepSeconds\": 1}",
+                    1,
+                    null
+            ));
+        }
+        jobRepository.flush();
+
+        Set<UUID> claimedIds = ConcurrentHashMap.newKeySet();
+        AtomicInteger totalClaims = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(claimers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int w = 0; w < claimers; w++) {
+            JobClaimService claimer = new JobClaimService(jobRepository, "batch-worker-" + w);
+            executor.submit(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                while (true) {
+                    List<Job> batch = transactionTemplate.execute(status -> claimer.claimBatch(batchSize));
+                    if (batch == null || batch.isEmpty()) break;
+                    for (Job job : batch) {
+                        claimedIds.add(job.getJobId());
+                        totalClaims.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        // Every job was handed out exactly once across all claimers.
+        assertThat(totalClaims.get()).isEqualTo(claimedIds.size());
+        assertThat(claimedIds).hasSizeGreaterThanOrEqualTo(jobCount);
+        assertThat(jobRepository.findAllById(claimedIds))
+                .allSatisfy(job -> {
+                    assertThat(job.getStatus()).isEqualTo(JobStatus.RUNNING);
+                    assertThat(job.getStartedAt()).isNotNull();
+                });
+    }
+}
@@ -0,0 +1,57 @@
+package com.nitai.atlas_jobs.job;
+
+import com.nitai.atlas_jobs.AbstractPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "atlas.worker.enabled=true",
+        "atlas.worker.concurrency=8",
+        "atlas.worker.idle-backoff-max-ms=200",
+        "atlas.worker.completion-batching.enabled=true",
+        "atlas.worker.completion-batching.flush-interval-ms=20"
+})
+class JobCompletionBatchingTest extends AbstractPostgresTest {
+
+    @Autowired
+    JobRepository jobRepository;
+
+    @Autowired
+    JobCompletionBatcher completionBatcher;
+
+    @Test
+    void outcomesAreGroupCommitted() throws InterruptedException {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Job job = new Job(UUID.randomUUID(), JobStatus.QUEUED, "FAIL_JOB", "{\"message\": \"batched\"}", 1, null);
+            ids.add(jobRepository.saveAndFlush(job).getJobId());
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (System.nanoTime() < deadline && !allDeadLettered(ids)) {
+            Thread.sleep(100);
+        }
+
+        assertThat(jobRepository.findAllById(ids)).allSatisfy(job -> {
+            assertThat(job.getStatus()).isEqualTo(JobStatus.DEAD_LETTERED);
+            assertThat(job.getLastError()).isEqualTo("batched");
+        });
+        assertThat(completionBatcher.getFlushedCompletions()).isGreaterThanOrEqualTo(ids.size());
+        // Several outcomes share a commit.
+        assertThat(completionBatcher.getFlushedBatches()).isLessThan(completionBatcher.getFlushedCompletions());
+        assertThat(completionBatcher.getFailedFlushes()).isZero();
+        assertThat(completionBatcher.getQueueDepth()).isZero();
+    }
+
+    private boolean allDeadLettered(List<UUID> ids) {
+        return jobRepository.findAllById(ids).stream().allMatch(job -> job.getStatus() == JobStatus.DEAD_LETTERED);
+    }
+}
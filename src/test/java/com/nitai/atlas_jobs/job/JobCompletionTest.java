@@ -0,0 +1,117 @@
+package com.nitai.atlas_jobs.job;
+
+import com.nitai.atlas_jobs.AbstractPostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobCompletionTest extends AbstractPostgresTest {
+
+    @Autowired
+    JobRepository jobRepository;
+
+    @Autowired
+    JobClaimService jobClaimService;
+
+    @Autowired
+    JobWorker jobWorker;
+
+    @Autowired
+    JobCompletionRepository completionRepository;
+
+    @Autowired
+    StaleJobRecoveryService staleJobRecoveryService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    String workerId;
+
+    @BeforeEach
+    void clearJobs() {
+        jobRepository.deleteAll();
+    }
+
+    @Test
+    void completionUpdatesTheClaimedAttemptInPlace() {
+        saveQueued(3);
+        saveQueued(1);
+        List<Job> claimed = jobClaimService.claimBatch(2);
+        Job retried = claimed.stream().filter(j -> j.getMaxAttempts() == 3).findFirst().orElseThrow();
+        Job deadLettered = claimed.stream().filter(j -> j.getMaxAttempts() == 1).findFirst().orElseThrow();
+
+        assertThat(jobWorker.completeFailure(retried, "boom")).isTrue();
+        assertThat(jobWorker.completeFailure(deadLettered, "boom")).isTrue();
+
+        Job queued = jobRepository.findById(retried.getJobId()).orElseThrow();
+        assertThat(queued.getStatus()).isEqualTo(JobStatus.QUEUED);
+        assertThat(queued.getAttemptCount()).isEqualTo(1);
+        assertThat(queued.getLastError()).isEqualTo("boom");
+        assertThat(queued.getLeaseExpiresAt()).isNull();
+        assertThat(queued.getNextRunAt()).isAfter(OffsetDateTime.now());
+
+        Job dead = jobRepository.findById(deadLettered.getJobId()).orElseThrow();
+        assertThat(dead.getStatus()).isEqualTo(JobStatus.DEAD_LETTERED);
+        assertThat(dead.getAttemptCount()).isEqualTo(1);
+    }
+
+    @Test
+    void completionOfAnAttemptAlreadyRecoveredAsStaleIsDropped() {
+        saveQueued(3);
+        Job firstAttempt = jobClaimService.claimBatch(1).get(0);
+
+        jdbcTemplate.update("UPDATE jobs SET lease_expires_at = now() - interval '1 second' WHERE job_id = ?",
+                firstAttempt.getJobId());
+        staleJobRecoveryService.recoverStaleRunningJobs();
+        jdbcTemplate.update("UPDATE jobs SET next_run_at = now() WHERE job_id = ?", firstAttempt.getJobId());
+        Job secondAttempt = jobClaimService.claimBatch(1).get(0);
+
+        // Same worker, same job: only the attempt count tells the two apart.
+        assertThat(jobWorker.completeSuccess(firstAttempt)).isFalse();
+        Job running = jobRepository.findById(firstAttempt.getJobId()).orElseThrow();
+        assertThat(running.getStatus()).isEqualTo(JobStatus.RUNNING);
+        assertThat(running.getAttemptCount()).isEqualTo(1);
+
+        assertThat(jobWorker.completeSuccess(secondAttempt)).isTrue();
+        assertThat(jobRepository.findById(firstAttempt.getJobId()).orElseThrow().getStatus())
+                .isEqualTo(JobStatus.SUCCEEDED);
+    }
+
+    @Test
+    void batchCompletesMixedOutcomesAndSkipsJobsOwnedByOtherWorkers() {
+        for (int i = 0; i < 5; i++) {
+            saveQueued(3);
+        }
+        List<Job> claimed = jobClaimService.claimBatch(5);
+        Job stolen = claimed.get(4);
+        jdbcTemplate.update("UPDATE jobs SET worker_id = 'someone-else' WHERE job_id = ?", stolen.getJobId());
+
+        int applied = completionRepository.completeAll(workerId, List.of(
+                JobCompletion.succeeded(claimed.get(0)),
+                JobCompletion.succeeded(claimed.get(1)),
+                JobCompletion.failed(claimed.get(2), "first"),
+                JobCompletion.failed(claimed.get(3), "second"),
+                JobCompletion.succeeded(stolen)
+        ));
+
+        assertThat(applied).isEqualTo(4);
+        assertThat(jobRepository.findById(claimed.get(1).getJobId()).orElseThrow().getStatus())
+                .isEqualTo(JobStatus.SUCCEEDED);
+        assertThat(jobRepository.findById(claimed.get(3).getJobId()).orElseThrow().getLastError())
+                .isEqualTo("second");
+        assertThat(jobRepository.findById(stolen.getJobId()).orElseThrow().getStatus())
+                .isEqualTo(JobStatus.RUNNING);
+    }
+
+    private void saveQueued(int maxAttempts) {
+        jobRepository.saveAndFlush(new Job(UUID.randomUUID(), JobStatus.QUEUED, "FAIL_JOB", null, maxAttempts, null));
+    }
+}
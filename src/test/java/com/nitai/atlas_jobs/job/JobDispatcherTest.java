@@ -0,0 +1,55 @@
+package com.nitai.atlas_jobs.job;
+
+import com.nitai.atlas_jobs.AbstractPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "atlas.worker.enabled=true",
+        "atlas.worker.concurrency=4",
+        "atlas.worker.idle-backoff-max-ms=200"
+})
+class JobDispatcherTest extends AbstractPostgresTest {
+
+    @Autowired
+    JobRepository jobRepository;
+
+    @Test
+    void slotsRunJobsConcurrently() throws InterruptedException {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Job job = new Job(
+                    UUID.randomUUID(),
+                    JobStatus.QUEUED,
+                    "SLEEP_JOB",
+                    "{\"sleepSeconds\": 1}",
+                    1,
+                    null
+            );
+            ids.add(jobRepository.saveAndFlush(job).getJobId());
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + 20_000_000_000L;
+        while (System.nanoTime() < deadline && !allSucceeded(ids)) {
+            Thread.sleep(100);
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(allSucceeded(ids)).isTrue();
+        // Eight 1s jobs take ~8s on one thread; four slots finish them in ~2s.
+        assertThat(elapsedMs).isLessThan(6_000);
+    }
+
+    private boolean allSucceeded(List<UUID> ids) {
+        return jobRepository.findAllById(ids).stream()
+                .allMatch(job -> job.getStatus() == JobStatus.SUCCEEDED);
+    }
+}
@@ -1,5 +1,6 @@
 package com.nitai.atlas_jobs.job;
 
+import com.nitai.atlas_jobs.job.metrics.LatencySnapshot;
 import org.junit.jupiter.api.Test;
 
 import java.util.Map;
@@ -32,4 +33,36 @@ class JobMetricsTest {
         Map<String, Double> avg = metrics.getAvgDurationSecondsByJobType();
         assertThat(avg.get("SLEEP_JOB")).isCloseTo(3.0, within(0.0001));
     }
+
+    @Test
+    void timeoutsAreCountedAsFailuresAndOnTheirOwn() {
+        JobMetrics metrics = new JobMetrics();
+
+        metrics.recordFailure("SLEEP_JOB", 1_000_000L);
+        metrics.recordTimeout("SLEEP_JOB", 30_000_000_000L);
+
+        assertThat(metrics.getFailuresByJobType()).containsEntry("SLEEP_JOB", 2L);
+        assertThat(metrics.getTimeoutsByJobType()).containsExactlyEntriesOf(Map.of("SLEEP_JOB", 1L));
+        assertThat(metrics.getProcessedLastMinute()).isEqualTo(2);
+    }
+
+    @Test
+    void executionAndQueueWaitHistogramsAreKeptPerJobType() {
+        JobMetrics metrics = new JobMetrics();
+
+        for (int i = 1; i <= 100; i++) {
+            metrics.recordSuccess("SLEEP_JOB", i * 1_000_000L);
+        }
+        metrics.recordQueueWait("SLEEP_JOB", 250_000_000L);
+
+        LatencySnapshot execution = metrics.getExecutionTimeByJobType().get("SLEEP_JOB");
+        assertThat(execution.count()).isEqualTo(100);
+        assertThat(execution.p50Ms()).isCloseTo(50.0, within(50.0 * 0.07));
+        assertThat(execution.maxMs()).isEqualTo(100.0);
+
+        LatencySnapshot queueWait = metrics.getQueueWaitByJobType().get("SLEEP_JOB");
+        assertThat(queueWait.count()).isEqualTo(1);
+        assertThat(queueWait.maxMs()).isEqualTo(250.0);
+        assertThat(metrics.getQueueWaitByJobType()).doesNotContainKey("FAIL_JOB");
+    }
 }
\ No newline at end of file
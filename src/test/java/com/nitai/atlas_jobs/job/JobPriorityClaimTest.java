@@ -0,0 +1,83 @@
+package com.nitai.atlas_jobs.job;
+
+import com.nitai.atlas_jobs.AbstractPostgresTest;
+import com.nitai.atlas_jobs.job.handler.JobHandlerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobPriorityClaimTest extends AbstractPostgresTest {
+
+    @Autowired
+    JobRepository jobRepository;
+
+    @Autowired
+    JobClaimService jobClaimService;
+
+    @Autowired
+    JobWorker jobWorker;
+
+    @Autowired
+    WorkerShutdownLatch shutdownLatch;
+
+    @Autowired
+    JobHandlerRegistry handlerRegistry;
+
+    @BeforeEach
+    void clearJobs() {
+        jobRepository.deleteAll();
+    }
+
+    @Test
+    void higherPriorityJobIsClaimedAheadOfOlderBacklog() {
+        for (int i = 0; i < 200; i++) {
+            saveQueued("SLEEP_JOB", -10);
+        }
+        UUID urgent = saveQueued("FAIL_JOB", 50);
+        UUID normal = saveQueued("FAIL_JOB", 0);
+
+        List<Job> claimed = jobClaimService.claimBatch(2);
+
+        assertThat(claimed).extracting(Job::getJobId).containsExactly(urgent, normal);
+    }
+
+    @Test
+    void typeAtItsCapIsSkippedSoOtherTypesStillRun() {
+        for (int i = 0; i < 20; i++) {
+            saveQueued("SLEEP_JOB", 10);
+        }
+        UUID other = saveQueued("FAIL_JOB", 0);
+
+        JobDispatcher dispatcher = new JobDispatcher(
+                jobClaimService, jobWorker, shutdownLatch, handlerRegistry, 4, 2, 10, 50, 2000, false, 30000, 5, "SLEEP_JOB=2", 0, 16, 10, 60000, 1000);
+
+        // The cap bounds the first batch to two SLEEP_JOBs; after that SLEEP_JOB is excluded.
+        assertThat(dispatcher.claimIntoBuffer()).isEqualTo(2);
+        assertThat(dispatcher.claimIntoBuffer()).isEqualTo(1);
+        assertThat(dispatcher.claimIntoBuffer()).isZero();
+
+        assertThat(jobRepository.findById(other).orElseThrow().getStatus()).isEqualTo(JobStatus.RUNNING);
+        assertThat(jobRepository.findAll())
+                .filteredOn(job -> job.getStatus() == JobStatus.RUNNING)
+                .extracting(Job::getJobType)
+                .containsExactlyInAnyOrder("SLEEP_JOB", "SLEEP_JOB", "FAIL_JOB");
+    }
+
+    private UUID saveQueued(String jobType, int priority) {
+        Job job = new Job(
+                UUID.randomUUID(),
+                JobStatus.QUEUED,
+                jobType,
+                null,
+                1,
+                null,
+                priority
+        );
+        return jobRepository.saveAndFlush(job).getJobId();
+    }
+}
@@ -0,0 +1,112 @@
+package com.nitai.atlas_jobs.job;
+
+import com.nitai.atlas_jobs.AbstractPostgresTest;
+import com.nitai.atlas_jobs.job.api.CreateJobRequest;
+import com.nitai.atlas_jobs.job.handler.JobHandlerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@TestPropertySource(properties = {
+        "atlas.worker.enabled=true",
+        "atlas.notify.enabled=true",
+        // Far longer than the delay: only the timer can start the job on time.
+        "atlas.worker.idle-backoff-min-ms=30000",
+        "atlas.worker.fallback-poll-ms=30000"
+})
+class JobScheduledStartTest extends AbstractPostgresTest {
+
+    private static final long IDLE_MS = 30_000;
+    private static final long TICK_MS = 10;
+
+    @Autowired
+    JobService jobService;
+
+    @Autowired
+    JobRepository jobRepository;
+
+    @Autowired
+    JobClaimService jobClaimService;
+
+    @Autowired
+    JobWorker jobWorker;
+
+    @Autowired
+    WorkerShutdownLatch shutdownLatch;
+
+    @Autowired
+    JobHandlerRegistry handlerRegistry;
+
+    @BeforeEach
+    void clearJobs() {
+        jobRepository.deleteAll();
+    }
+
+    @Test
+    void idleWaitEndsAtTheNextDueTime() {
+        // Not started: the test thread drives the lookahead itself.
+        JobDispatcher dispatcher = new JobDispatcher(
+                jobClaimService, jobWorker, shutdownLatch, handlerRegistry, 4, 2, 10, IDLE_MS, IDLE_MS, false, IDLE_MS, 5, "", 0, 16, TICK_MS, 60000, 1000);
+        assertThat(dispatcher.idleWaitMs()).isEqualTo(IDLE_MS);
+
+        CreateJobRequest request = sleepJob();
+        request.setDelaySeconds(2L);
+        jobService.createJob(request, null);
+        dispatcher.wakeUp();
+
+        // A wheel deadline is never later than the due time rounded up to the next tick.
+        assertThat(dispatcher.idleWaitMs()).isBetween(1L, 2_000L + TICK_MS);
+    }
+
+    @Test
+    void delayedJobStartsWhenDueNotBefore() throws InterruptedException {
+        CreateJobRequest request = sleepJob();
+        request.setDelaySeconds(2L);
+        Job created = jobService.createJob(request, null);
+        assertThat(created.getNextRunAt()).isAfterOrEqualTo(created.getCreatedAt().plusSeconds(2));
+
+        Job started = awaitStarted(created);
+        long lateMs = Duration.between(created.getNextRunAt(), started.getStartedAt()).toMillis();
+        // Loose on purpose; without the timer the job would wait out the 30 s idle backoff.
+        assertThat(lateMs).isBetween(0L, 10_000L);
+    }
+
+    @Test
+    void scheduleIsValidated() {
+        CreateJobRequest both = sleepJob();
+        both.setDelaySeconds(5L);
+        both.setRunAt(OffsetDateTime.now().plusMinutes(1));
+        assertThatThrownBy(() -> jobService.createJob(both, null))
+                .isInstanceOf(InvalidJobPayloadException.class)
+                .hasMessageContaining("not both");
+
+        CreateJobRequest past = sleepJob();
+        past.setRunAt(OffsetDateTime.now().minusHours(1));
+        Job job = jobService.createJob(past, null);
+        assertThat(job.getNextRunAt()).isEqualTo(job.getCreatedAt());
+    }
+
+    private CreateJobRequest sleepJob() {
+        CreateJobRequest request = new CreateJobRequest();
+        request.setJobType("SLEEP_JOB");
+        request.setPayload("{\"sleepSeconds\": 1}");
+        return request;
+    }
+
+    private Job awaitStarted(Job created) throws InterruptedException {
+        long deadline = System.nanoTime() + 20_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            Job current = jobRepository.findById(created.getJobId()).orElseThrow();
+            if (current.getStartedAt() != null) return current;
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + created.getJobId() + " was not started within 20s");
+    }
+}
@@ -2,10 +2,20 @@ package com.nitai.atlas_jobs.job;
 
 
 import com.nitai.atlas_jobs.AbstractPostgresTest;
+import com.nitai.atlas_jobs.job.api.BatchItemResult;
+import com.nitai.atlas_jobs.job.api.BatchJobItem;
 import com.nitai.atlas_jobs.job.api.CreateJobRequest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class JobServiceTest extends AbstractPostgresTest {
@@ -16,6 +26,9 @@ class JobServiceTest extends AbstractPostgresTest {
     @Autowired
     JobRepository jobRepository;
 
+    @Autowired
+    IdempotencyKeyCache idempotencyKeyCache;
+
     @Test
     void sameIdempotencyKeyReturnsSameJobAndOnlyOneRowInDb() {
         String idempotencyKey = "idem-key-1";
@@ -34,4 +47,102 @@ class JobServiceTest extends AbstractPostgresTest {
                 .extracting(Job::getJobId)
                 .isEqualTo(first.getJobId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void concurrentCreatesWithOneKeyResolveToOneJobAndRepeatsHitTheCache() throws Exception {
+        String idempotencyKey = "idem-race-" + UUID.randomUUID();
+        CreateJobRequest request = new CreateJobRequest();
+        request.setJobType("SLEEP_JOB");
+        request.setPayload("{\"sleepSeconds\": 1}");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<UUID>> created = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                created.add(executor.submit(() -> {
+                    go.await();
+                    return jobService.createJob(request, idempotencyKey).getJobId();
+                }));
+            }
+            go.countDown();
+
+            UUID jobId = created.get(0).get();
+            for (Future<UUID> future : created) {
+                assertThat(future.get()).isEqualTo(jobId);
+            }
+
+            long hitsBefore = idempotencyKeyCache.stats().hits();
+            assertThat(jobService.createJob(request, idempotencyKey).getJobId()).isEqualTo(jobId);
+            assertThat(idempotencyKeyCache.stats().hits()).isEqualTo(hitsBefore + 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void batchCreateReportsCreatedDuplicateAndRejectedPerItem() {
+        CreateJobRequest single = new CreateJobRequest();
+        single.setJobType("SLEEP_JOB");
+        single.setPayload("{\"sleepSeconds\": 1}");
+        Job existing = jobService.createJob(single, "batch-existing");
+
+        List<BatchItemResult> results = jobService.createJobs(List.of(
+                batchItem("SLEEP_JOB", "{\"sleepSeconds\": 1}", "batch-a"),
+                batchItem("SLEEP_JOB", "{\"sleepSeconds\": 1}", "batch-a"),
+                batchItem("SLEEP_JOB", "{\"sleepSeconds\": 1}", "batch-existing"),
+                batchItem("NO_SUCH_JOB", "{}", null),
+                batchItem("FAIL_JOB", "{\"message\": \"boom\"}", null)
+        ));
+
+        assertThat(results).extracting(BatchItemResult::outcome).containsExactly(
+                BatchItemResult.Outcome.CREATED,
+                BatchItemResult.Outcome.DUPLICATE,
+                BatchItemResult.Outcome.DUPLICATE,
+                BatchItemResult.Outcome.REJECTED,
+                BatchItemResult.Outcome.CREATED
+        );
+        assertThat(results.get(1).jobId()).isEqualTo(results.get(0).jobId());
+        assertThat(results.get(2).jobId()).isEqualTo(existing.getJobId());
+        assertThat(jobRepository.findById(results.get(4).jobId()))
+                .isPresent()
+                .get()
+                .extracting(Job::getStatus)
+                .isEqualTo(JobStatus.QUEUED);
+    }
+
+    @Test
+    void oversizedKeysAndOutOfRangeMaxAttemptsRejectOnlyTheirItem() {
+        BatchJobItem longKey = batchItem("SLEEP_JOB", "{\"sleepSeconds\": 1}", "k".repeat(129));
+        BatchJobItem tooManyAttempts = batchItem("SLEEP_JOB", "{\"sleepSeconds\": 1}", null);
+        tooManyAttempts.setMaxAttempts(CreateJobRequest.MAX_MAX_ATTEMPTS + 1);
+        BatchJobItem noAttempts = batchItem("SLEEP_JOB", "{\"sleepSeconds\": 1}", null);
+        noAttempts.setMaxAttempts(0);
+
+        List<BatchItemResult> results = jobService.createJobs(List.of(
+                batchItem("SLEEP_JOB", "{\"sleepSeconds\": 1}", "k".repeat(128)),
+                longKey,
+                tooManyAttempts,
+                noAttempts,
+                batchItem("SLEEP_JOB", "{\"sleepSeconds\": 1}", null)
+        ));
+
+        assertThat(results).extracting(BatchItemResult::outcome).containsExactly(
+                BatchItemResult.Outcome.CREATED,
+                BatchItemResult.Outcome.REJECTED,
+                BatchItemResult.Outcome.REJECTED,
+                BatchItemResult.Outcome.REJECTED,
+                BatchItemResult.Outcome.CREATED
+        );
+        assertThat(results.get(1).error()).contains("idempotencyKey");
+        assertThat(results.get(2).error()).contains("maxAttempts");
+    }
+
+    private static BatchJobItem batchItem(String jobType, String payload, String idempotencyKey) {
+        BatchJobItem item = new BatchJobItem();
+        item.setJobType(jobType);
+        item.setPayload(payload);
+        item.setIdempotencyKey(idempotencyKey);
+        return item;
+    }
+}
@@ -0,0 +1,97 @@
+package com.nitai.atlas_jobs.job;
+
+import com.nitai.atlas_jobs.AbstractPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobStatusCountsTest extends AbstractPostgresTest {
+
+    @Autowired
+    JobRepository jobRepository;
+
+    @Autowired
+    JobStatusCounts jobStatusCounts;
+
+    @Autowired
+    JobClaimService jobClaimService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countersFollowEveryKindOfTransition() {
+        for (int i = 0; i < 6; i++) {
+            saveQueued();
+        }
+        jobStatusCounts.rollUp();
+
+        // Set-based claim, a JPA save and a raw delete all go through the triggers.
+        jobClaimService.claimBatch(3);
+        Job finished = jobRepository.findById(saveQueued()).orElseThrow();
+        finished.markSucceeded();
+        jobRepository.saveAndFlush(finished);
+        jdbcTemplate.update("DELETE FROM jobs WHERE job_id IN (SELECT job_id FROM jobs WHERE status = 'QUEUED' LIMIT 1)");
+
+        assertThat(jobStatusCounts.snapshot().byStatus()).isEqualTo(groupByStatus());
+
+        jobStatusCounts.rollUp();
+        assertThat(jobStatusCounts.snapshot().byStatus()).isEqualTo(groupByStatus());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM job_status_count_deltas", Long.class)).isZero();
+        assertThat(jobStatusCounts.snapshot().byWorkerAndStatus())
+                .containsKey("unassigned")
+                .hasSize(2);
+        assertThat(jobStatusCounts.snapshot().byJobType(JobStatus.QUEUED))
+                .containsExactlyEntriesOf(Map.of("SLEEP_JOB", groupByStatus().get(JobStatus.QUEUED)));
+
+        // A lease renewal changes no counted key and records nothing.
+        jdbcTemplate.update("UPDATE jobs SET lease_expires_at = now() + interval '30 seconds' WHERE status = 'RUNNING'");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM job_status_count_deltas", Long.class)).isZero();
+    }
+
+    @Test
+    void reconciliationRepairsDrift() {
+        saveQueued();
+        jdbcTemplate.execute("ALTER TABLE jobs DISABLE TRIGGER USER");
+        try {
+            saveQueued();
+            jdbcTemplate.update("UPDATE jobs SET status = 'DEAD_LETTERED' WHERE job_id IN (SELECT job_id FROM jobs LIMIT 1)");
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE jobs ENABLE TRIGGER USER");
+        }
+        assertThat(jobStatusCounts.snapshot().byStatus()).isNotEqualTo(groupByStatus());
+
+        jobStatusCounts.reconcile();
+
+        assertThat(jobStatusCounts.snapshot().byStatus()).isEqualTo(groupByStatus());
+        assertThat(jobStatusCounts.snapshot().byAttemptCount().values().stream().mapToLong(Long::longValue).sum())
+                .isEqualTo(jobRepository.count());
+    }
+
+    private Map<JobStatus, Long> groupByStatus() {
+        Map<JobStatus, Long> result = new EnumMap<>(JobStatus.class);
+        jdbcTemplate.query("SELECT status, COUNT(*) FROM jobs GROUP BY status",
+                rs -> {
+                    result.put(JobStatus.valueOf(rs.getString(1)), rs.getLong(2));
+                });
+        return result;
+    }
+
+    private UUID saveQueued() {
+        Job job = new Job(
+                UUID.randomUUID(),
+                JobStatus.QUEUED,
+                "SLEEP_JOB",
+                "{\"sleepSeconds\": 1}",
+                3,
+                null
+        );
+        return jobRepository.saveAndFlush(job).getJobId();
+    }
+}
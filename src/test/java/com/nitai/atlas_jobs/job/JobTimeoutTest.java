@@ -0,0 +1,111 @@
+package com.nitai.atlas_jobs.job;
+
+import com.nitai.atlas_jobs.AbstractPostgresTest;
+import com.nitai.atlas_jobs.job.handler.JobHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "atlas.worker.enabled=true",
+        "atlas.worker.concurrency=1",
+        "atlas.worker.idle-backoff-max-ms=200",
+        "atlas.worker.job-timeout-seconds=0"
+})
+@Import(JobTimeoutTest.StuckJobHandler.class)
+class JobTimeoutTest extends AbstractPostgresTest {
+
+    static final CountDownLatch interrupted = new CountDownLatch(1);
+    static final CountDownLatch unblock = new CountDownLatch(1);
+
+    @Autowired
+    JobRepository jobRepository;
+
+    @Autowired
+    JobMetrics jobMetrics;
+
+    @AfterEach
+    void unblockStuckThread() {
+        unblock.countDown();
+    }
+
+    @Test
+    void timedOutJobFailsAndFreesItsSlotEvenIfItIgnoresTheInterrupt() throws InterruptedException {
+        UUID stuck = save("STUCK_JOB", null);
+        waitFor(stuck, JobStatus.DEAD_LETTERED);
+
+        Job timedOut = jobRepository.findById(stuck).orElseThrow();
+        assertThat(timedOut.getLastError()).startsWith(JobWorker.TIMEOUT_ERROR_PREFIX);
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(jobMetrics.getTimeoutsByJobType()).containsEntry("STUCK_JOB", 1L);
+
+        // The only slot is free again although the handler is still blocked on its thread.
+        UUID next = save("SLEEP_JOB", "{\"sleepSeconds\": 1}");
+        waitFor(next, JobStatus.SUCCEEDED);
+
+        // When the handler finally returns, its outcome is discarded.
+        unblock.countDown();
+        Thread.sleep(500);
+        Job after = jobRepository.findById(stuck).orElseThrow();
+        assertThat(after.getStatus()).isEqualTo(JobStatus.DEAD_LETTERED);
+        assertThat(after.getAttemptCount()).isEqualTo(1);
+    }
+
+    private UUID save(String jobType, String payload) {
+        Job job = new Job(UUID.randomUUID(), JobStatus.QUEUED, jobType, payload, 1, null);
+        return jobRepository.saveAndFlush(job).getJobId();
+    }
+
+    private void waitFor(UUID jobId, JobStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        while (System.nanoTime() < deadline
+                && jobRepository.findById(jobId).orElseThrow().getStatus() != status) {
+            Thread.sleep(100);
+        }
+        assertThat(jobRepository.findById(jobId).orElseThrow().getStatus()).isEqualTo(status);
+    }
+
+    /**
+     * Blocks until the test lets it go, swallowing interrupts like a badly behaved handler.
+     */
+    static class StuckJobHandler implements JobHandler<StuckJobHandler.NoPayload> {
+
+        public static class NoPayload {
+        }
+
+        @Override
+        public String jobType() {
+            return "STUCK_JOB";
+        }
+
+        @Override
+        public Class<NoPayload> payloadType() {
+            return NoPayload.class;
+        }
+
+        @Override
+        public Duration timeout() {
+            return Duration.ofMillis(500);
+        }
+
+        @Override
+        public void execute(Job job, NoPayload payload) {
+            while (true) {
+                try {
+                    if (unblock.await(10, TimeUnit.SECONDS)) return;
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.nitai.atlas_jobs.job;
+
+import com.nitai.atlas_jobs.AbstractPostgresTest;
+import com.nitai.atlas_jobs.job.api.CreateJobRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "atlas.worker.enabled=true",
+        "atlas.notify.enabled=true",
+        // Same interval as the old @Scheduled(fixedDelay = 2000) poller, so the
+        // polling half of the test reproduces the previous behaviour.
+        "atlas.worker.fallback-poll-ms=2000"
+})
+class JobWakeupLatencyTest extends AbstractPostgresTest {
+
+    private static final int SAMPLES = 3;
+
+    // Long enough for the job to finish and the idle backoff to reach its maximum.
+    private static final long IDLE_SETTLE_MS = 5_000L;
+
+    @Autowired
+    JobService jobService;
+
+    @Autowired
+    JobRepository jobRepository;
+
+    @Autowired
+    JobNotificationListener notificationListener;
+
+    @Test
+    void notifyWakeupStartsJobsFasterThanPolling() throws InterruptedException {
+        List<Long> notifyLatencies = measureEnqueueToStart();
+
+        notificationListener.stop();
+        List<Long> pollingLatencies = measureEnqueueToStart();
+
+        assertThat(notifyLatencies).allSatisfy(ms -> assertThat(ms).isLessThan(500L));
+        assertThat(mean(notifyLatencies)).isLessThan(mean(pollingLatencies));
+    }
+
+    private List<Long> measureEnqueueToStart() throws InterruptedException {
+        List<Long> latencies = new ArrayList<>();
+        for (int i = 0; i < SAMPLES; i++) {
+            Thread.sleep(IDLE_SETTLE_MS);
+
+            CreateJobRequest request = new CreateJobRequest();
+            request.setJobType("SLEEP_JOB");
+            request.setPayload("{\"sleepSeconds\": 1}");
+            Job created = jobService.createJob(request, null);
+
+            Job started = awaitStarted(created);
+            latencies.add(Duration.between(created.getCreatedAt(), started.getStartedAt()).toMillis());
+        }
+        return latencies;
+    }
+
+    private Job awaitStarted(Job created) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            Job current = jobRepository.findById(created.getJobId()).orElseThrow();
+            if (current.getStartedAt() != null) return current;
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + created.getJobId() + " was not started within 10s");
+    }
+
+    private double mean(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).average().orElse(0);
+    }
+}
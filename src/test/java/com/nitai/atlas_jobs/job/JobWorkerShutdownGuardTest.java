@@ -1,6 +1,7 @@
 package com.nitai.atlas_jobs.job;
 
 import com.nitai.atlas_jobs.AbstractPostgresTest;
+import com.nitai.atlas_jobs.job.handler.JobHandlerRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -13,14 +14,20 @@ class JobWorkerShutdownGuardTest extends AbstractPostgresTest {
     @Autowired
     JobRepository jobRepository;
 
+    @Autowired
+    JobClaimService jobClaimService;
+
     @Autowired
     JobWorker jobWorker;
 
     @Autowired
     WorkerShutdownLatch shutdownLatch;
 
+    @Autowired
+    JobHandlerRegistry handlerRegistry;
+
     @Test
-    void pollAndExecuteOneDoesNotClaimWhenShuttingDown() {
+    void dispatcherDoesNotClaimWhenShuttingDown() {
         Job job = new Job(
                 UUID.randomUUID(),
                 JobStatus.QUEUED,
@@ -31,12 +38,15 @@ class JobWorkerShutdownGuardTest extends AbstractPostgresTest {
         );
         jobRepository.saveAndFlush(job);
 
+        JobDispatcher dispatcher = new JobDispatcher(
+                jobClaimService, jobWorker, shutdownLatch, handlerRegistry, 2, 2, 10, 50, 2000, false, 30000, 5, "", 0, 16, 10, 60000, 1000);
+
         shutdownLatch.signalShutdown();
-        jobWorker.pollAndExecuteOne();
+        assertThat(dispatcher.claimIntoBuffer()).isZero();
 
         Job refreshed = jobRepository.findById(job.getJobId()).orElseThrow();
         assertThat(refreshed.getStatus()).isEqualTo(JobStatus.QUEUED);
         assertThat(refreshed.getWorkerId()).isNull();
         assertThat(refreshed.getStartedAt()).isNull();
     }
-}
\ No newline at end of file
+}
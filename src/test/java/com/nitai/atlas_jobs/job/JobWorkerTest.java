@@ -0,0 +1,44 @@
+package com.nitai.atlas_jobs.job;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobWorkerTest {
+
+    @Test
+    void aFailedCompletionWriteIsNotSwallowedAsAHandlerFailure() {
+        AtomicInteger writes = new AtomicInteger();
+        JobCompletionRepository unreachable = new JobCompletionRepository(new JdbcTemplate()) {
+            @Override
+            public boolean complete(String workerId, JobCompletion completion) {
+                writes.incrementAndGet();
+                throw new DataAccessResourceFailureException("database is down");
+            }
+        };
+        JobExecutor succeeding = new JobExecutor(null) {
+            @Override
+            public void execute(Job job) {
+            }
+        };
+        JobMetrics metrics = new JobMetrics();
+        JobWorker worker = new JobWorker(unreachable,
+                new JobCompletionBatcher(unreachable, null, "worker-1", false, 1, 0, 1),
+                succeeding, metrics, "worker-1");
+
+        Job job = new Job(UUID.randomUUID(), JobStatus.QUEUED, "SLEEP_JOB", null, 3, null);
+        assertThatThrownBy(() -> worker.run(job))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+
+        // Recorded once, as the success it was, and counted as one.
+        assertThat(writes).hasValue(1);
+        assertThat(metrics.getProcessedLastMinute()).isEqualTo(1);
+        assertThat(metrics.getFailuresByJobType()).isEmpty();
+    }
+}
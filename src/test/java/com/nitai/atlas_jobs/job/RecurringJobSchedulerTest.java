@@ -0,0 +1,137 @@
+package com.nitai.atlas_jobs.job;
+
+import com.nitai.atlas_jobs.AbstractPostgresTest;
+import com.nitai.atlas_jobs.job.api.RecurringJobRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@TestPropertySource(properties = {
+        "atlas.recurring.max-catch-up=2",
+        "atlas.recurring.catch-up-window-ms=86400000",
+        "atlas.recurring.batch-size=2"
+})
+class RecurringJobSchedulerTest extends AbstractPostgresTest {
+
+    @Autowired
+    RecurringJobService recurringJobService;
+
+    @Autowired
+    RecurringJobScheduler recurringJobScheduler;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    void missedFireTimesAreMaterializedOnceEach() {
+        OffsetDateTime thisHour = OffsetDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        for (String id : List.of("hourly-a", "hourly-b", "hourly-c")) {
+            recurringJobService.upsert(id, hourly());
+            rewind(id, thisHour.minusHours(5));
+        }
+
+        // batch-size=2: the third definition is picked up by a second batch in the same tick.
+        recurringJobScheduler.fireDueSchedules();
+
+        for (String id : List.of("hourly-a", "hourly-b", "hourly-c")) {
+            assertThat(firedKeys(id)).containsExactlyInAnyOrder(
+                    RecurringJobScheduler.idempotencyKey(id, thisHour.minusHours(1)),
+                    RecurringJobScheduler.idempotencyKey(id, thisHour));
+            RecurringJob definition = recurringJobService.get(id);
+            assertThat(definition.nextFireAt()).isEqualTo(thisHour.plusHours(1));
+            assertThat(definition.lastFiredAt()).isEqualTo(thisHour);
+        }
+
+        // A node that replays the same fire times creates nothing new.
+        rewind("hourly-a", thisHour.minusHours(1));
+        recurringJobScheduler.fireDueSchedules();
+        assertThat(firedKeys("hourly-a")).hasSize(2);
+        assertThat(recurringJobService.get("hourly-a").nextFireAt()).isEqualTo(thisHour.plusHours(1));
+
+        // Still nothing once the earlier jobs have left the table and their keys no longer dedupe.
+        jdbcTemplate.update("DELETE FROM jobs WHERE idempotency_key LIKE 'recurring:hourly-a:%'");
+        rewind("hourly-a", thisHour.minusHours(1));
+        recurringJobScheduler.fireDueSchedules();
+        assertThat(firedKeys("hourly-a")).isEmpty();
+        assertThat(recurringJobService.get("hourly-a").lastFiredAt()).isEqualTo(thisHour);
+    }
+
+    @Test
+    void onlyTheLockHolderFires() throws Exception {
+        recurringJobService.upsert("leader-check", hourly());
+        OffsetDateTime thisHour = OffsetDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        rewind("leader-check", thisHour);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> otherNode = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(hashtext('atlas_jobs.recurring_scheduler'))", Boolean.class);
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+        recurringJobScheduler.fireDueSchedules();
+        assertThat(firedKeys("leader-check")).isEmpty();
+
+        release.countDown();
+        otherNode.get(10, TimeUnit.SECONDS);
+        recurringJobScheduler.fireDueSchedules();
+        assertThat(firedKeys("leader-check")).hasSize(1);
+    }
+
+    @Test
+    void definitionsAreValidated() {
+        RecurringJobRequest badCron = hourly();
+        badCron.setCron("every hour");
+        assertThatThrownBy(() -> recurringJobService.upsert("bad-cron", badCron))
+                .isInstanceOf(InvalidJobPayloadException.class);
+
+        RecurringJobRequest badPayload = hourly();
+        badPayload.setPayload("{\"sleepSeconds\": -1}");
+        assertThatThrownBy(() -> recurringJobService.upsert("bad-payload", badPayload))
+                .isInstanceOf(InvalidJobPayloadException.class);
+
+        assertThatThrownBy(() -> recurringJobService.upsert("no spaces", hourly()))
+                .isInstanceOf(InvalidJobPayloadException.class);
+        assertThatThrownBy(() -> recurringJobService.get("missing"))
+                .isInstanceOf(RecurringJobNotFoundException.class);
+    }
+
+    private RecurringJobRequest hourly() {
+        RecurringJobRequest request = new RecurringJobRequest();
+        request.setJobType("SLEEP_JOB");
+        request.setPayload("{\"sleepSeconds\": 1}");
+        request.setCron("0 0 * * * *");
+        return request;
+    }
+
+    private void rewind(String id, OffsetDateTime nextFireAt) {
+        jdbcTemplate.update("UPDATE recurring_jobs SET next_fire_at = ? WHERE id = ?", nextFireAt, id);
+    }
+
+    private List<String> firedKeys(String id) {
+        return jdbcTemplate.queryForList(
+                "SELECT idempotency_key FROM jobs WHERE idempotency_key LIKE ?", String.class, "recurring:" + id + ":%");
+    }
+}
@@ -0,0 +1,156 @@
+package com.nitai.atlas_jobs.job;
+
+import com.nitai.atlas_jobs.AbstractPostgresTest;
+import com.nitai.atlas_jobs.job.api.BatchItemResult;
+import com.nitai.atlas_jobs.job.api.BatchJobItem;
+import com.nitai.atlas_jobs.job.api.CreateJobRequest;
+import com.nitai.atlas_jobs.job.handler.JobHandler;
+import com.nitai.atlas_jobs.job.handler.JobHandlerRegistry;
+import com.nitai.atlas_jobs.job.payload.PayloadFormat;
+import jakarta.validation.constraints.NotBlank;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "atlas.jobs.payload.storage-format=SMILE",
+        "atlas.jobs.payload.compression-threshold-bytes=256",
+        "atlas.archive.retention-hours=24"
+})
+@Import(SmilePayloadStorageTest.NoteJobHandler.class)
+class SmilePayloadStorageTest extends AbstractPostgresTest {
+
+    static final Map<UUID, String> executed = new ConcurrentHashMap<>();
+
+    @Autowired
+    JobService jobService;
+
+    @Autowired
+    JobRepository jobRepository;
+
+    @Autowired
+    JobClaimService jobClaimService;
+
+    @Autowired
+    JobWorker jobWorker;
+
+    @Autowired
+    JobArchiver jobArchiver;
+
+    @Autowired
+    JobHandlerRegistry handlerRegistry;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clearJobs() {
+        jobRepository.deleteAll();
+        executed.clear();
+    }
+
+    @Test
+    void smilePayloadsSurviveInsertClaimExecutionAndArchiving() {
+        String longNote = "x".repeat(1_000);
+
+        CreateJobRequest single = new CreateJobRequest();
+        single.setJobType("NOTE_JOB");
+        single.setPayload("{\"note\": \"single\"}");
+        UUID created = jobService.createJob(single, null).getJobId();
+
+        List<BatchItemResult> results = jobService.createJobs(List.of(
+                noteItem("batched"),
+                noteItem(longNote)
+        ));
+        UUID batched = results.get(0).jobId();
+        UUID deflated = results.get(1).jobId();
+
+        Job direct = new Job(UUID.randomUUID(), JobStatus.QUEUED, "NOTE_JOB", null, 3, null);
+        direct.storePayload(handlerRegistry.preparePayload("NOTE_JOB", "{\"note\": \"saved\"}"));
+        UUID saved = jobRepository.saveAndFlush(direct).getJobId();
+
+        assertThat(storedFormat(created)).isEqualTo("SMILE");
+        assertThat(storedFormat(batched)).isEqualTo("SMILE");
+        assertThat(storedFormat(deflated)).isEqualTo("SMILE_DEFLATE");
+        assertThat(storedFormat(saved)).isEqualTo("SMILE");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM jobs WHERE payload IS NULL AND payload_bin IS NOT NULL", Long.class))
+                .isEqualTo(4);
+
+        // The claim hands back payload_bin with the row, so handlers run without another read.
+        List<Job> claimed = jobClaimService.claimBatch(10);
+        assertThat(claimed).hasSize(4).allSatisfy(job -> assertThat(job.getPayloadBinary()).isNotEmpty());
+        claimed.forEach(jobWorker::run);
+
+        assertThat(executed).containsExactlyInAnyOrderEntriesOf(Map.of(
+                created, "single",
+                batched, "batched",
+                deflated, longNote,
+                saved, "saved"));
+        for (UUID jobId : Set.of(created, batched, deflated, saved)) {
+            assertThat(jobRepository.findById(jobId).orElseThrow().getStatus()).isEqualTo(JobStatus.SUCCEEDED);
+        }
+
+        jdbcTemplate.update("UPDATE jobs SET updated_at = now() - interval '2 days'");
+        jobArchiver.archiveTerminalJobs();
+
+        assertThat(jobRepository.findById(deflated)).isEmpty();
+        Job archived = jobService.getJob(deflated);
+        assertThat(archived.getPayloadFormat()).isEqualTo(PayloadFormat.SMILE_DEFLATE);
+        assertThat(((NotePayload) handlerRegistry.decodePayload(archived)).getNote()).isEqualTo(longNote);
+        assertThat(((NotePayload) handlerRegistry.decodePayload(jobService.getJob(saved))).getNote())
+                .isEqualTo("saved");
+    }
+
+    private String storedFormat(UUID jobId) {
+        return jdbcTemplate.queryForObject("SELECT payload_format FROM jobs WHERE job_id = ?", String.class, jobId);
+    }
+
+    private static BatchJobItem noteItem(String note) {
+        BatchJobItem item = new BatchJobItem();
+        item.setJobType("NOTE_JOB");
+        item.setPayload("{\"note\": \"" + note + "\"}");
+        return item;
+    }
+
+    public static class NotePayload {
+
+        @NotBlank
+        private String note;
+
+        public String getNote() { return note; }
+        public void setNote(String note) { this.note = note; }
+    }
+
+    /**
+     * Records the note each job ran with, as decoded from payload_bin.
+     */
+    static class NoteJobHandler implements JobHandler<NotePayload> {
+
+        @Override
+        public String jobType() {
+            return "NOTE_JOB";
+        }
+
+        @Override
+        public Class<NotePayload> payloadType() {
+            return NotePayload.class;
+        }
+
+        @Override
+        public void execute(Job job, NotePayload payload) {
+            executed.put(job.getJobId(), payload.getNote());
+        }
+    }
+}
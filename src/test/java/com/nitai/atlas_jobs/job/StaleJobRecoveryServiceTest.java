@@ -7,6 +7,7 @@ import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.sql.Timestamp;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -22,6 +23,9 @@ class StaleJobRecoveryServiceTest extends AbstractPostgresTest {
     @Autowired
     JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    JobClaimService jobClaimService;
+
     @Test
     void staleRunningJobIsRequeued() {
         Job job = new Job(
@@ -52,4 +56,78 @@ class StaleJobRecoveryServiceTest extends AbstractPostgresTest {
         assertThat(updated.getLastError()).isEqualTo("Stale RUNNING (timeout)");
         assertThat(updated.getNextRunAt()).isAfter(updated.getUpdatedAt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void expiredLeaseIsRequeued() {
+        Job job = saveRunningJob(OffsetDateTime.now().minusMinutes(1), OffsetDateTime.now().minusSeconds(5));
+
+        staleJobRecoveryService.recoverStaleRunningJobs();
+
+        Job updated = jobRepository.findById(job.getJobId()).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo(JobStatus.QUEUED);
+        assertThat(updated.getAttemptCount()).isEqualTo(1);
+        assertThat(updated.getLastError()).isEqualTo("Stale RUNNING (lease expired)");
+        assertThat(updated.getLeaseExpiresAt()).isNull();
+        assertThat(updated.getNextRunAt()).isAfter(updated.getUpdatedAt());
+    }
+
+    @Test
+    void longRunningJobWithLiveLeaseIsNotRecovered() {
+        Job job = saveRunningJob(OffsetDateTime.now().minusMinutes(60), OffsetDateTime.now().plusSeconds(30));
+
+        staleJobRecoveryService.recoverStaleRunningJobs();
+
+        Job updated = jobRepository.findById(job.getJobId()).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo(JobStatus.RUNNING);
+        assertThat(updated.getAttemptCount()).isEqualTo(0);
+    }
+
+    @Test
+    void heartbeatRenewsLeasesOfClaimedJobs() {
+        jobRepository.saveAndFlush(new Job(
+                UUID.randomUUID(),
+                JobStatus.QUEUED,
+                "SLEEP_JOB",
+                "{\"sleepSeconds\": 1}",
+                3,
+                null
+        ));
+        List<Job> claimed = jobClaimService.claimBatch(10);
+        assertThat(claimed).isNotEmpty();
+        List<UUID> ids = claimed.stream().map(Job::getJobId).toList();
+
+        for (UUID id : ids) {
+            jdbcTemplate.update("UPDATE jobs SET lease_expires_at = now() - interval '1 second' WHERE job_id = ?", id);
+        }
+        assertThat(jobClaimService.renewLeases(ids)).isEqualTo(ids.size());
+
+        staleJobRecoveryService.recoverStaleRunningJobs();
+
+        assertThat(jobRepository.findAllById(ids))
+                .allSatisfy(job -> {
+                    assertThat(job.getStatus()).isEqualTo(JobStatus.RUNNING);
+                    assertThat(job.getLeaseExpiresAt()).isAfter(OffsetDateTime.now());
+                });
+    }
+
+    private Job saveRunningJob(OffsetDateTime startedAt, OffsetDateTime leaseExpiresAt) {
+        Job job = new Job(
+                UUID.randomUUID(),
+                JobStatus.QUEUED,
+                "SLEEP_JOB",
+                "{\"sleepSeconds\": 1}",
+                3,
+                null
+        );
+        jobRepository.saveAndFlush(job);
+
+        jdbcTemplate.update(
+                "UPDATE jobs " +
+                        "SET status = 'RUNNING', started_at = ?, lease_expires_at = ?, worker_id = ? " +
+                        "WHERE job_id = ?",
+                Timestamp.from(startedAt.toInstant()), Timestamp.from(leaseExpiresAt.toInstant()),
+                "worker-1", job.getJobId()
+        );
+        return job;
+    }
+}
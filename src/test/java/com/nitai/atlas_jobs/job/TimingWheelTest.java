@@ -0,0 +1,61 @@
+package com.nitai.atlas_jobs.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    @Test
+    void firesAtTheRoundedUpDueTimeAndNeverEarly() {
+        TimingWheel wheel = new TimingWheel(10, 8, 1_000);
+        UUID soon = UUID.randomUUID();
+        UUID later = UUID.randomUUID();
+
+        assertThat(wheel.schedule(soon, 1_035)).isTrue();
+        assertThat(wheel.schedule(later, 1_070)).isTrue();
+        assertThat(wheel.schedule(UUID.randomUUID(), 1_000)).isFalse();
+        assertThat(wheel.nextDeadlineMs()).isEqualTo(1_040);
+
+        assertThat(wheel.advance(1_039)).isEmpty();
+        assertThat(wheel.advance(1_040)).containsExactly(soon);
+        assertThat(wheel.nextDeadlineMs()).isEqualTo(1_070);
+        assertThat(wheel.advance(1_075)).containsExactly(later);
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.nextDeadlineMs()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void farEntriesCascadeDownThroughTheLevels() {
+        // Level spans: 80ms, 640ms, 5120ms.
+        TimingWheel wheel = new TimingWheel(10, 8, 0);
+        UUID far = UUID.randomUUID();
+        wheel.schedule(far, 3_005);
+
+        // The far entry waits in a level-2 bucket, then moves down as its time nears.
+        assertThat(wheel.nextDeadlineMs()).isEqualTo(2_560);
+        assertThat(wheel.advance(2_560)).isEmpty();
+        assertThat(wheel.nextDeadlineMs()).isBetween(2_561L, 3_010L);
+
+        long now = 2_560;
+        while (wheel.size() > 0) {
+            now = wheel.nextDeadlineMs();
+            wheel.advance(now);
+        }
+        assertThat(now).isEqualTo(3_010);
+    }
+
+    @Test
+    void reschedulingReplacesTheDueTime() {
+        TimingWheel wheel = new TimingWheel(10, 8, 0);
+        UUID job = UUID.randomUUID();
+        wheel.schedule(job, 50);
+        wheel.schedule(job, 500);
+
+        assertThat(wheel.advance(60)).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(500)).containsExactly(job);
+    }
+}
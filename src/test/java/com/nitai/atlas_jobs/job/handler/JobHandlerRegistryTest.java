@@ -0,0 +1,106 @@
+package com.nitai.atlas_jobs.job.handler;
+
+import com.nitai.atlas_jobs.job.InvalidJobPayloadException;
+import com.nitai.atlas_jobs.job.Job;
+import com.nitai.atlas_jobs.job.JobStatus;
+import com.nitai.atlas_jobs.job.payload.FailJobPayload;
+import com.nitai.atlas_jobs.job.payload.PayloadCodec;
+import com.nitai.atlas_jobs.job.payload.PayloadFormat;
+import com.nitai.atlas_jobs.job.payload.SleepJobPayload;
+import com.nitai.atlas_jobs.job.payload.StoredPayload;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobHandlerRegistryTest {
+
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+
+    @AfterEach
+    void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void parsesValidatesAndDispatchesByType() {
+        JobHandlerRegistry registry = registry(new SleepJobHandler(), new FailJobHandler());
+
+        assertThat(registry.parsePayload("SLEEP_JOB", "{\"sleepSeconds\": 5}"))
+                .isInstanceOfSatisfying(SleepJobPayload.class, p -> assertThat(p.getSleepSeconds()).isEqualTo(5));
+        assertThat(registry.parsePayload("SLEEP_JOB", null)).isInstanceOf(SleepJobPayload.class);
+
+        assertThatThrownBy(() -> registry.parsePayload("SLEEP_JOB", "{\"sleepSeconds\": 0}"))
+                .isInstanceOf(InvalidJobPayloadException.class)
+                .hasMessageContaining("sleepSeconds");
+        assertThatThrownBy(() -> registry.parsePayload("SLEEP_JOB", "{not-json}"))
+                .isInstanceOf(InvalidJobPayloadException.class);
+        assertThatThrownBy(() -> registry.parsePayload("NOPE_JOB", "{}"))
+                .isInstanceOf(InvalidJobPayloadException.class)
+                .hasMessage("Unknown job type: NOPE_JOB");
+
+        Job job = new Job(UUID.randomUUID(), JobStatus.RUNNING, "FAIL_JOB", "{\"message\": \"boom\"}", 3, null);
+        assertThatThrownBy(() -> registry.execute(job))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("boom");
+    }
+
+    @Test
+    void exposesHandlerConcurrencyLimitsAndRejectsDuplicateTypes() {
+        JobHandler<SleepJobPayload> capped = new SleepJobHandler() {
+            @Override
+            public int concurrencyLimit() {
+                return 2;
+            }
+        };
+
+        assertThat(registry(capped, new FailJobHandler()).concurrencyLimits())
+                .containsExactlyEntriesOf(Map.of("SLEEP_JOB", 2));
+        assertThatThrownBy(() -> registry(new SleepJobHandler(), capped))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SLEEP_JOB");
+    }
+
+    @Test
+    void smileStorageRoundTripsAndDeflatesLargePayloads() {
+        JobHandlerRegistry registry = registry(new PayloadCodec("SMILE", 256), new SleepJobHandler(), new FailJobHandler());
+
+        StoredPayload small = registry.preparePayload("SLEEP_JOB", "{\"sleepSeconds\": 7}");
+        assertThat(small.format()).isEqualTo(PayloadFormat.SMILE);
+        assertThat(small.text()).isNull();
+        assertThat(registry.decodePayload(storedJob("SLEEP_JOB", small)))
+                .isInstanceOfSatisfying(SleepJobPayload.class, p -> assertThat(p.getSleepSeconds()).isEqualTo(7));
+
+        String message = "x".repeat(10_000);
+        StoredPayload large = registry.preparePayload("FAIL_JOB", "{\"message\": \"" + message + "\"}");
+        assertThat(large.format()).isEqualTo(PayloadFormat.SMILE_DEFLATE);
+        assertThat(large.binary().length).isLessThan(1_000);
+        assertThat(registry.decodePayload(storedJob("FAIL_JOB", large)))
+                .isInstanceOfSatisfying(FailJobPayload.class, p -> assertThat(p.getMessage()).isEqualTo(message));
+
+        assertThatThrownBy(() -> registry.preparePayload("SLEEP_JOB", "{\"sleepSeconds\": 0}"))
+                .isInstanceOf(InvalidJobPayloadException.class);
+    }
+
+    private Job storedJob(String jobType, StoredPayload payload) {
+        Job job = new Job(UUID.randomUUID(), JobStatus.RUNNING, jobType, null, 3, null);
+        job.storePayload(payload);
+        return job;
+    }
+
+    private JobHandlerRegistry registry(JobHandler<?>... handlers) {
+        return registry(new PayloadCodec("JSON", 1024), handlers);
+    }
+
+    private JobHandlerRegistry registry(PayloadCodec codec, JobHandler<?>... handlers) {
+        return new JobHandlerRegistry(List.of(handlers), JsonMapper.builder().build(), validatorFactory.getValidator(), codec);
+    }
+}
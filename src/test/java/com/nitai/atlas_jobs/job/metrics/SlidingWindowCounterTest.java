@@ -0,0 +1,67 @@
+package com.nitai.atlas_jobs.job.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SlidingWindowCounterTest {
+
+    @Test
+    void sumsOnlyBucketsInsideTheRequestedWindow() {
+        AtomicLong clock = new AtomicLong(10_000_000L);
+        SlidingWindowCounter counter = new SlidingWindowCounter(900_000L, 250L, 4, clock::get);
+
+        counter.add(5);                 // t = 0
+        clock.addAndGet(120_000L);
+        counter.add(3);                 // t = 2m
+        clock.addAndGet(500L);
+        counter.increment();            // t = 2m 0.5s
+
+        assertThat(counter.sum(250L)).isEqualTo(1);
+        assertThat(counter.sum(1_000L)).isEqualTo(4);
+        assertThat(counter.sum(60_000L)).isEqualTo(4);
+        assertThat(counter.sum(300_000L)).isEqualTo(9);
+        assertThat(counter.ratePerSecond(300_000L)).isCloseTo(9 / 300.0, within(1e-9));
+
+        clock.addAndGet(900_000L);
+        assertThat(counter.sum(900_000L)).isZero();
+    }
+
+    @Test
+    void reusedBucketsStartFromZero() {
+        AtomicLong clock = new AtomicLong(0L);
+        SlidingWindowCounter counter = new SlidingWindowCounter(1_000L, 100L, 1, clock::get);
+
+        counter.add(7);
+        // Same ring position, one full lap later
+        clock.addAndGet(1_100L);
+        counter.add(2);
+
+        assertThat(counter.sum(1_000L)).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentIncrementsAreNotLost() throws InterruptedException {
+        SlidingWindowCounter counter = new SlidingWindowCounter(60_000L, 250L);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    counter.increment();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(counter.sum(60_000L)).isEqualTo(400_000L);
+    }
+}
@@ -0,0 +1,60 @@
+package com.nitai.atlas_jobs.job.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class WindowedHistogramTest {
+
+    @Test
+    void percentilesAreWithinBucketPrecision() {
+        AtomicLong clock = new AtomicLong(1_000_000L);
+        WindowedHistogram histogram = new WindowedHistogram(60_000L, 6, clock::get);
+
+        // 1ms .. 10s in 1ms steps
+        for (long ms = 1; ms <= 10_000; ms++) {
+            histogram.record(ms * 1_000L);
+        }
+
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(10_000);
+        assertThat(snapshot.p50Ms()).isCloseTo(5_000.0, within(5_000.0 * 0.07));
+        assertThat(snapshot.p90Ms()).isCloseTo(9_000.0, within(9_000.0 * 0.07));
+        assertThat(snapshot.p99Ms()).isCloseTo(9_900.0, within(9_900.0 * 0.07));
+        assertThat(snapshot.p999Ms()).isCloseTo(9_990.0, within(9_990.0 * 0.07));
+        assertThat(snapshot.maxMs()).isEqualTo(10_000.0);
+    }
+
+    @Test
+    void oldSlotsFallOutOfTheWindow() {
+        AtomicLong clock = new AtomicLong(1_000_000L);
+        WindowedHistogram histogram = new WindowedHistogram(60_000L, 6, clock::get);
+
+        histogram.record(500_000L);
+        clock.addAndGet(30_000L);
+        histogram.record(2_000L);
+        assertThat(histogram.snapshot().count()).isEqualTo(2);
+        assertThat(histogram.snapshot().maxMs()).isEqualTo(500.0);
+
+        clock.addAndGet(40_000L);
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(1);
+        assertThat(snapshot.maxMs()).isEqualTo(2.0);
+
+        clock.addAndGet(60_000L);
+        assertThat(histogram.snapshot()).isEqualTo(LatencySnapshot.EMPTY);
+    }
+
+    @Test
+    void bucketsCoverEveryNonNegativeLong() {
+        assertThat(WindowedHistogram.bucketIndex(0)).isZero();
+        assertThat(WindowedHistogram.bucketIndex(Long.MAX_VALUE)).isEqualTo(WindowedHistogram.BUCKETS - 1);
+        for (long v = 1; v > 0 && v < Long.MAX_VALUE / 3; v = v * 3 + 1) {
+            long mid = WindowedHistogram.bucketMidpoint(WindowedHistogram.bucketIndex(v));
+            assertThat((double) Math.abs(mid - v)).isLessThanOrEqualTo(v * 0.0625);
+        }
+    }
+}
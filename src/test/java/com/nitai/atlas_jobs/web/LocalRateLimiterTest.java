@@ -0,0 +1,89 @@
+package com.nitai.atlas_jobs.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    void burstIsCappedAndRefillsContinuously() {
+        LocalRateLimiter limiter = new LocalRateLimiter(60, 30, 100, clock::get);
+
+        RateLimiter.Decision burst = limiter.acquire(RateLimiter.Bucket.JOBS, "a", 100);
+        assertThat(burst.granted()).isEqualTo(60);
+        assertThat(burst.remaining()).isZero();
+        assertThat(burst.resetSeconds()).isEqualTo(60);
+        assertThat(burst.retryAfterSeconds()).isEqualTo(1);
+        assertThat(limiter.isRateLimited(RateLimiter.Bucket.JOBS, "a")).isTrue();
+
+        advanceMillis(1_000);
+        assertThat(limiter.isRateLimited(RateLimiter.Bucket.JOBS, "a")).isFalse();
+        assertThat(limiter.isRateLimited(RateLimiter.Bucket.JOBS, "a")).isTrue();
+
+        // Other clients and the other bucket are independent.
+        assertThat(limiter.acquireUpTo(RateLimiter.Bucket.JOBS, "b", 10)).isEqualTo(10);
+        assertThat(limiter.acquireUpTo(RateLimiter.Bucket.REQUEUE, "a", 100)).isEqualTo(30);
+    }
+
+    @Test
+    void noDoubleBurstAcrossWhatWouldBeAWindowEdge() {
+        LocalRateLimiter limiter = new LocalRateLimiter(60, 30, 100, clock::get);
+
+        advanceMillis(59_900);
+        assertThat(limiter.acquireUpTo(RateLimiter.Bucket.JOBS, "a", 60)).isEqualTo(60);
+        advanceMillis(200);
+        assertThat(limiter.acquireUpTo(RateLimiter.Bucket.JOBS, "a", 60)).isZero();
+    }
+
+    @Test
+    void trackedClientsAreBoundedAndIdleOnesEvicted() {
+        LocalRateLimiter limiter = new LocalRateLimiter(60, 30, 3, clock::get);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.isRateLimited(RateLimiter.Bucket.JOBS, "10.0.0." + i);
+        }
+        // Three clients plus the shared overflow key.
+        assertThat(limiter.trackedClients(RateLimiter.Bucket.JOBS)).isEqualTo(4);
+
+        // The overflow key absorbed 47 permits, so it is the only one not yet refilled.
+        advanceMillis(1_000);
+        limiter.evictIdleClients();
+        assertThat(limiter.trackedClients(RateLimiter.Bucket.JOBS)).isEqualTo(1);
+
+        assertThat(limiter.isRateLimited(RateLimiter.Bucket.JOBS, "10.0.0.99")).isFalse();
+        assertThat(limiter.trackedClients(RateLimiter.Bucket.JOBS)).isEqualTo(2);
+    }
+
+    @Test
+    void aFullMapIsSweptFromTheRequestPathAtMostOncePerInterval() {
+        LocalRateLimiter limiter = new LocalRateLimiter(60, 30, 3, clock::get);
+        for (String key : new String[] {"a", "b", "c"}) {
+            limiter.isRateLimited(RateLimiter.Bucket.JOBS, key);
+        }
+
+        // a, b and c have refilled: the first unknown client sweeps them out and gets its own cell.
+        advanceMillis(1_000);
+        limiter.isRateLimited(RateLimiter.Bucket.JOBS, "d");
+        assertThat(limiter.trackedClients(RateLimiter.Bucket.JOBS)).isEqualTo(1);
+
+        // e and f take no permits, so they are idle at once, but the next sweep is not due yet.
+        limiter.acquire(RateLimiter.Bucket.JOBS, "e", 0);
+        limiter.acquire(RateLimiter.Bucket.JOBS, "f", 0);
+        limiter.isRateLimited(RateLimiter.Bucket.JOBS, "g");
+        assertThat(limiter.trackedClients(RateLimiter.Bucket.JOBS)).isEqualTo(4);
+
+        advanceMillis(1_000);
+        limiter.isRateLimited(RateLimiter.Bucket.JOBS, "h");
+        assertThat(limiter.trackedClients(RateLimiter.Bucket.JOBS)).isEqualTo(1);
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
@@ -0,0 +1,118 @@
+package com.nitai.atlas_jobs.web;
+
+import com.nitai.atlas_jobs.AbstractPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostgresRateLimiterTest extends AbstractPostgresTest {
+
+    private static final int NODES = 3;
+    private static final long PER_MINUTE = 120;
+    private static final long LEASE_SIZE = 10;
+
+    @Autowired
+    RateLimitLeaseRepository leaseRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void nodesSharingTheDatabaseStayWithinOneGlobalLimit() throws Exception {
+        String client = "10.1.0." + UUID.randomUUID();
+        List<PostgresRateLimiter> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(new PostgresRateLimiter(leaseRepository, new LocalRateLimiter(PER_MINUTE, PER_MINUTE, 1000),
+                    PER_MINUTE, PER_MINUTE, 1000, LEASE_SIZE, 1000, 5000));
+        }
+
+        long durationMs = 3_000;
+        ExecutorService executor = Executors.newFixedThreadPool(NODES * 2);
+        List<Future<Long>> grantedPerThread = new ArrayList<>();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMs);
+            for (int i = 0; i < NODES * 2; i++) {
+                PostgresRateLimiter node = nodes.get(i % NODES);
+                grantedPerThread.add(executor.submit(() -> {
+                    long granted = 0;
+                    while (System.nanoTime() < deadline) {
+                        if (!node.isRateLimited(RateLimiter.Bucket.JOBS, client)) granted++;
+                    }
+                    return granted;
+                }));
+            }
+
+            long total = 0;
+            for (Future<Long> future : grantedPerThread) {
+                total += future.get();
+            }
+
+            // One bucket's worth, plus what refills during the run, plus at most one lease per node.
+            long refilled = PER_MINUTE * durationMs / 60_000 + 1;
+            assertThat(total).isGreaterThanOrEqualTo(PER_MINUTE - NODES * LEASE_SIZE);
+            assertThat(total).isLessThanOrEqualTo(PER_MINUTE + refilled + NODES * LEASE_SIZE);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void refusedClientIsRefusedLocallyAndRefilledRowsAreDeleted() {
+        String client = "10.2.0." + UUID.randomUUID();
+        PostgresRateLimiter node = new PostgresRateLimiter(leaseRepository, new LocalRateLimiter(2, 2, 1000),
+                2, 2, 1000, 0, 1000, 5000);
+
+        RateLimiter.Decision burst = node.acquire(RateLimiter.Bucket.REQUEUE, client, 5);
+        assertThat(burst.granted()).isEqualTo(2);
+        assertThat(burst.retryAfterSeconds()).isEqualTo(30);
+        assertThat(node.isRateLimited(RateLimiter.Bucket.REQUEUE, client)).isTrue();
+
+        // The refusal above did not need another lease.
+        Long lastGranted = jdbcTemplate.queryForObject(
+                "SELECT last_granted FROM rate_limit_buckets WHERE bucket = 'REQUEUE' AND client_key = ?",
+                Long.class, client);
+        assertThat(lastGranted).isEqualTo(2);
+
+        jdbcTemplate.update("UPDATE rate_limit_buckets SET tat_us = 0 WHERE client_key = ?", client);
+        node.evictIdleClients();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM rate_limit_buckets WHERE client_key = ?", Long.class, client)).isZero();
+    }
+
+    @Test
+    void aFailedLeaseSkipsTheDatabaseUntilTheBackOffEnds() {
+        AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        AtomicInteger calls = new AtomicInteger();
+        RateLimitLeaseRepository unreachable = new RateLimitLeaseRepository(jdbcTemplate) {
+            @Override
+            public Lease lease(String bucket, String key, long want, long intervalMicros, long capacityMicros) {
+                calls.incrementAndGet();
+                throw new CannotGetJdbcConnectionException("database is down");
+            }
+        };
+        PostgresRateLimiter node = new PostgresRateLimiter(unreachable, new LocalRateLimiter(60, 60, 1000, clock::get),
+                60, 60, 1000, 0, 1000, 5000, clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(node.isRateLimited(RateLimiter.Bucket.JOBS, "10.3.0." + i)).isFalse();
+        }
+        assertThat(calls).hasValue(1);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(5_000));
+        assertThat(node.isRateLimited(RateLimiter.Bucket.JOBS, "10.3.0.0")).isFalse();
+        assertThat(calls).hasValue(2);
+    }
+}
@@ -0,0 +1,128 @@
+package com.nitai.atlas_jobs.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightCacheTest {
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlightCache<Integer, String> cache = new SingleFlightCache<>(60_000, 16);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> cache.get(5, () -> {
+            loads.incrementAndGet();
+            loaderStarted.countDown();
+            await(releaseLoader);
+            return "value";
+        })));
+        assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < 7; i++) {
+            results.add(executor.submit(() -> cache.get(5, () -> {
+                loads.incrementAndGet();
+                return "other";
+            })));
+        }
+        Thread.sleep(100);
+        releaseLoader.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        executor.shutdown();
+
+        assertThat(loads).hasValue(1);
+        SingleFlightCache.Stats stats = cache.stats();
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.hits() + stats.coalesced()).isEqualTo(7);
+    }
+
+    @Test
+    void entriesExpireAfterTtlAndKeysAreSeparate() throws InterruptedException {
+        SingleFlightCache<Integer, Integer> cache = new SingleFlightCache<>(50, 16);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get(1, loads::incrementAndGet)).isEqualTo(1);
+        assertThat(cache.get(1, loads::incrementAndGet)).isEqualTo(1);
+        assertThat(cache.get(2, loads::incrementAndGet)).isEqualTo(2);
+
+        Thread.sleep(100);
+        assertThat(cache.get(1, loads::incrementAndGet)).isEqualTo(3);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(3);
+    }
+
+    @Test
+    void liveEntriesPastMaxEntriesEvictTheOldest() {
+        SingleFlightCache<Integer, Integer> cache = new SingleFlightCache<>(60_000, 3);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int key = 1; key <= 10; key++) {
+            cache.get(key, loads::incrementAndGet);
+            assertThat(cache.stats().size()).isLessThanOrEqualTo(3);
+        }
+
+        assertThat(cache.get(10, loads::incrementAndGet)).isEqualTo(10);
+        assertThat(cache.get(1, loads::incrementAndGet)).isEqualTo(11);
+        assertThat(cache.stats().size()).isEqualTo(3);
+    }
+
+    @Test
+    void failedLoadsAreNotCached() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(60_000, 16);
+
+        assertThatThrownBy(() -> cache.get("k", () -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get("k", () -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    void loaderErrorsReleaseWaitersAndAreNotCached() throws Exception {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(60_000, 16);
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<String> loader = executor.submit(() -> cache.get("k", () -> {
+            loaderStarted.countDown();
+            await(releaseLoader);
+            throw new StackOverflowError("deep");
+        }));
+        assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> waiter = executor.submit(() -> cache.get("k", () -> "unused"));
+        Thread.sleep(100);
+        releaseLoader.countDown();
+
+        assertThatThrownBy(() -> loader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        executor.shutdown();
+
+        assertThat(cache.get("k", () -> "recovered")).isEqualTo("recovered");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}